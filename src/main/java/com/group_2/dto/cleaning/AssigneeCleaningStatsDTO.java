@@ -0,0 +1,14 @@
+package com.group_2.dto.cleaning;
+
+// Cleaning statistics of one member, built by CleaningTaskRepository.getStatsByAssignee
+public record AssigneeCleaningStatsDTO(
+        Long assigneeId,
+        String assigneeName,
+        CleaningStatsDTO stats) {
+
+    public AssigneeCleaningStatsDTO(Long assigneeId, String name, String surname, Long assignedTasks,
+            Long completedTasks, Long overdueTasks, Double averageCompletionDelayDays) {
+        this(assigneeId, surname != null && !surname.isEmpty() ? name + " " + surname : name,
+                CleaningStatsDTO.of(assignedTasks, completedTasks, overdueTasks, averageCompletionDelayDays));
+    }
+}
@@ -0,0 +1,28 @@
+package com.group_2.dto.cleaning;
+
+/**
+ * Cleaning task counts of one group (member, room or month) over a date
+ * range. A task is overdue if its due date has passed and it was not
+ * completed on or before that day. The completion delay is the number of days
+ * between the due date and the completion, negative if done early, null if
+ * no task of the group has been completed.
+ */
+public record CleaningStatsDTO(
+        long assignedTasks,
+        long completedTasks,
+        long overdueTasks,
+        Double averageCompletionDelayDays) {
+
+    // Aggregates are null for an empty group
+    static CleaningStatsDTO of(Long assignedTasks, Long completedTasks, Long overdueTasks,
+            Double averageCompletionDelayDays) {
+        return new CleaningStatsDTO(assignedTasks != null ? assignedTasks : 0,
+                completedTasks != null ? completedTasks : 0, overdueTasks != null ? overdueTasks : 0,
+                averageCompletionDelayDays);
+    }
+
+    // Share of completed tasks between 0 and 1, 0 if nothing was assigned
+    public double completionRate() {
+        return assignedTasks == 0 ? 0 : (double) completedTasks / assignedTasks;
+    }
+}
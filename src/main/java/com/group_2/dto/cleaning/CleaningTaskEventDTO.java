@@ -0,0 +1,34 @@
+package com.group_2.dto.cleaning;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Fields of a cleaning task needed for the calendar export, streamed by
+// CleaningTaskRepository without loading the task entities
+public record CleaningTaskEventDTO(
+        Long id,
+        Long version,
+        String roomName,
+        String assigneeName,
+        String assigneeSurname,
+        LocalDate weekStartDate,
+        LocalDate dueDate,
+        Boolean completed,
+        LocalDateTime completedAt) {
+
+    public String getAssigneeDisplayName() {
+        if (assigneeSurname == null || assigneeSurname.isEmpty()) {
+            return assigneeName;
+        }
+        return assigneeName + " " + assigneeSurname;
+    }
+
+    // Falls back to weekStartDate if dueDate is null
+    public LocalDate getEffectiveDueDate() {
+        return dueDate != null ? dueDate : weekStartDate;
+    }
+
+    public boolean isCompleted() {
+        return Boolean.TRUE.equals(completed);
+    }
+}
@@ -0,0 +1,7 @@
+package com.group_2.dto.cleaning;
+
+// Summed room weights of a member's tasks, built by CleaningTaskRepository.sumRoomWeightsByAssignee
+public record MemberCleaningLoadDTO(
+        Long assigneeId,
+        Long load) {
+}
@@ -0,0 +1,15 @@
+package com.group_2.dto.cleaning;
+
+import java.time.YearMonth;
+
+// Cleaning statistics of one month by due date, built by CleaningTaskRepository.getStatsByMonth
+public record MonthlyCleaningStatsDTO(
+        YearMonth month,
+        CleaningStatsDTO stats) {
+
+    public MonthlyCleaningStatsDTO(Integer year, Integer month, Long assignedTasks, Long completedTasks,
+            Long overdueTasks, Double averageCompletionDelayDays) {
+        this(YearMonth.of(year, month),
+                CleaningStatsDTO.of(assignedTasks, completedTasks, overdueTasks, averageCompletionDelayDays));
+    }
+}
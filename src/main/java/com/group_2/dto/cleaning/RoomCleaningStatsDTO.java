@@ -0,0 +1,14 @@
+package com.group_2.dto.cleaning;
+
+// Cleaning statistics of one room, built by CleaningTaskRepository.getStatsByRoom
+public record RoomCleaningStatsDTO(
+        Long roomId,
+        String roomName,
+        CleaningStatsDTO stats) {
+
+    public RoomCleaningStatsDTO(Long roomId, String roomName, Long assignedTasks, Long completedTasks,
+            Long overdueTasks, Double averageCompletionDelayDays) {
+        this(roomId, roomName,
+                CleaningStatsDTO.of(assignedTasks, completedTasks, overdueTasks, averageCompletionDelayDays));
+    }
+}
@@ -1,29 +1,34 @@
 package com.group_2.dto.finance;
 
+import com.group_2.util.MoneyUtils;
+
 /**
- * DTO representing a balance between two users. Positive = other user owes
- * current user. Negative = current user owes other user.
+ * DTO representing a balance between two users in cents. Positive = other user
+ * owes current user. Negative = current user owes other user.
  */
-public record BalanceDTO(Long userId, String userName, Double balance) {
+public record BalanceDTO(Long userId, String userName, long balanceCents) {
+    public double balance() {
+        return MoneyUtils.toAmount(balanceCents);
+    }
+
     public String getFormattedBalance() {
-        return String.format("%.2f€", Math.abs(balance));
+        return String.format("%.2f€", getAbsoluteBalance());
     }
 
     public boolean isCredit() {
-        return balance > 0;
+        return balanceCents > 0;
     }
 
     public boolean isDebt() {
-        return balance < 0;
+        return balanceCents < 0;
     }
 
-    // Uses 0.01 threshold to handle floating-point precision
     public boolean isSettled() {
-        return Math.abs(balance) < 0.01;
+        return balanceCents == 0;
     }
 
-    public Double getAbsoluteBalance() {
-        return Math.abs(balance);
+    public double getAbsoluteBalance() {
+        return Math.abs(balance());
     }
 
     public String getStatusText() {
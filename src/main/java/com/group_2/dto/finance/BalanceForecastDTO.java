@@ -0,0 +1,34 @@
+package com.group_2.dto.finance;
+
+import com.group_2.dto.core.UserSummaryDTO;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Projected net balances in cents of the WG members, assuming every active
+ * standing order executes as planned. balanceCents[m][i] is the balance of
+ * members[i] at the end of months[m]; currentBalanceCents[i] is today's.
+ * Positive = is owed money, negative = owes money.
+ */
+public record BalanceForecastDTO(List<UserSummaryDTO> members, List<YearMonth> months, long[] currentBalanceCents,
+        long[][] balanceCents) {
+
+    public int indexOf(Long userId) {
+        for (int i = 0; i < members.size(); i++) {
+            if (members.get(i).id().equals(userId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public long getBalanceCents(Long userId, YearMonth month) {
+        int i = indexOf(userId);
+        int m = months.indexOf(month);
+        if (i < 0 || m < 0) {
+            return 0;
+        }
+        return balanceCents[m][i];
+    }
+}
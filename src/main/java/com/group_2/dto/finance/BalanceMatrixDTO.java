@@ -0,0 +1,45 @@
+package com.group_2.dto.finance;
+
+import com.group_2.dto.core.UserSummaryDTO;
+
+import java.util.List;
+
+/**
+ * Net balances in cents between every pair of WG members. balanceCents[i][j] is
+ * positive when members[j] owes members[i] and negative when members[i] owes
+ * members[j].
+ */
+public record BalanceMatrixDTO(List<UserSummaryDTO> members, long[][] balanceCents) {
+
+    public int indexOf(Long userId) {
+        for (int i = 0; i < members.size(); i++) {
+            if (members.get(i).id().equals(userId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Positive = otherUser owes user, Negative = user owes otherUser
+    public long getBalanceCents(Long userId, Long otherUserId) {
+        int i = indexOf(userId);
+        int j = indexOf(otherUserId);
+        if (i < 0 || j < 0) {
+            return 0;
+        }
+        return balanceCents[i][j];
+    }
+
+    // Sum of all balances of the user against the rest of the WG
+    public long getTotalBalanceCents(Long userId) {
+        int i = indexOf(userId);
+        if (i < 0) {
+            return 0;
+        }
+        long total = 0;
+        for (long balance : balanceCents[i]) {
+            total += balance;
+        }
+        return total;
+    }
+}
@@ -1,9 +1,13 @@
 package com.group_2.dto.finance;
 
 import com.group_2.dto.core.UserSummaryDTO;
+import com.group_2.util.MoneyUtils;
 
 /**
- * View-facing balance DTO with nested user summary.
+ * View-facing balance DTO with nested user summary. Balance is in cents.
  */
-public record BalanceViewDTO(UserSummaryDTO user, Double balance) {
+public record BalanceViewDTO(UserSummaryDTO user, long balanceCents) {
+    public double balance() {
+        return MoneyUtils.toAmount(balanceCents);
+    }
 }
@@ -0,0 +1,8 @@
+package com.group_2.dto.finance;
+
+/**
+ * Id and WG of a due standing order, read without loading the order so a run
+ * can plan its chunks before locking anything.
+ */
+public record DueStandingOrderDTO(Long id, Long wgId) {
+}
@@ -1,7 +1,5 @@
 package com.group_2.dto.finance;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.group_2.dto.finance.TransactionSplitViewDTO;
 import com.group_2.dto.finance.TransactionViewDTO;
 import com.group_2.dto.finance.BalanceViewDTO;
@@ -10,16 +8,16 @@ import com.group_2.dto.core.CoreMapper;
 import com.group_2.dto.core.UserSummaryDTO;
 import com.group_2.model.User;
 import com.group_2.model.finance.StandingOrder;
+import com.group_2.model.finance.StandingOrderDebtor;
+import com.group_2.model.finance.StandingOrderExecution;
 import com.group_2.model.finance.Transaction;
 import com.group_2.model.finance.TransactionSplit;
+import com.group_2.util.MoneyUtils;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -32,13 +30,10 @@ import java.util.function.Function;
 @Component
 public class FinanceMapper {
 
-    private static final Logger log = LoggerFactory.getLogger(FinanceMapper.class);
-    private final ObjectMapper objectMapper;
     private final CoreMapper coreMapper;
 
     public FinanceMapper(CoreMapper coreMapper) {
         this.coreMapper = coreMapper;
-        this.objectMapper = new ObjectMapper();
     }
 
     public TransactionDTO toDTO(Transaction transaction) {
@@ -54,7 +49,7 @@ public class FinanceMapper {
 
         return new TransactionDTO(transaction.getId(), transaction.getCreditor().getId(),
                 getDisplayName(transaction.getCreditor()), transaction.getCreatedBy().getId(),
-                getDisplayName(transaction.getCreatedBy()), transaction.getTotalAmount(), transaction.getDescription(),
+                getDisplayName(transaction.getCreatedBy()), transaction.getTotalAmountCents(), transaction.getDescription(),
                 transaction.getTimestamp(), transaction.getWg().getId(), splitDTOs);
     }
 
@@ -63,7 +58,7 @@ public class FinanceMapper {
             return null;
 
         return new TransactionSplitDTO(split.getId(), split.getDebtor().getId(), getDisplayName(split.getDebtor()),
-                split.getPercentage(), split.getAmount());
+                split.getPercentageBasisPoints(), split.getAmountCents());
     }
 
     // Requires user resolver for looking up user names by ID
@@ -71,11 +66,17 @@ public class FinanceMapper {
         if (order == null)
             return null;
 
-        List<StandingOrderDTO.DebtorShareDTO> debtorDTOs = parseDebtorData(order.getDebtorData(),
-                order.getTotalAmount(), userResolver);
+        List<StandingOrderDTO.DebtorShareDTO> debtorDTOs = new ArrayList<>();
+        DebtorShares shares = DebtorShares.of(order);
+        for (int i = 0; i < shares.debtorIds.length; i++) {
+            User debtor = userResolver != null ? userResolver.apply(shares.debtorIds[i]) : null;
+            String userName = debtor != null ? getDisplayName(debtor) : "Unknown User";
+            debtorDTOs.add(new StandingOrderDTO.DebtorShareDTO(shares.debtorIds[i], userName,
+                    (int) shares.basisPoints[i], shares.amountsCents[i]));
+        }
 
         return new StandingOrderDTO(order.getId(), order.getCreditor().getId(), getDisplayName(order.getCreditor()),
-                order.getCreatedBy().getId(), getDisplayName(order.getCreatedBy()), order.getTotalAmount(),
+                order.getCreatedBy().getId(), getDisplayName(order.getCreatedBy()), order.getTotalAmountCents(),
                 order.getDescription(), order.getFrequency(), order.getNextExecution(), order.getIsActive(),
                 order.getCreatedAt(), order.getMonthlyDay(), order.getMonthlyLastDay(), debtorDTOs);
     }
@@ -84,11 +85,19 @@ public class FinanceMapper {
         return toDTO(order, id -> null); // No external resolution needed if debtors are embedded
     }
 
-    public BalanceDTO toBalanceDTO(User user, Double balance) {
+    public StandingOrderExecutionDTO toDTO(StandingOrderExecution execution) {
+        if (execution == null)
+            return null;
+
+        return new StandingOrderExecutionDTO(execution.getStandingOrderId(), execution.getDueDate(),
+                execution.getTransactionId(), execution.getExecutedAt());
+    }
+
+    public BalanceDTO toBalanceDTO(User user, long balanceCents) {
         if (user == null)
             return null;
 
-        return new BalanceDTO(user.getId(), getDisplayName(user), balance);
+        return new BalanceDTO(user.getId(), getDisplayName(user), balanceCents);
     }
 
     public List<TransactionDTO> toDTOList(List<Transaction> transactions) {
@@ -126,46 +135,20 @@ public class FinanceMapper {
         return name;
     }
 
-    private List<StandingOrderDTO.DebtorShareDTO> parseDebtorData(String json, Double totalAmount,
-            Function<Long, User> userResolver) {
-        List<StandingOrderDTO.DebtorShareDTO> debtors = new ArrayList<>();
-
-        if (json == null || json.isEmpty()) {
-            return debtors;
-        }
-
-        try {
-            List<Map<String, Object>> debtorList = objectMapper.readValue(json,
-                    new TypeReference<List<Map<String, Object>>>() {
-                    });
-
-            for (Map<String, Object> entry : debtorList) {
-                Object userIdObj = entry.get("userId");
-                Object percentageObj = entry.get("percentage");
-
-                Long userId = userIdObj instanceof Number ? ((Number) userIdObj).longValue()
-                        : Long.parseLong(userIdObj.toString());
-                Double percentage = percentageObj instanceof Number ? ((Number) percentageObj).doubleValue()
-                        : Double.parseDouble(percentageObj.toString());
+    // Same allocation as the generated transactions, so shares add up to the total
+    private record DebtorShares(Long[] debtorIds, long[] basisPoints, long[] amountsCents) {
 
-                Double amount = (percentage / 100.0) * totalAmount;
-
-                // Resolve user name via provided function
-                String userName = "Unknown User";
-                if (userResolver != null) {
-                    User user = userResolver.apply(userId);
-                    if (user != null) {
-                        userName = getDisplayName(user);
-                    }
-                }
-
-                debtors.add(new StandingOrderDTO.DebtorShareDTO(userId, userName, percentage, amount));
+        static DebtorShares of(StandingOrder order) {
+            List<StandingOrderDebtor> debtors = order.getDebtors();
+            Long[] debtorIds = new Long[debtors.size()];
+            long[] weights = new long[debtors.size()];
+            for (int i = 0; i < weights.length; i++) {
+                debtorIds[i] = debtors.get(i).getDebtorId();
+                weights[i] = debtors.get(i).getPercentageWeight();
             }
-        } catch (Exception e) {
-            log.error("Failed to parse debtor data JSON: {}", e.getMessage(), e);
+            return new DebtorShares(debtorIds, MoneyUtils.allocate(MoneyUtils.FULL_PERCENTAGE_BP, weights),
+                    MoneyUtils.allocate(order.getTotalAmountCents(), weights));
         }
-
-        return debtors;
     }
 
     // ===== View-facing DTOs (nested summaries) =====
@@ -181,7 +164,7 @@ public class FinanceMapper {
             }
         }
         return new TransactionViewDTO(transaction.getId(), coreMapper.toUserSummary(transaction.getCreditor()),
-                coreMapper.toUserSummary(transaction.getCreatedBy()), transaction.getTotalAmount(),
+                coreMapper.toUserSummary(transaction.getCreatedBy()), transaction.getTotalAmountCents(),
                 transaction.getDescription(), transaction.getTimestamp(), coreMapper.toWgSummary(transaction.getWg()),
                 splitViews);
     }
@@ -191,7 +174,7 @@ public class FinanceMapper {
             return null;
         }
         return new TransactionSplitViewDTO(split.getId(), coreMapper.toUserSummary(split.getDebtor()),
-                split.getPercentage(), split.getAmount());
+                split.getPercentageBasisPoints(), split.getAmountCents());
     }
 
     public List<TransactionViewDTO> toViewList(List<Transaction> transactions) {
@@ -204,12 +187,12 @@ public class FinanceMapper {
         return dtos;
     }
 
-    public BalanceViewDTO toBalanceView(User user, Double balance) {
+    public BalanceViewDTO toBalanceView(User user, long balanceCents) {
         if (user == null) {
             return null;
         }
         UserSummaryDTO summary = coreMapper.toUserSummary(user);
-        return new BalanceViewDTO(summary, balance);
+        return new BalanceViewDTO(summary, balanceCents);
     }
 
     public StandingOrderViewDTO toStandingOrderView(StandingOrder order, Function<Long, User> userResolver) {
@@ -217,15 +200,14 @@ public class FinanceMapper {
             return null;
         }
         List<StandingOrderViewDTO.DebtorShareViewDTO> debtorDTOs = new ArrayList<>();
-        List<StandingOrderDTO.DebtorShareDTO> parsed = parseDebtorData(order.getDebtorData(), order.getTotalAmount(),
-                userResolver);
-        for (StandingOrderDTO.DebtorShareDTO d : parsed) {
-            User debtor = userResolver != null ? userResolver.apply(d.userId()) : null;
-            debtorDTOs.add(new StandingOrderViewDTO.DebtorShareViewDTO(d.userId(), coreMapper.toUserSummary(debtor),
-                    d.percentage(), d.amount()));
+        DebtorShares shares = DebtorShares.of(order);
+        for (int i = 0; i < shares.debtorIds.length; i++) {
+            User debtor = userResolver != null ? userResolver.apply(shares.debtorIds[i]) : null;
+            debtorDTOs.add(new StandingOrderViewDTO.DebtorShareViewDTO(shares.debtorIds[i],
+                    coreMapper.toUserSummary(debtor), (int) shares.basisPoints[i], shares.amountsCents[i]));
         }
         return new StandingOrderViewDTO(order.getId(), coreMapper.toUserSummary(order.getCreditor()),
-                coreMapper.toUserSummary(order.getCreatedBy()), order.getTotalAmount(), order.getDescription(),
+                coreMapper.toUserSummary(order.getCreatedBy()), order.getTotalAmountCents(), order.getDescription(),
                 order.getFrequency(), order.getNextExecution(), order.getIsActive(), order.getCreatedAt(),
                 order.getMonthlyDay(), order.getMonthlyLastDay(), debtorDTOs, coreMapper.toWgSummary(order.getWg()));
     }
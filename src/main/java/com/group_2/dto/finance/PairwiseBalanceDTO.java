@@ -0,0 +1,8 @@
+package com.group_2.dto.finance;
+
+/**
+ * Aggregated amount in cents that a debtor owes a creditor across all transactions of a
+ * WG. Produced directly by a GROUP BY query, so no entity graph is loaded.
+ */
+public record PairwiseBalanceDTO(Long creditorId, Long debtorId, Long amountCents) {
+}
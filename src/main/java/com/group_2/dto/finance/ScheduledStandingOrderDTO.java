@@ -0,0 +1,10 @@
+package com.group_2.dto.finance;
+
+import java.time.LocalDate;
+
+/**
+ * Next execution of an active standing order, read without loading the order
+ * to seed the in-memory schedule.
+ */
+public record ScheduledStandingOrderDTO(Long id, Long wgId, LocalDate nextExecution) {
+}
@@ -0,0 +1,19 @@
+package com.group_2.dto.finance;
+
+import com.group_2.dto.core.UserSummaryDTO;
+import com.group_2.util.MoneyUtils;
+
+/**
+ * Suggested payment from one WG member to another that, together with the
+ * other suggested transfers, settles all balances of the WG. Amount is in
+ * cents.
+ */
+public record SettlementTransferDTO(UserSummaryDTO from, UserSummaryDTO to, long amountCents) {
+    public double amount() {
+        return MoneyUtils.toAmount(amountCents);
+    }
+
+    public String getFormattedAmount() {
+        return String.format("%.2f€", amount());
+    }
+}
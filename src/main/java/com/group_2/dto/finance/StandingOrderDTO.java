@@ -1,6 +1,7 @@
 package com.group_2.dto.finance;
 
 import com.group_2.model.finance.StandingOrderFrequency;
+import com.group_2.util.MoneyUtils;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -12,7 +13,7 @@ import java.util.List;
  * containing only the display data needed by controllers.
  */
 public record StandingOrderDTO(Long id, Long creditorId, String creditorName, Long createdById, String createdByName,
-        Double totalAmount, String description, StandingOrderFrequency frequency, LocalDate nextExecution,
+        long totalAmountCents, String description, StandingOrderFrequency frequency, LocalDate nextExecution,
         Boolean isActive, LocalDateTime createdAt, Integer monthlyDay, Boolean monthlyLastDay,
         List<DebtorShareDTO> debtors) {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
@@ -20,18 +21,30 @@ public record StandingOrderDTO(Long id, Long creditorId, String creditorName, Lo
     /**
      * DTO for debtor share information in a standing order
      */
-    public record DebtorShareDTO(Long userId, String userName, Double percentage, Double amount) {
+    public record DebtorShareDTO(Long userId, String userName, int percentageBasisPoints, long amountCents) {
+        public double percentage() {
+            return MoneyUtils.toPercentage(percentageBasisPoints);
+        }
+
+        public double amount() {
+            return MoneyUtils.toAmount(amountCents);
+        }
+
         public String getFormattedAmount() {
-            return String.format("%.2f€", amount);
+            return String.format("%.2f€", amount());
         }
 
         public String getFormattedPercentage() {
-            return String.format("%.1f%%", percentage);
+            return String.format("%.1f%%", percentage());
         }
     }
 
+    public double totalAmount() {
+        return MoneyUtils.toAmount(totalAmountCents);
+    }
+
     public String getFormattedAmount() {
-        return String.format("%.2f€", totalAmount);
+        return String.format("%.2f€", totalAmount());
     }
 
     public String getFormattedNextExecution() {
@@ -0,0 +1,10 @@
+package com.group_2.dto.finance;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One booked occurrence of a standing order, transactionId may point to a
+// transaction that was deleted since
+public record StandingOrderExecutionDTO(Long standingOrderId, LocalDate dueDate, Long transactionId,
+        LocalDateTime executedAt) {
+}
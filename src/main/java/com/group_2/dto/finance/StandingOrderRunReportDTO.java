@@ -0,0 +1,17 @@
+package com.group_2.dto.finance;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of one run of the standing order processor. Skipped orders were due
+ * when the run started but no longer when their turn came, e.g. because they
+ * were deactivated, or their occurrence was booked by a concurrent run.
+ */
+public record StandingOrderRunReportDTO(int executed, int skipped, int failed, List<Long> failedOrderIds,
+        Duration duration) {
+
+    public int total() {
+        return executed + skipped + failed;
+    }
+}
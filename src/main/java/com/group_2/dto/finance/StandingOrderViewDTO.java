@@ -3,6 +3,7 @@ package com.group_2.dto.finance;
 import com.group_2.dto.core.UserSummaryDTO;
 import com.group_2.dto.core.WgSummaryDTO;
 import com.group_2.model.finance.StandingOrderFrequency;
+import com.group_2.util.MoneyUtils;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -11,11 +12,22 @@ import java.util.List;
 /**
  * View-facing standing order DTO with nested user summaries.
  */
-public record StandingOrderViewDTO(Long id, UserSummaryDTO creditor, UserSummaryDTO createdBy, Double totalAmount,
+public record StandingOrderViewDTO(Long id, UserSummaryDTO creditor, UserSummaryDTO createdBy, long totalAmountCents,
         String description, StandingOrderFrequency frequency, LocalDate nextExecution, Boolean isActive,
         LocalDateTime createdAt, Integer monthlyDay, Boolean monthlyLastDay, List<StandingOrderViewDTO.DebtorShareViewDTO> debtors,
         WgSummaryDTO wg) {
 
-    public record DebtorShareViewDTO(Long userId, UserSummaryDTO user, Double percentage, Double amount) {
+    public double totalAmount() {
+        return MoneyUtils.toAmount(totalAmountCents);
+    }
+
+    public record DebtorShareViewDTO(Long userId, UserSummaryDTO user, int percentageBasisPoints, long amountCents) {
+        public double percentage() {
+            return MoneyUtils.toPercentage(percentageBasisPoints);
+        }
+
+        public double amount() {
+            return MoneyUtils.toAmount(amountCents);
+        }
     }
 }
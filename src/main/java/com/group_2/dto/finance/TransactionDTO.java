@@ -1,5 +1,7 @@
 package com.group_2.dto.finance;
 
+import com.group_2.util.MoneyUtils;
+
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -9,13 +11,18 @@ import java.util.List;
  * containing only the display data needed by controllers.
  */
 public record TransactionDTO(Long id, Long creditorId, String creditorName, Long createdById, String createdByName,
-        Double totalAmount, String description, LocalDateTime timestamp, Long wgId, List<TransactionSplitDTO> splits) {
+        long totalAmountCents, String description, LocalDateTime timestamp, Long wgId,
+        List<TransactionSplitDTO> splits) {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
     private static final DateTimeFormatter FULL_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
 
+    public double totalAmount() {
+        return MoneyUtils.toAmount(totalAmountCents);
+    }
+
     public String getFormattedAmount() {
-        return String.format("%.2f€", totalAmount);
+        return String.format("%.2f€", totalAmount());
     }
 
     public String getFormattedDate() {
@@ -0,0 +1,12 @@
+package com.group_2.dto.finance;
+
+/**
+ * Filters for the transaction history. Null fields are not applied. Month is
+ * 1-12 and also works without a year (e.g. every March).
+ */
+public record TransactionHistoryFilter(Integer year, Integer month, Long payerId, Long debtorId, String search) {
+
+    public static TransactionHistoryFilter none() {
+        return new TransactionHistoryFilter(null, null, null, null, null);
+    }
+}
@@ -0,0 +1,17 @@
+package com.group_2.dto.finance;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One page of the transaction history, newest first. The next page starts
+ * after (nextTimestamp, nextId) of this page; both are null on the last page.
+ * totalCount is the number of rows matching the filter over all pages.
+ */
+public record TransactionHistoryPageDTO(List<TransactionViewDTO> items, long totalCount, LocalDateTime nextTimestamp,
+        Long nextId) {
+
+    public boolean hasMore() {
+        return nextId != null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.group_2.dto.finance;
+
+import java.util.List;
+
+/**
+ * Outcome of a transaction import. Only the first errors are kept in
+ * rowErrors so the result stays small for broken files; errorCount counts
+ * all of them.
+ */
+public record TransactionImportResultDTO(long importedCount, long errorCount, List<RowError> rowErrors) {
+
+    // lineNumber is the line in the file for CSV and the element index for JSON
+    public record RowError(long lineNumber, String message) {
+    }
+
+    public boolean hasErrors() {
+        return errorCount > 0;
+    }
+}
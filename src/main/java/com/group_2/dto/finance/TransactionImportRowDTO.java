@@ -0,0 +1,12 @@
+package com.group_2.dto.finance;
+
+import java.util.List;
+
+/**
+ * One expense of an import file as read from CSV or JSON, before validation.
+ * Members are given by email or name. Either percentages or amounts may be
+ * set per debtor; with neither the total is split equally.
+ */
+public record TransactionImportRowDTO(String date, String description, Double amount, String payer,
+        List<String> debtors, List<Double> percentages, List<Double> amounts) {
+}
@@ -1,15 +1,26 @@
 package com.group_2.dto.finance;
 
+import com.group_2.util.MoneyUtils;
+
 /**
  * DTO representing a transaction split (debtor's portion of a transaction).
  * Immutable record containing only the display data needed by controllers.
  */
-public record TransactionSplitDTO(Long id, Long debtorId, String debtorName, Double percentage, Double amount) {
+public record TransactionSplitDTO(Long id, Long debtorId, String debtorName, int percentageBasisPoints,
+        long amountCents) {
+    public double percentage() {
+        return MoneyUtils.toPercentage(percentageBasisPoints);
+    }
+
+    public double amount() {
+        return MoneyUtils.toAmount(amountCents);
+    }
+
     public String getFormattedAmount() {
-        return String.format("%.2f€", amount);
+        return String.format("%.2f€", amount());
     }
 
     public String getFormattedPercentage() {
-        return String.format("%.1f%%", percentage);
+        return String.format("%.1f%%", percentage());
     }
 }
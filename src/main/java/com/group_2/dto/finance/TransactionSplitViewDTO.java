@@ -1,9 +1,17 @@
 package com.group_2.dto.finance;
 
 import com.group_2.dto.core.UserSummaryDTO;
+import com.group_2.util.MoneyUtils;
 
 /**
  * View-facing split DTO with nested debtor summary.
  */
-public record TransactionSplitViewDTO(Long id, UserSummaryDTO debtor, Double percentage, Double amount) {
+public record TransactionSplitViewDTO(Long id, UserSummaryDTO debtor, int percentageBasisPoints, long amountCents) {
+    public double percentage() {
+        return MoneyUtils.toPercentage(percentageBasisPoints);
+    }
+
+    public double amount() {
+        return MoneyUtils.toAmount(amountCents);
+    }
 }
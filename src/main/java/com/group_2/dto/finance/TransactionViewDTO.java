@@ -2,6 +2,7 @@ package com.group_2.dto.finance;
 
 import com.group_2.dto.core.UserSummaryDTO;
 import com.group_2.dto.core.WgSummaryDTO;
+import com.group_2.util.MoneyUtils;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -9,6 +10,9 @@ import java.util.List;
 /**
  * View-facing transaction DTO with nested user summaries.
  */
-public record TransactionViewDTO(Long id, UserSummaryDTO creditor, UserSummaryDTO createdBy, Double totalAmount,
+public record TransactionViewDTO(Long id, UserSummaryDTO creditor, UserSummaryDTO createdBy, long totalAmountCents,
         String description, LocalDateTime timestamp, WgSummaryDTO wg, List<TransactionSplitViewDTO> splits) {
+    public double totalAmount() {
+        return MoneyUtils.toAmount(totalAmountCents);
+    }
 }
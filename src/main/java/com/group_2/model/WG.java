@@ -1,5 +1,6 @@
 package com.group_2.model;
 
+import com.group_2.model.cleaning.CleaningAssignmentStrategy;
 import com.group_2.model.cleaning.Room;
 import jakarta.persistence.*;
 import java.util.ArrayList;
@@ -37,6 +38,11 @@ public class WG {
     @ManyToOne(cascade = CascadeType.MERGE)
     private User admin;
 
+    // Null for WGs created before the setting existed, read as ROUND_ROBIN
+    @Enumerated(EnumType.STRING)
+    @Column(name = "cleaning_assignment_strategy", length = 16)
+    private CleaningAssignmentStrategy cleaningAssignmentStrategy;
+
     public WG() {
     } // Required by JPA
 
@@ -99,6 +105,15 @@ public class WG {
         return rooms.remove(room);
     }
 
+    public CleaningAssignmentStrategy getCleaningAssignmentStrategy() {
+        return cleaningAssignmentStrategy != null ? cleaningAssignmentStrategy
+                : CleaningAssignmentStrategy.ROUND_ROBIN;
+    }
+
+    public void setCleaningAssignmentStrategy(CleaningAssignmentStrategy cleaningAssignmentStrategy) {
+        this.cleaningAssignmentStrategy = cleaningAssignmentStrategy;
+    }
+
     public boolean setAdmin(User user) {
         if (user == null || user.getWg() == null || user.getWg().getId() == null || id == null) {
             return false;
@@ -0,0 +1,27 @@
+package com.group_2.model.cleaning;
+
+/**
+ * How template tasks are assigned when the schedule is generated.
+ * ROUND_ROBIN rotates each room's queue independently. BALANCED assigns all
+ * rooms of a week together so that the members' recent cleaning load,
+ * weighted by room effort, stays even.
+ */
+public enum CleaningAssignmentStrategy {
+    ROUND_ROBIN("Round-robin"),
+    BALANCED("Balanced by effort");
+
+    private final String displayName;
+
+    CleaningAssignmentStrategy(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -13,11 +13,15 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "tasks", indexes = { @Index(name = "idx_tasks_wg_week", columnList = "wg_id, week_start_date"),
         @Index(name = "idx_tasks_room", columnList = "room_id"),
-        @Index(name = "idx_tasks_assignee", columnList = "assignee_id") })
+        @Index(name = "idx_tasks_assignee", columnList = "assignee_id"),
+        // Grouped statistics over date ranges, see CleaningStatisticsService
+        @Index(name = "idx_tasks_wg_assignee_week", columnList = "wg_id, assignee_id, week_start_date"),
+        @Index(name = "idx_tasks_wg_room_week", columnList = "wg_id, room_id, week_start_date") })
 public class CleaningTask {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cleaning_task_seq")
+    @SequenceGenerator(name = "cleaning_task_seq", sequenceName = "cleaning_task_seq", allocationSize = 50)
     private Long id;
 
     @Version
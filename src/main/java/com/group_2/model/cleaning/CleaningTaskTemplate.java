@@ -16,6 +16,10 @@ public class CleaningTaskTemplate {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Raised on every change, the calendar export uses it as SEQUENCE
+    @Version
+    private Long version;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "room_id", nullable = false)
     private Room room;
@@ -65,6 +69,10 @@ public class CleaningTaskTemplate {
         return id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Room getRoom() {
         return room;
     }
@@ -0,0 +1,220 @@
+package com.group_2.model.cleaning;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.LongPredicate;
+
+/**
+ * Member IDs of a RoomAssignmentQueue in round-robin order, first cleans next.
+ * Kept as a ring buffer of primitive longs: rotating moves the head instead of
+ * shifting the IDs, and lookups neither parse nor box.
+ */
+public final class MemberQueue {
+
+    private static final int MIN_CAPACITY = 4;
+
+    private long[] ids;
+    private int head;
+    private int size;
+
+    public MemberQueue() {
+        this(new long[0], 0);
+    }
+
+    private MemberQueue(long[] ids, int size) {
+        this.ids = ids;
+        this.size = size;
+    }
+
+    public static MemberQueue of(long... ids) {
+        return new MemberQueue(ids.clone(), ids.length);
+    }
+
+    // Reads the stored form, comma-separated IDs starting with the head
+    public static MemberQueue parse(String value) {
+        if (value == null || value.isEmpty()) {
+            return new MemberQueue();
+        }
+        int count = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == ',') {
+                count++;
+            }
+        }
+        long[] ids = new long[count];
+        int size = 0;
+        int start = 0;
+        for (int i = 0; i <= value.length(); i++) {
+            if (i == value.length() || value.charAt(i) == ',') {
+                ids[size++] = Long.parseLong(value, start, i, 10);
+                start = i + 1;
+            }
+        }
+        return new MemberQueue(ids, size);
+    }
+
+    // Stored form, see parse
+    public String format() {
+        StringBuilder builder = new StringBuilder(size * 4);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(ids[slot(i)]);
+        }
+        return builder.toString();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return ids[head];
+    }
+
+    public long get(int position) {
+        return ids[slot(checkPosition(position))];
+    }
+
+    // Position of the first occurrence at or after from, -1 if there is none
+    public int indexOf(long id, int from) {
+        for (int i = Math.max(from, 0); i < size; i++) {
+            if (ids[slot(i)] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(long id) {
+        return indexOf(id, 0) >= 0;
+    }
+
+    // Moves the head to the end
+    public void rotate() {
+        if (size <= 1) {
+            return;
+        }
+        // With spare capacity the head is copied behind the tail first, with a
+        // full buffer that slot is the head itself
+        ids[slot(size)] = ids[head];
+        head = (head + 1) % ids.length;
+    }
+
+    public void add(long id) {
+        if (size == ids.length) {
+            long[] grown = new long[Math.max(MIN_CAPACITY, size * 2)];
+            copyTo(grown);
+            ids = grown;
+            head = 0;
+        }
+        ids[slot(size)] = id;
+        size++;
+    }
+
+    // Removes the first occurrence, the IDs behind it move up by one
+    public boolean remove(long id) {
+        int position = indexOf(id, 0);
+        if (position < 0) {
+            return false;
+        }
+        for (int i = position; i < size - 1; i++) {
+            ids[slot(i)] = ids[slot(i + 1)];
+        }
+        size--;
+        return true;
+    }
+
+    // Removes every matching ID and keeps the order of the others
+    public void removeIf(LongPredicate filter) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            long id = ids[slot(i)];
+            if (!filter.test(id)) {
+                ids[slot(kept++)] = id;
+            }
+        }
+        size = kept;
+    }
+
+    public void swap(int position1, int position2) {
+        int slot1 = slot(checkPosition(position1));
+        int slot2 = slot(checkPosition(position2));
+        long id = ids[slot1];
+        ids[slot1] = ids[slot2];
+        ids[slot2] = id;
+    }
+
+    public long[] toArray() {
+        long[] copy = new long[size];
+        copyTo(copy);
+        return copy;
+    }
+
+    public List<Long> toList() {
+        List<Long> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(ids[slot(i)]);
+        }
+        return list;
+    }
+
+    public MemberQueue copy() {
+        return new MemberQueue(toArray(), size);
+    }
+
+    private int slot(int position) {
+        int slot = head + position;
+        return slot < ids.length ? slot : slot - ids.length;
+    }
+
+    private int checkPosition(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of bounds for size " + size);
+        }
+        return position;
+    }
+
+    private void copyTo(long[] target) {
+        int untilEnd = Math.min(size, ids.length - head);
+        System.arraycopy(ids, head, target, 0, untilEnd);
+        System.arraycopy(ids, 0, target, untilEnd, size - untilEnd);
+    }
+
+    // Equal when the IDs are equal in queue order, wherever the head is
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MemberQueue other) || size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (ids[slot(i)] != other.ids[other.slot(i)]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
@@ -0,0 +1,32 @@
+package com.group_2.model.cleaning;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.hibernate.type.descriptor.java.MutableMutabilityPlan;
+
+// Stores a MemberQueue as comma-separated IDs, the column format used before
+// the queue had its own type. Hibernate only calls this when loading a queue
+// and when flushing a changed one.
+@Converter
+public class MemberQueueConverter implements AttributeConverter<MemberQueue, String> {
+
+    @Override
+    public String convertToDatabaseColumn(MemberQueue queue) {
+        return queue != null ? queue.format() : "";
+    }
+
+    @Override
+    public MemberQueue convertToEntityAttribute(String value) {
+        return MemberQueue.parse(value);
+    }
+
+    // Snapshots for dirty checking copy the array instead of going through
+    // the string form
+    public static class CopyPlan extends MutableMutabilityPlan<MemberQueue> {
+
+        @Override
+        protected MemberQueue deepCopyNotNull(MemberQueue value) {
+            return value.copy();
+        }
+    }
+}
@@ -8,6 +8,10 @@ import jakarta.persistence.*;
         @Index(name = "idx_room_wg", columnList = "wg_id")
 })
 public class Room {
+
+    public static final int DEFAULT_CLEANING_WEIGHT = 1;
+    public static final int MAX_CLEANING_WEIGHT = 10;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -19,6 +23,11 @@ public class Room {
     @JoinColumn(name = "wg_id")
     private WG wg;
 
+    // Relative cleaning effort, used by CleaningAssignmentStrategy.BALANCED.
+    // Null for rooms created before weights existed, read as the default.
+    @Column(name = "cleaning_weight")
+    private Integer cleaningWeight;
+
     public Room() {
     }
 
@@ -43,6 +52,17 @@ public class Room {
         this.name = name;
     }
 
+    public int getCleaningWeight() {
+        return cleaningWeight != null ? cleaningWeight : DEFAULT_CLEANING_WEIGHT;
+    }
+
+    public void setCleaningWeight(int cleaningWeight) {
+        if (cleaningWeight < 1 || cleaningWeight > MAX_CLEANING_WEIGHT) {
+            throw new IllegalArgumentException("Cleaning weight must be between 1 and " + MAX_CLEANING_WEIGHT);
+        }
+        this.cleaningWeight = cleaningWeight;
+    }
+
     public WG getWg() {
         return wg;
     }
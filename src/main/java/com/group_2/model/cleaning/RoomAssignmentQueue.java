@@ -3,10 +3,10 @@ package com.group_2.model.cleaning;
 import com.group_2.model.User;
 import com.group_2.model.WG;
 import jakarta.persistence.*;
-import java.util.ArrayList;
-import java.util.Arrays;
+import org.hibernate.annotations.Mutability;
+
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.LongPredicate;
 
 /**
  * Entity representing the assignment queue for a room. This enables round-robin
@@ -32,9 +32,12 @@ public class RoomAssignmentQueue {
     @JoinColumn(name = "wg_id", nullable = false)
     private WG wg;
 
-    // Comma-separated user IDs, first in list cleans next
-    @Column(nullable = false, length = 1000)
-    private String memberQueueOrder;
+    // First in queue cleans next. Parsed once on load, written back on flush
+    // only if the order changed.
+    @Convert(converter = MemberQueueConverter.class)
+    @Mutability(MemberQueueConverter.CopyPlan.class)
+    @Column(name = "member_queue_order", nullable = false, length = 1000)
+    private MemberQueue memberQueue = new MemberQueue();
 
     public RoomAssignmentQueue() {
     }
@@ -48,65 +51,60 @@ public class RoomAssignmentQueue {
     // Initialize queue with offset, e.g. offset=1 on [A,B,C,D] -> [B,C,D,A]
     public void initializeQueue(List<User> members, int offset) {
         if (members == null || members.isEmpty()) {
-            this.memberQueueOrder = "";
+            this.memberQueue = new MemberQueue();
             return;
         }
 
-        List<Long> ids = new ArrayList<>();
         int size = members.size();
+        long[] ids = new long[size];
         for (int i = 0; i < size; i++) {
             int index = (i + offset) % size;
-            ids.add(members.get(index).getId());
+            ids[i] = members.get(index).getId();
         }
-        this.memberQueueOrder = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        this.memberQueue = MemberQueue.of(ids);
     }
 
     public List<Long> getMemberIds() {
-        if (memberQueueOrder == null || memberQueueOrder.isEmpty()) {
-            return new ArrayList<>();
-        }
-        return Arrays.stream(memberQueueOrder.split(",")).map(Long::parseLong).collect(Collectors.toList());
+        return memberQueue.toList();
+    }
+
+    public int getMemberCount() {
+        return memberQueue.size();
+    }
+
+    public boolean hasMember(long userId) {
+        return memberQueue.contains(userId);
     }
 
     public Long getNextAssigneeId() {
-        List<Long> ids = getMemberIds();
-        return ids.isEmpty() ? null : ids.get(0);
+        return memberQueue.isEmpty() ? null : memberQueue.peek();
     }
 
     // Move first member to end
     public void rotate() {
-        List<Long> ids = getMemberIds();
-        if (ids.size() <= 1) {
-            return;
-        }
-        Long first = ids.remove(0);
-        ids.add(first);
-        this.memberQueueOrder = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        memberQueue.rotate();
     }
 
     public void addMember(User user) {
-        List<Long> ids = getMemberIds();
-        if (!ids.contains(user.getId())) {
-            ids.add(user.getId());
-            this.memberQueueOrder = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        if (!memberQueue.contains(user.getId())) {
+            memberQueue.add(user.getId());
         }
     }
 
     public void removeMember(User user) {
-        List<Long> ids = getMemberIds();
-        ids.remove(user.getId());
-        this.memberQueueOrder = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        memberQueue.remove(user.getId());
+    }
+
+    public void removeMembersIf(LongPredicate filter) {
+        memberQueue.removeIf(filter);
     }
 
     // Swap two users to maintain fairness on reassignment
     public void swapPositions(Long userId1, Long userId2) {
-        List<Long> ids = getMemberIds();
-        int pos1 = ids.indexOf(userId1);
-        int pos2 = ids.indexOf(userId2);
+        int pos1 = memberQueue.indexOf(userId1, 0);
+        int pos2 = memberQueue.indexOf(userId2, 0);
         if (pos1 >= 0 && pos2 >= 0 && pos1 != pos2) {
-            ids.set(pos1, userId2);
-            ids.set(pos2, userId1);
-            this.memberQueueOrder = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+            memberQueue.swap(pos1, pos2);
         }
     }
 
@@ -114,44 +112,23 @@ public class RoomAssignmentQueue {
     // reassignment)
     // Example: [a,b,c,a,b,c] swapWithNextOccurrence(0,c) -> [c,b,a,a,b,c]
     public boolean swapWithNextOccurrence(int currentPosition, Long targetUserId) {
-        List<Long> ids = getMemberIds();
-
-        if (currentPosition < 0 || currentPosition >= ids.size()) {
+        if (currentPosition < 0 || currentPosition >= memberQueue.size()) {
             return false;
         }
 
         // Find the next occurrence of targetUserId AFTER currentPosition
-        int nextTargetPosition = -1;
-        for (int i = currentPosition + 1; i < ids.size(); i++) {
-            if (ids.get(i).equals(targetUserId)) {
-                nextTargetPosition = i;
-                break;
-            }
-        }
-
+        int nextTargetPosition = memberQueue.indexOf(targetUserId, currentPosition + 1);
         if (nextTargetPosition == -1) {
             return false; // No upcoming occurrence of target user found
         }
 
-        // Swap the positions
-        Long temp = ids.get(currentPosition);
-        ids.set(currentPosition, ids.get(nextTargetPosition));
-        ids.set(nextTargetPosition, temp);
-
-        this.memberQueueOrder = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
-
+        memberQueue.swap(currentPosition, nextTargetPosition);
         return true;
     }
 
     // Find the position of a user at or after the given starting index.
     public int findPositionFrom(Long userId, int startIndex) {
-        List<Long> ids = getMemberIds();
-        for (int i = startIndex; i < ids.size(); i++) {
-            if (ids.get(i).equals(userId)) {
-                return i;
-            }
-        }
-        return -1;
+        return memberQueue.indexOf(userId, startIndex);
     }
 
     // Getters and Setters
@@ -175,11 +152,12 @@ public class RoomAssignmentQueue {
         this.wg = wg;
     }
 
+    // Comma-separated user IDs as stored in the column
     public String getMemberQueueOrder() {
-        return memberQueueOrder;
+        return memberQueue.format();
     }
 
     public void setMemberQueueOrder(String memberQueueOrder) {
-        this.memberQueueOrder = memberQueueOrder;
+        this.memberQueue = MemberQueue.parse(memberQueueOrder);
     }
 }
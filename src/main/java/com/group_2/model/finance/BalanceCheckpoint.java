@@ -0,0 +1,69 @@
+package com.group_2.model.finance;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// What debtor owed creditor within a WG from all transactions before cutoff.
+// A checkpoint is the set of rows of one WG with the same cutoff.
+@Entity
+@Table(name = "balance_checkpoints", uniqueConstraints = @UniqueConstraint(name = "uk_balance_checkpoint_pair", columnNames = {
+        "wg_id", "cutoff", "creditor_id", "debtor_id" }))
+public class BalanceCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "wg_id", nullable = false)
+    private Long wgId;
+
+    // Exclusive: transactions at exactly this time belong to the next period
+    @Column(nullable = false)
+    private LocalDateTime cutoff;
+
+    @Column(name = "creditor_id", nullable = false)
+    private Long creditorId;
+
+    @Column(name = "debtor_id", nullable = false)
+    private Long debtorId;
+
+    @Column(name = "amount_cents", nullable = false)
+    private long amountCents;
+
+    public BalanceCheckpoint() {
+    }
+
+    public BalanceCheckpoint(Long wgId, LocalDateTime cutoff, Long creditorId, Long debtorId, long amountCents) {
+        this.wgId = wgId;
+        this.cutoff = cutoff;
+        this.creditorId = creditorId;
+        this.debtorId = debtorId;
+        this.amountCents = amountCents;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getWgId() {
+        return wgId;
+    }
+
+    public LocalDateTime getCutoff() {
+        return cutoff;
+    }
+
+    public Long getCreditorId() {
+        return creditorId;
+    }
+
+    public Long getDebtorId() {
+        return debtorId;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+}
@@ -0,0 +1,69 @@
+package com.group_2.model.finance;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+// Running total of what debtor owes creditor within a WG, maintained by delta
+// on every transaction write so balances don't need to replay the history
+@Entity
+@Table(name = "balance_ledger", uniqueConstraints = @UniqueConstraint(name = "uk_balance_ledger_pair", columnNames = {
+        "wg_id", "creditor_id", "debtor_id" }), indexes = {
+                @Index(name = "idx_balance_ledger_debtor", columnList = "wg_id, debtor_id") })
+public class BalanceLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Version
+    private Long version;
+
+    @Column(name = "wg_id", nullable = false)
+    private Long wgId;
+
+    @Column(name = "creditor_id", nullable = false)
+    private Long creditorId;
+
+    @Column(name = "debtor_id", nullable = false)
+    private Long debtorId;
+
+    // Sum of all split amounts in cents where debtorId owes creditorId
+    @ColumnDefault("0")
+    @Column(name = "amount_cents", nullable = false)
+    private long amountCents;
+
+    public BalanceLedgerEntry() {
+    }
+
+    public BalanceLedgerEntry(Long wgId, Long creditorId, Long debtorId, long amountCents) {
+        this.wgId = wgId;
+        this.creditorId = creditorId;
+        this.debtorId = debtorId;
+        this.amountCents = amountCents;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getWgId() {
+        return wgId;
+    }
+
+    public Long getCreditorId() {
+        return creditorId;
+    }
+
+    public Long getDebtorId() {
+        return debtorId;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
+    }
+}
@@ -3,9 +3,15 @@ package com.group_2.model.finance;
 import com.group_2.model.User;
 import com.group_2.model.WG;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
 
+import com.group_2.util.MoneyUtils;
 import com.group_2.util.MonthlyScheduleUtil;
 
 // Standing order - stores template for recurring transactions
@@ -33,8 +39,10 @@ public class StandingOrder {
     @JoinColumn(name = "wg_id", nullable = false)
     private WG wg;
 
-    @Column(nullable = false)
-    private Double totalAmount;
+    // Fixed-point amount in cents
+    @ColumnDefault("0")
+    @Column(name = "total_amount_cents", nullable = false)
+    private long totalAmountCents;
 
     @Column(length = 500)
     private String description;
@@ -52,9 +60,10 @@ public class StandingOrder {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
-    // JSON: [{"userId": 1, "percentage": 50.0}, ...]
-    @Column(length = 2000)
-    private String debtorData;
+    // Loaded on demand, listings fetch them with an entity graph
+    @OneToMany(mappedBy = "standingOrder", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("position")
+    private List<StandingOrderDebtor> debtors = new ArrayList<>();
 
     // For MONTHLY: preferred day (1-31), falls back to last day if doesn't exist
     @Column
@@ -69,32 +78,30 @@ public class StandingOrder {
         this.isActive = true;
     }
 
-    public StandingOrder(User creditor, User createdBy, WG wg, Double totalAmount, String description,
-            StandingOrderFrequency frequency, LocalDate nextExecution, String debtorData) {
+    public StandingOrder(User creditor, User createdBy, WG wg, long totalAmountCents, String description,
+            StandingOrderFrequency frequency, LocalDate nextExecution) {
         this.creditor = creditor;
         this.createdBy = createdBy;
         this.wg = wg;
-        this.totalAmount = totalAmount;
+        this.totalAmountCents = totalAmountCents;
         this.description = description;
         this.frequency = frequency;
         this.nextExecution = nextExecution;
-        this.debtorData = debtorData;
         this.createdAt = LocalDateTime.now();
         this.isActive = true;
         this.monthlyLastDay = false;
     }
 
-    public StandingOrder(User creditor, User createdBy, WG wg, Double totalAmount, String description,
-            StandingOrderFrequency frequency, LocalDate nextExecution, String debtorData, Integer monthlyDay,
+    public StandingOrder(User creditor, User createdBy, WG wg, long totalAmountCents, String description,
+            StandingOrderFrequency frequency, LocalDate nextExecution, Integer monthlyDay,
             Boolean monthlyLastDay) {
         this.creditor = creditor;
         this.createdBy = createdBy;
         this.wg = wg;
-        this.totalAmount = totalAmount;
+        this.totalAmountCents = totalAmountCents;
         this.description = description;
         this.frequency = frequency;
         this.nextExecution = nextExecution;
-        this.debtorData = debtorData;
         this.monthlyDay = monthlyDay;
         this.monthlyLastDay = monthlyLastDay != null ? monthlyLastDay : false;
         this.createdAt = LocalDateTime.now();
@@ -106,6 +113,10 @@ public class StandingOrder {
         return id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public User getCreditor() {
         return creditor;
     }
@@ -130,12 +141,17 @@ public class StandingOrder {
         this.wg = wg;
     }
 
-    public Double getTotalAmount() {
-        return totalAmount;
+    public long getTotalAmountCents() {
+        return totalAmountCents;
     }
 
-    public void setTotalAmount(Double totalAmount) {
-        this.totalAmount = totalAmount;
+    public void setTotalAmountCents(long totalAmountCents) {
+        this.totalAmountCents = totalAmountCents;
+    }
+
+    // Display value in euros, not meant for calculations
+    public double getTotalAmount() {
+        return MoneyUtils.toAmount(totalAmountCents);
     }
 
     public String getDescription() {
@@ -174,28 +190,55 @@ public class StandingOrder {
         return createdAt;
     }
 
-    public String getDebtorData() {
-        return debtorData;
+    public List<StandingOrderDebtor> getDebtors() {
+        return debtors;
+    }
+
+    // Replaces all debtors, shares as percentage weights in the order of debtorIds
+    public void setDebtors(List<Long> debtorIds, long[] percentageWeights) {
+        if (debtorIds.size() != percentageWeights.length) {
+            throw new IllegalArgumentException("Number of percentages must match number of debtors");
+        }
+        debtors.clear();
+        for (int i = 0; i < debtorIds.size(); i++) {
+            debtors.add(new StandingOrderDebtor(this, i, debtorIds.get(i), percentageWeights[i]));
+        }
     }
 
-    public void setDebtorData(String debtorData) {
-        this.debtorData = debtorData;
+    public List<Long> getDebtorIds() {
+        return debtors.stream().map(StandingOrderDebtor::getDebtorId).toList();
     }
 
     public void advanceNextExecution() {
+        this.nextExecution = followingExecution(this.nextExecution);
+    }
+
+    // Execution date after the given one
+    public LocalDate followingExecution(LocalDate execution) {
         switch (frequency) {
             case WEEKLY:
-                this.nextExecution = this.nextExecution.plusWeeks(1);
-                break;
+                return execution.plusWeeks(1);
             case BI_WEEKLY:
-                this.nextExecution = this.nextExecution.plusWeeks(2);
-                break;
+                return execution.plusWeeks(2);
             case MONTHLY:
-                this.nextExecution = calculateNextMonthlyExecution(this.nextExecution.plusMonths(1));
-                break;
+                return calculateNextMonthlyExecution(execution.plusMonths(1));
+            default:
+                throw new IllegalStateException("Unknown frequency: " + frequency);
         }
     }
 
+    // All execution dates from nextExecution up to and including the given
+    // day, oldest first. Does not change nextExecution.
+    public List<LocalDate> getDueExecutions(LocalDate today) {
+        return executionsUntil(today).toList();
+    }
+
+    // Same dates as getDueExecutions, computed one at a time as the stream is
+    // consumed, so far horizons need no list of all dates
+    public Stream<LocalDate> executionsUntil(LocalDate lastDay) {
+        return Stream.iterate(nextExecution, execution -> !execution.isAfter(lastDay), this::followingExecution);
+    }
+
     // Handles fallback when preferred day doesn't exist in month
     private LocalDate calculateNextMonthlyExecution(LocalDate targetMonth) {
         return MonthlyScheduleUtil.resolveMonthlyDate(targetMonth, monthlyDay, monthlyLastDay);
@@ -0,0 +1,63 @@
+package com.group_2.model.finance;
+
+import jakarta.persistence.*;
+
+// Debtor of a standing order with its share. Debtors are referenced by id
+// only, a member leaving the WG must not delete the order's history.
+@Entity
+@Table(name = "standing_order_debtors", indexes = {
+        @Index(name = "idx_standing_order_debtor_order", columnList = "standing_order_id, position"),
+        @Index(name = "idx_standing_order_debtor_user", columnList = "debtor_id") })
+public class StandingOrderDebtor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "standing_order_id", nullable = false)
+    private StandingOrder standingOrder;
+
+    // Keeps the order in which the debtors were entered
+    @Column(nullable = false)
+    private int position;
+
+    @Column(name = "debtor_id", nullable = false)
+    private Long debtorId;
+
+    // Share as split weight, see MoneyUtils.toPercentageWeights. Finer than
+    // basis points so percentages derived from cent amounts stay exact.
+    @Column(name = "percentage_weight", nullable = false)
+    private long percentageWeight;
+
+    public StandingOrderDebtor() {
+    }
+
+    public StandingOrderDebtor(StandingOrder standingOrder, int position, Long debtorId, long percentageWeight) {
+        this.standingOrder = standingOrder;
+        this.position = position;
+        this.debtorId = debtorId;
+        this.percentageWeight = percentageWeight;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public StandingOrder getStandingOrder() {
+        return standingOrder;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public Long getDebtorId() {
+        return debtorId;
+    }
+
+    public long getPercentageWeight() {
+        return percentageWeight;
+    }
+}
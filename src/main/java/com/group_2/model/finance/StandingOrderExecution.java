@@ -0,0 +1,77 @@
+package com.group_2.model.finance;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One booked occurrence of a standing order. The unique key makes a second
+// booking of the same due date fail, whichever runner or instance tries it.
+// Orders and transactions are referenced by id only, so the log outlives an
+// edited transaction.
+@Entity
+@Table(name = "standing_order_executions", uniqueConstraints = @UniqueConstraint(name = StandingOrderExecution.DUE_DATE_KEY, columnNames = {
+        "standing_order_id", "due_date" }), indexes = @Index(name = "idx_standing_order_execution_wg", columnList = "wg_id"))
+public class StandingOrderExecution {
+
+    public static final String DUE_DATE_KEY = "uk_standing_order_execution_due";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "standing_order_id", nullable = false)
+    private Long standingOrderId;
+
+    @Column(name = "wg_id", nullable = false)
+    private Long wgId;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+
+    // Null only until the transaction of the occurrence is saved
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Column(name = "executed_at", nullable = false)
+    private LocalDateTime executedAt;
+
+    public StandingOrderExecution() {
+    }
+
+    public StandingOrderExecution(Long standingOrderId, Long wgId, LocalDate dueDate, LocalDateTime executedAt) {
+        this.standingOrderId = standingOrderId;
+        this.wgId = wgId;
+        this.dueDate = dueDate;
+        this.executedAt = executedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getStandingOrderId() {
+        return standingOrderId;
+    }
+
+    public Long getWgId() {
+        return wgId;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public LocalDateTime getExecutedAt() {
+        return executedAt;
+    }
+}
@@ -2,19 +2,25 @@ package com.group_2.model.finance;
 
 import com.group_2.model.User;
 import com.group_2.model.WG;
+import com.group_2.util.MoneyUtils;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
 // Finanztransaktion zwischen WG-Mitgliedern
 @Entity
-@Table(name = "transactions", indexes = { @Index(name = "idx_transaction_wg", columnList = "wg_id"),
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transaction_wg_timestamp", columnList = "wg_id, timestamp"),
         @Index(name = "idx_transaction_creditor", columnList = "creditor_id") })
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = 50)
     private Long id;
 
     @Version
@@ -28,12 +34,16 @@ public class Transaction {
     @JoinColumn(name = "created_by_id", nullable = false)
     private User createdBy;
 
-    @Column(nullable = false)
-    private Double totalAmount;
+    // Fixed-point amount in cents
+    @ColumnDefault("0")
+    @Column(name = "total_amount_cents", nullable = false)
+    private long totalAmountCents;
 
     @Column(length = 500)
     private String description;
 
+    // Microsecond precision like the TIMESTAMP column, so a keyset cursor built
+    // from the entity matches the stored value
     @Column(nullable = false)
     private LocalDateTime timestamp;
 
@@ -41,20 +51,26 @@ public class Transaction {
     @JoinColumn(name = "wg_id", nullable = false)
     private WG wg;
 
-    @OneToMany(mappedBy = "transaction", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    // No orphanRemoval: TransactionService removes old splits with one bulk
+    // DELETE (see TransactionSplitRepository.deleteByTransactionId)
+    @OneToMany(mappedBy = "transaction", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
     private List<TransactionSplit> splits = new ArrayList<>();
 
     public Transaction() {
-        this.timestamp = LocalDateTime.now();
+        this.timestamp = now();
     }
 
-    public Transaction(User creditor, User createdBy, Double totalAmount, String description, WG wg) {
+    public Transaction(User creditor, User createdBy, long totalAmountCents, String description, WG wg) {
         this.creditor = creditor;
         this.createdBy = createdBy;
-        this.totalAmount = totalAmount;
+        this.totalAmountCents = totalAmountCents;
         this.description = description;
         this.wg = wg;
-        this.timestamp = LocalDateTime.now();
+        this.timestamp = now();
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     // Getters and Setters
@@ -78,12 +94,17 @@ public class Transaction {
         this.createdBy = createdBy;
     }
 
-    public Double getTotalAmount() {
-        return totalAmount;
+    public long getTotalAmountCents() {
+        return totalAmountCents;
+    }
+
+    public void setTotalAmountCents(long totalAmountCents) {
+        this.totalAmountCents = totalAmountCents;
     }
 
-    public void setTotalAmount(Double totalAmount) {
-        this.totalAmount = totalAmount;
+    // Display value in euros, not meant for calculations
+    public double getTotalAmount() {
+        return MoneyUtils.toAmount(totalAmountCents);
     }
 
     public String getDescription() {
@@ -99,7 +120,7 @@ public class Transaction {
     }
 
     public void setTimestamp(LocalDateTime timestamp) {
-        this.timestamp = timestamp;
+        this.timestamp = timestamp != null ? timestamp.truncatedTo(ChronoUnit.MICROS) : null;
     }
 
     public WG getWg() {
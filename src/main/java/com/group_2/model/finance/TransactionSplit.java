@@ -1,14 +1,20 @@
 package com.group_2.model.finance;
 
 import com.group_2.model.User;
+import com.group_2.util.MoneyUtils;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
-@Table(name = "transaction_splits")
+@Table(name = "transaction_splits", indexes = {
+        @Index(name = "idx_split_debtor_transaction", columnList = "debtor_id, transaction_id") })
 public class TransactionSplit {
 
+    // Sequence ids (not IDENTITY) so the splits of a transaction can be inserted
+    // in one JDBC batch; ids are fetched 50 at a time
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_split_seq")
+    @SequenceGenerator(name = "transaction_split_seq", sequenceName = "transaction_split_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.EAGER)
@@ -19,20 +25,24 @@ public class TransactionSplit {
     @JoinColumn(name = "debtor_id", nullable = false)
     private User debtor;
 
-    @Column(nullable = false)
-    private Double percentage;
+    // Share in basis points (100% = 10_000)
+    @ColumnDefault("0")
+    @Column(name = "percentage_bp", nullable = false)
+    private int percentageBasisPoints;
 
-    @Column(nullable = false)
-    private Double amount;
+    // Fixed-point amount in cents
+    @ColumnDefault("0")
+    @Column(name = "amount_cents", nullable = false)
+    private long amountCents;
 
     public TransactionSplit() {
     }
 
-    public TransactionSplit(Transaction transaction, User debtor, Double percentage, Double amount) {
+    public TransactionSplit(Transaction transaction, User debtor, int percentageBasisPoints, long amountCents) {
         this.transaction = transaction;
         this.debtor = debtor;
-        this.percentage = percentage;
-        this.amount = amount;
+        this.percentageBasisPoints = percentageBasisPoints;
+        this.amountCents = amountCents;
     }
 
     // Getters and Setters
@@ -56,19 +66,28 @@ public class TransactionSplit {
         this.debtor = debtor;
     }
 
-    public Double getPercentage() {
-        return percentage;
+    public int getPercentageBasisPoints() {
+        return percentageBasisPoints;
     }
 
-    public void setPercentage(Double percentage) {
-        this.percentage = percentage;
+    public void setPercentageBasisPoints(int percentageBasisPoints) {
+        this.percentageBasisPoints = percentageBasisPoints;
     }
 
-    public Double getAmount() {
-        return amount;
+    public long getAmountCents() {
+        return amountCents;
     }
 
-    public void setAmount(Double amount) {
-        this.amount = amount;
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
+    }
+
+    // Display values, not meant for calculations
+    public double getPercentage() {
+        return MoneyUtils.toPercentage(percentageBasisPoints);
+    }
+
+    public double getAmount() {
+        return MoneyUtils.toAmount(amountCents);
     }
 }
@@ -1,15 +1,28 @@
 package com.group_2.repository.cleaning;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.group_2.dto.cleaning.AssigneeCleaningStatsDTO;
+import com.group_2.dto.cleaning.CleaningTaskEventDTO;
+import com.group_2.dto.cleaning.MemberCleaningLoadDTO;
+import com.group_2.dto.cleaning.MonthlyCleaningStatsDTO;
+import com.group_2.dto.cleaning.RoomCleaningStatsDTO;
 import com.group_2.model.User;
 import com.group_2.model.WG;
 import com.group_2.model.cleaning.CleaningTask;
 import com.group_2.model.cleaning.Room;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 // Repository for CleaningTask entities
 @Repository
@@ -17,6 +30,76 @@ public interface CleaningTaskRepository extends JpaRepository<CleaningTask, Long
 
     List<CleaningTask> findByWgAndWeekStartDate(WG wg, LocalDate weekStartDate);
 
+    // Weeks from and to inclusive
+    List<CleaningTask> findByWgAndWeekStartDateBetween(WG wg, LocalDate from, LocalDate to);
+
+    // Removes the tasks from the given week onward in one statement, older
+    // weeks are kept as history
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM CleaningTask t WHERE t.wg = :wg AND t.weekStartDate >= :from")
+    int deleteByWgFromWeek(@Param("wg") WG wg, @Param("from") LocalDate from);
+
+    // Aggregates of CleaningStatsDTO, see there for overdue and delay. Tasks
+    // without a due date are due on their week start.
+    String STATS_COLUMNS = "COUNT(t), "
+            + "SUM(CASE WHEN t.completed = true THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN COALESCE(t.dueDate, t.weekStartDate) < :today AND (t.completed = false "
+            + "OR (t.completedAt IS NOT NULL AND CAST(t.completedAt AS LocalDate) > COALESCE(t.dueDate, t.weekStartDate))) "
+            + "THEN 1 ELSE 0 END), "
+            + "AVG(CASE WHEN t.completed = true AND t.completedAt IS NOT NULL "
+            + "THEN ((CAST(t.completedAt AS LocalDate) - COALESCE(t.dueDate, t.weekStartDate)) BY DAY) END)";
+
+    // Tasks of the weeks starting from and to inclusive, uses idx_tasks_wg_week
+    String STATS_RANGE = "t.wg.id = :wgId AND t.weekStartDate >= :from AND t.weekStartDate <= :to";
+
+    @Query("SELECT new com.group_2.dto.cleaning.AssigneeCleaningStatsDTO(t.assignee.id, t.assignee.name, "
+            + "t.assignee.surname, " + STATS_COLUMNS + ") FROM CleaningTask t WHERE " + STATS_RANGE
+            + " GROUP BY t.assignee.id, t.assignee.name, t.assignee.surname ORDER BY t.assignee.name, t.assignee.id")
+    List<AssigneeCleaningStatsDTO> getStatsByAssignee(@Param("wgId") Long wgId, @Param("from") LocalDate from,
+            @Param("to") LocalDate to, @Param("today") LocalDate today);
+
+    @Query("SELECT new com.group_2.dto.cleaning.RoomCleaningStatsDTO(t.room.id, t.room.name, " + STATS_COLUMNS
+            + ") FROM CleaningTask t WHERE " + STATS_RANGE
+            + " GROUP BY t.room.id, t.room.name ORDER BY t.room.name, t.room.id")
+    List<RoomCleaningStatsDTO> getStatsByRoom(@Param("wgId") Long wgId, @Param("from") LocalDate from,
+            @Param("to") LocalDate to, @Param("today") LocalDate today);
+
+    @Query("SELECT new com.group_2.dto.cleaning.MonthlyCleaningStatsDTO("
+            + "EXTRACT(YEAR FROM COALESCE(t.dueDate, t.weekStartDate)), "
+            + "EXTRACT(MONTH FROM COALESCE(t.dueDate, t.weekStartDate)), " + STATS_COLUMNS
+            + ") FROM CleaningTask t WHERE " + STATS_RANGE
+            + " GROUP BY EXTRACT(YEAR FROM COALESCE(t.dueDate, t.weekStartDate)), "
+            + "EXTRACT(MONTH FROM COALESCE(t.dueDate, t.weekStartDate)) ORDER BY 1, 2")
+    List<MonthlyCleaningStatsDTO> getStatsByMonth(@Param("wgId") Long wgId, @Param("from") LocalDate from,
+            @Param("to") LocalDate to, @Param("today") LocalDate today);
+
+    // Cleaning load per member in the weeks from inclusive to exclusive, see
+    // CleaningLoadBalancer
+    @Query("SELECT new com.group_2.dto.cleaning.MemberCleaningLoadDTO(t.assignee.id, "
+            + "SUM(COALESCE(t.room.cleaningWeight, 1))) FROM CleaningTask t "
+            + "WHERE t.wg = :wg AND t.weekStartDate >= :from AND t.weekStartDate < :to GROUP BY t.assignee.id")
+    List<MemberCleaningLoadDTO> sumRoomWeightsByAssignee(@Param("wg") WG wg, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    // Calendar export. Streamed, the caller must close the stream and keep a
+    // transaction open while reading it.
+    String EVENT_COLUMNS = "SELECT new com.group_2.dto.cleaning.CleaningTaskEventDTO(t.id, t.version, t.room.name, "
+            + "t.assignee.name, t.assignee.surname, t.weekStartDate, t.dueDate, t.completed, t.completedAt) "
+            + "FROM CleaningTask t ";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query(EVENT_COLUMNS + "WHERE t.wg.id = :wgId ORDER BY t.weekStartDate, t.id")
+    Stream<CleaningTaskEventDTO> streamEventsByWgId(@Param("wgId") Long wgId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query(EVENT_COLUMNS + "WHERE t.assignee.id = :assigneeId ORDER BY t.weekStartDate, t.id")
+    Stream<CleaningTaskEventDTO> streamEventsByAssigneeId(@Param("assigneeId") Long assigneeId);
+
+    // Last week with template tasks, manual tasks may lie further ahead
+    @Query("SELECT MAX(t.weekStartDate) FROM CleaningTask t WHERE t.wg.id = :wgId "
+            + "AND (t.manualOverride IS NULL OR t.manualOverride = false)")
+    LocalDate findLastGeneratedWeek(@Param("wgId") Long wgId);
+
     List<CleaningTask> findByAssigneeAndWeekStartDate(User assignee, LocalDate weekStartDate);
 
     List<CleaningTask> findByWg(WG wg);
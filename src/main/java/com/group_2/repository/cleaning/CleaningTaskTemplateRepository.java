@@ -1,6 +1,7 @@
 package com.group_2.repository.cleaning;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.group_2.model.WG;
@@ -19,4 +20,7 @@ public interface CleaningTaskTemplateRepository extends JpaRepository<CleaningTa
     List<CleaningTaskTemplate> findByWgOrderByDayOfWeekAsc(WG wg);
 
     void deleteByWg(WG wg);
+
+    @Query("SELECT DISTINCT t.wg.id FROM CleaningTaskTemplate t")
+    List<Long> findWgIdsWithTemplates();
 }
@@ -28,6 +28,11 @@ public interface RoomAssignmentQueueRepository extends JpaRepository<RoomAssignm
 
     List<RoomAssignmentQueue> findByWg(WG wg);
 
+    // All queues of a WG, locked like findByWgAndRoomForUpdate
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT q FROM RoomAssignmentQueue q WHERE q.wg = :wg ORDER BY q.id")
+    List<RoomAssignmentQueue> findByWgForUpdate(@Param("wg") WG wg);
+
     void deleteByWg(WG wg);
 
     void deleteByRoom(Room room);
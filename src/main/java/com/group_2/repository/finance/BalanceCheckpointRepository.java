@@ -0,0 +1,42 @@
+package com.group_2.repository.finance;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.group_2.dto.finance.PairwiseBalanceDTO;
+import com.group_2.model.finance.BalanceCheckpoint;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, Long> {
+
+    // Latest checkpoint at or before asOf (any if asOf is null), null if there is none
+    @Query("SELECT MAX(c.cutoff) FROM BalanceCheckpoint c WHERE c.wgId = :wgId AND (:asOf IS NULL OR c.cutoff <= :asOf)")
+    LocalDateTime findLatestCutoff(@Param("wgId") Long wgId, @Param("asOf") LocalDateTime asOf);
+
+    // Cutoffs that include a transaction at the given time, oldest first
+    @Query("SELECT DISTINCT c.cutoff FROM BalanceCheckpoint c WHERE c.wgId = :wgId AND c.cutoff > :timestamp "
+            + "ORDER BY c.cutoff")
+    List<LocalDateTime> findCutoffsAfter(@Param("wgId") Long wgId, @Param("timestamp") LocalDateTime timestamp);
+
+    @Query("SELECT new com.group_2.dto.finance.PairwiseBalanceDTO(c.creditorId, c.debtorId, c.amountCents) "
+            + "FROM BalanceCheckpoint c WHERE c.wgId = :wgId AND c.cutoff = :cutoff")
+    List<PairwiseBalanceDTO> findPairs(@Param("wgId") Long wgId, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM BalanceCheckpoint c WHERE c.wgId = :wgId AND c.cutoff = :cutoff")
+    int deleteAt(@Param("wgId") Long wgId, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM BalanceCheckpoint c WHERE c.wgId = :wgId AND c.cutoff >= :cutoff")
+    int deleteFrom(@Param("wgId") Long wgId, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM BalanceCheckpoint c WHERE c.wgId = :wgId")
+    int deleteByWgId(@Param("wgId") Long wgId);
+}
@@ -0,0 +1,48 @@
+package com.group_2.repository.finance;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.group_2.dto.finance.PairwiseBalanceDTO;
+import com.group_2.model.finance.BalanceLedgerEntry;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BalanceLedgerRepository extends JpaRepository<BalanceLedgerEntry, Long> {
+
+    String PAIR_COLUMNS = "SELECT new com.group_2.dto.finance.PairwiseBalanceDTO(e.creditorId, e.debtorId, "
+            + "e.amountCents) FROM BalanceLedgerEntry e ";
+
+    Optional<BalanceLedgerEntry> findByWgIdAndCreditorIdAndDebtorId(Long wgId, Long creditorId, Long debtorId);
+
+    List<BalanceLedgerEntry> findByWgId(Long wgId);
+
+    // Projections always read the stored amounts, even if a ledger entity in
+    // the persistence context is older than the last addAmountCents
+    @Query(PAIR_COLUMNS + "WHERE e.wgId = :wgId")
+    List<PairwiseBalanceDTO> findPairsByWgId(@Param("wgId") Long wgId);
+
+    // All ledger rows the user takes part in, as creditor or as debtor
+    @Query(PAIR_COLUMNS + "WHERE e.wgId = :wgId AND (e.creditorId = :userId OR e.debtorId = :userId)")
+    List<PairwiseBalanceDTO> findPairsByWgIdAndParticipant(@Param("wgId") Long wgId, @Param("userId") Long userId);
+
+    // Adds to the stored amount in the database, so concurrent writers to the
+    // same pair queue on the row lock instead of overwriting each other.
+    // Returns 0 if the pair has no row yet.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BalanceLedgerEntry e SET e.amountCents = e.amountCents + :deltaCents, e.version = e.version + 1 "
+            + "WHERE e.wgId = :wgId AND e.creditorId = :creditorId AND e.debtorId = :debtorId")
+    int addAmountCents(@Param("wgId") Long wgId, @Param("creditorId") Long creditorId,
+            @Param("debtorId") Long debtorId, @Param("deltaCents") long deltaCents);
+
+    boolean existsByWgIdAndCreditorIdAndDebtorId(Long wgId, Long creditorId, Long debtorId);
+
+    boolean existsByWgId(Long wgId);
+
+    void deleteByWgId(Long wgId);
+}
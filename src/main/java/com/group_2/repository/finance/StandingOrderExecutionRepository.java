@@ -0,0 +1,34 @@
+package com.group_2.repository.finance;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.group_2.model.finance.StandingOrderExecution;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface StandingOrderExecutionRepository extends JpaRepository<StandingOrderExecution, Long> {
+
+    // Newest first
+    List<StandingOrderExecution> findByStandingOrderIdOrderByDueDateDesc(Long standingOrderId);
+
+    // Oldest first, backed by idx_standing_order_execution_wg. The caller must
+    // close the stream and keep a transaction open while reading it.
+    Stream<StandingOrderExecution> streamByWgIdOrderByDueDate(Long wgId);
+
+    // Backed by uk_standing_order_execution_due
+    @Query("SELECT e.dueDate FROM StandingOrderExecution e WHERE e.standingOrderId = :orderId "
+            + "AND e.dueDate BETWEEN :from AND :to")
+    List<LocalDate> findDueDatesBetween(@Param("orderId") Long orderId, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM StandingOrderExecution e WHERE e.wgId = :wgId")
+    int deleteByWgId(@Param("wgId") Long wgId);
+}
@@ -1,17 +1,21 @@
 package com.group_2.repository.finance;
 
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.group_2.dto.finance.DueStandingOrderDTO;
+import com.group_2.dto.finance.ScheduledStandingOrderDTO;
 import com.group_2.model.WG;
 import com.group_2.model.finance.StandingOrder;
 
-import jakarta.persistence.LockModeType;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface StandingOrderRepository extends JpaRepository<StandingOrder, Long> {
@@ -20,18 +24,38 @@ public interface StandingOrderRepository extends JpaRepository<StandingOrder, Lo
 
     List<StandingOrder> findByNextExecutionLessThanEqualAndIsActiveTrue(LocalDate date);
 
-    // With lock to prevent double-execution when scheduler runs concurrently
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT s FROM StandingOrder s WHERE s.nextExecution <= :date AND s.isActive = true")
-    List<StandingOrder> findDueOrdersForUpdate(@Param("date") LocalDate date);
+    // Due orders grouped by WG, so a run can keep the orders of one WG together
+    @Query("SELECT new com.group_2.dto.finance.DueStandingOrderDTO(s.id, s.wg.id) FROM StandingOrder s "
+            + "WHERE s.nextExecution <= :date AND s.isActive = true ORDER BY s.wg.id, s.id")
+    List<DueStandingOrderDTO> findDueOrders(@Param("date") LocalDate date);
 
+    @Query("SELECT new com.group_2.dto.finance.ScheduledStandingOrderDTO(s.id, s.wg.id, s.nextExecution) "
+            + "FROM StandingOrder s WHERE s.isActive = true")
+    List<ScheduledStandingOrderDTO> findActiveSchedule();
+
+    @Query("SELECT new com.group_2.dto.finance.ScheduledStandingOrderDTO(s.id, s.wg.id, s.nextExecution) "
+            + "FROM StandingOrder s WHERE s.isActive = true AND s.id IN :ids")
+    List<ScheduledStandingOrderDTO> findActiveScheduleByIds(@Param("ids") Collection<Long> ids);
+
+    // Debtors loaded in the same query for listings. LOAD keeps the other
+    // associations eager, a FETCH graph would make them lazy.
+    @EntityGraph(attributePaths = "debtors", type = EntityGraphType.LOAD)
     List<StandingOrder> findByWgAndIsActiveTrue(WG wg);
 
+    @EntityGraph(attributePaths = "debtors", type = EntityGraphType.LOAD)
+    @Query("SELECT s FROM StandingOrder s WHERE s.id = :id")
+    Optional<StandingOrder> findWithDebtorsById(@Param("id") Long id);
+
     @Query("SELECT s FROM StandingOrder s WHERE s.isActive = true AND (s.creditor.id = :userId OR s.createdBy.id = :userId)")
     List<StandingOrder> findActiveByCreditorOrCreator(@Param("userId") Long userId);
 
     @Query("SELECT s FROM StandingOrder s WHERE s.isActive = true AND s.wg.id = :wgId")
     List<StandingOrder> findActiveByWgId(@Param("wgId") Long wgId);
 
+    // Backed by idx_standing_order_debtor_user
+    @Query("SELECT s FROM StandingOrder s WHERE s.isActive = true AND s.wg.id = :wgId "
+            + "AND EXISTS (SELECT 1 FROM StandingOrderDebtor d WHERE d.standingOrder = s AND d.debtorId = :userId)")
+    List<StandingOrder> findActiveByWgIdAndDebtor(@Param("wgId") Long wgId, @Param("userId") Long userId);
+
     void deleteByWg(WG wg);
 }
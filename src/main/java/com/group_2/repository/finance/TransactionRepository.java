@@ -1,19 +1,72 @@
 package com.group_2.repository.finance;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.group_2.model.User;
 import com.group_2.model.WG;
 import com.group_2.model.finance.Transaction;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    // Transactions of a WG the user takes part in, as creditor or debtor
+    String VISIBLE_TO_USER = "FROM Transaction t WHERE t.wg.id = :wgId AND (t.creditor.id = :userId "
+            + "OR EXISTS (SELECT 1 FROM TransactionSplit s WHERE s.transaction = t AND s.debtor.id = :userId)) ";
+
+    // History filters, a null parameter disables its filter. search is a
+    // lower-case LIKE pattern escaped with '!'
+    String HISTORY_FILTER = VISIBLE_TO_USER
+            + "AND (:from IS NULL OR t.timestamp >= :from) AND (:to IS NULL OR t.timestamp < :to) "
+            + "AND (:month IS NULL OR MONTH(t.timestamp) = :month) "
+            + "AND (:payerId IS NULL OR t.creditor.id = :payerId) "
+            + "AND (:debtorId IS NULL OR EXISTS (SELECT 1 FROM TransactionSplit d "
+            + "WHERE d.transaction = t AND d.debtor.id = :debtorId)) "
+            + "AND (:search IS NULL OR LOWER(t.description) LIKE :search ESCAPE '!') ";
+
     List<Transaction> findByWg(WG wg);
 
+    // Newest first, splits loaded in the same query. The WG's rows come from an
+    // index on wg_id (H2 picks the foreign key's over idx_transaction_wg_timestamp),
+    // the EXISTS from idx_split_debtor_transaction.
+    // LOAD keeps the users eager, a FETCH graph would leave them as lazy proxies.
+    @EntityGraph(attributePaths = "splits", type = EntityGraphType.LOAD)
+    @Query("SELECT t " + VISIBLE_TO_USER + "ORDER BY t.timestamp DESC, t.id DESC")
+    List<Transaction> findVisibleToUser(@Param("wgId") Long wgId, @Param("userId") Long userId);
+
     List<Transaction> findByCreditor(User creditor);
 
+    boolean existsByWg(WG wg);
+
     void deleteByWg(WG wg);
+
+    // Keyset page of ids, newest first, starting after (afterTimestamp, afterId).
+    // Only ids are selected so the limit applies to rows, not to joined splits.
+    @Query("SELECT t.id " + HISTORY_FILTER + "AND (:afterTimestamp IS NULL OR t.timestamp < :afterTimestamp "
+            + "OR (t.timestamp = :afterTimestamp AND t.id < :afterId)) ORDER BY t.timestamp DESC, t.id DESC")
+    List<Long> findHistoryPageIds(@Param("wgId") Long wgId, @Param("userId") Long userId,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to, @Param("month") Integer month,
+            @Param("payerId") Long payerId, @Param("debtorId") Long debtorId, @Param("search") String search,
+            @Param("afterTimestamp") LocalDateTime afterTimestamp, @Param("afterId") Long afterId, Pageable limit);
+
+    @Query("SELECT COUNT(t) " + HISTORY_FILTER)
+    long countHistory(@Param("wgId") Long wgId, @Param("userId") Long userId, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to, @Param("month") Integer month, @Param("payerId") Long payerId,
+            @Param("debtorId") Long debtorId, @Param("search") String search);
+
+    @Query("SELECT DISTINCT YEAR(t.timestamp) " + VISIBLE_TO_USER)
+    List<Integer> findHistoryYears(@Param("wgId") Long wgId, @Param("userId") Long userId);
+
+    // Loads a page of transactions with their splits in one query, unordered
+    @Query("SELECT DISTINCT t FROM Transaction t LEFT JOIN FETCH t.splits WHERE t.id IN :ids")
+    List<Transaction> findWithSplitsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -1,12 +1,17 @@
 package com.group_2.repository.finance;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.group_2.dto.finance.PairwiseBalanceDTO;
 import com.group_2.model.User;
 import com.group_2.model.finance.Transaction;
 import com.group_2.model.finance.TransactionSplit;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -14,4 +19,24 @@ public interface TransactionSplitRepository extends JpaRepository<TransactionSpl
     List<TransactionSplit> findByDebtor(User debtor);
 
     List<TransactionSplit> findByTransaction(Transaction transaction);
+
+    // Removes all splits of a transaction in one statement
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM TransactionSplit s WHERE s.transaction.id = :transactionId")
+    int deleteByTransactionId(@Param("transactionId") Long transactionId);
+
+    // Sum of split amounts per (creditor, debtor) pair of a WG, own shares excluded
+    @Query("SELECT new com.group_2.dto.finance.PairwiseBalanceDTO(t.creditor.id, s.debtor.id, SUM(s.amountCents)) "
+            + "FROM TransactionSplit s JOIN s.transaction t "
+            + "WHERE t.wg.id = :wgId AND t.creditor.id <> s.debtor.id GROUP BY t.creditor.id, s.debtor.id")
+    List<PairwiseBalanceDTO> sumAmountsByPair(@Param("wgId") Long wgId);
+
+    // Same sums for transactions in [from, to), a null bound is open
+    @Query("SELECT new com.group_2.dto.finance.PairwiseBalanceDTO(t.creditor.id, s.debtor.id, SUM(s.amountCents)) "
+            + "FROM TransactionSplit s JOIN s.transaction t "
+            + "WHERE t.wg.id = :wgId AND t.creditor.id <> s.debtor.id "
+            + "AND (:from IS NULL OR t.timestamp >= :from) AND (:to IS NULL OR t.timestamp < :to) "
+            + "GROUP BY t.creditor.id, s.debtor.id")
+    List<PairwiseBalanceDTO> sumAmountsByPairBetween(@Param("wgId") Long wgId, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,140 @@
+package com.group_2.service.cleaning;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Assigns the rooms of one week to members so that the members' cleaning
+ * loads stay as even as possible. A member's load is the summed weight of the
+ * rooms they cleaned recently; giving a room of weight w to a member with load
+ * L costs (L + w)^2 - L^2, so a minimum-cost assignment gives the heaviest
+ * rooms to the members with the lowest load and minimises the sum of squared
+ * loads.
+ *
+ * Each round is solved exactly as a rectangular assignment problem with the
+ * Hungarian algorithm in O(rooms^2 * members). If there are more rooms than
+ * members, the rooms are assigned in rounds of at most one room per member,
+ * heaviest rooms first, with the loads updated after every round.
+ *
+ * Ties are broken away from the member who cleaned the same room last, so
+ * rooms of equal weight still rotate.
+ */
+public final class CleaningAssignmentSolver {
+
+    private static final long INFINITY = Long.MAX_VALUE / 4;
+
+    private CleaningAssignmentSolver() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * @param roomWeights    weight of each room to assign, at least 1
+     * @param memberLoads    current load of each member, not modified
+     * @param previousMember per room the member index who cleaned it last, or -1
+     * @return per room the index of the assigned member
+     */
+    public static int[] assign(int[] roomWeights, long[] memberLoads, int[] previousMember) {
+        if (roomWeights.length != previousMember.length) {
+            throw new IllegalArgumentException("Room weights and previous members must have the same length");
+        }
+        int[] assignment = new int[roomWeights.length];
+        if (roomWeights.length == 0) {
+            return assignment;
+        }
+        int members = memberLoads.length;
+        if (members == 0) {
+            throw new IllegalArgumentException("At least one member is required");
+        }
+
+        long[] loads = memberLoads.clone();
+        // Heaviest rooms first, ties in input order
+        Integer[] order = IntStream.range(0, roomWeights.length).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.comparingInt((Integer room) -> -roomWeights[room]));
+
+        for (int start = 0; start < order.length; start += members) {
+            int rooms = Math.min(members, order.length - start);
+            // Primary cost scaled so that the tie-breaks of a round never outweigh it
+            long scale = rooms + 1L;
+            long[][] cost = new long[rooms][members];
+            for (int i = 0; i < rooms; i++) {
+                int room = order[start + i];
+                long weight = roomWeights[room];
+                for (int member = 0; member < members; member++) {
+                    long increase = weight * (2 * loads[member] + weight);
+                    cost[i][member] = increase * scale + (previousMember[room] == member ? 1 : 0);
+                }
+            }
+
+            int[] roundAssignment = solve(cost, rooms, members);
+            for (int i = 0; i < rooms; i++) {
+                int room = order[start + i];
+                assignment[room] = roundAssignment[i];
+                loads[roundAssignment[i]] += roomWeights[room];
+            }
+        }
+        return assignment;
+    }
+
+    // Hungarian algorithm with potentials for rows <= columns, returns the
+    // column of each row. Indices below are 1-based, column 0 is a sentinel.
+    private static int[] solve(long[][] cost, int rows, int columns) {
+        long[] rowPotential = new long[rows + 1];
+        long[] columnPotential = new long[columns + 1];
+        int[] rowOfColumn = new int[columns + 1];
+        int[] previousColumn = new int[columns + 1];
+        long[] minSlack = new long[columns + 1];
+        boolean[] used = new boolean[columns + 1];
+
+        for (int row = 1; row <= rows; row++) {
+            rowOfColumn[0] = row;
+            int column = 0;
+            Arrays.fill(minSlack, INFINITY);
+            Arrays.fill(used, false);
+            do {
+                used[column] = true;
+                int currentRow = rowOfColumn[column];
+                long delta = INFINITY;
+                int nextColumn = 0;
+                for (int j = 1; j <= columns; j++) {
+                    if (used[j]) {
+                        continue;
+                    }
+                    long slack = cost[currentRow - 1][j - 1] - rowPotential[currentRow] - columnPotential[j];
+                    if (slack < minSlack[j]) {
+                        minSlack[j] = slack;
+                        previousColumn[j] = column;
+                    }
+                    if (minSlack[j] < delta) {
+                        delta = minSlack[j];
+                        nextColumn = j;
+                    }
+                }
+                for (int j = 0; j <= columns; j++) {
+                    if (used[j]) {
+                        rowPotential[rowOfColumn[j]] += delta;
+                        columnPotential[j] -= delta;
+                    } else {
+                        minSlack[j] -= delta;
+                    }
+                }
+                column = nextColumn;
+            } while (rowOfColumn[column] != 0);
+
+            // Augment along the alternating path back to the sentinel
+            do {
+                int previous = previousColumn[column];
+                rowOfColumn[column] = rowOfColumn[previous];
+                column = previous;
+            } while (column != 0);
+        }
+
+        int[] columnOfRow = new int[rows];
+        for (int j = 1; j <= columns; j++) {
+            if (rowOfColumn[j] != 0) {
+                columnOfRow[rowOfColumn[j] - 1] = j - 1;
+            }
+        }
+        return columnOfRow;
+    }
+}
@@ -0,0 +1,118 @@
+package com.group_2.service.cleaning;
+
+import com.group_2.dto.cleaning.MemberCleaningLoadDTO;
+import com.group_2.model.User;
+import com.group_2.model.WG;
+import com.group_2.model.cleaning.CleaningTask;
+import com.group_2.model.cleaning.Room;
+import com.group_2.repository.cleaning.CleaningTaskRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Picks assignees for CleaningAssignmentStrategy.BALANCED. A plan starts with
+ * each member's load over the last cleaning.assignment.load-window-weeks
+ * weeks (default 12), so manual reassignments and swaps are taken into
+ * account, and new members are not handed every task until their all-time
+ * total catches up. The schedule generation then records the existing tasks
+ * and assigns the missing ones week by week, see CleaningAssignmentSolver.
+ */
+@Service
+public class CleaningLoadBalancer {
+
+    private final CleaningTaskRepository cleaningTaskRepository;
+    private final int loadWindowWeeks;
+
+    @Autowired
+    public CleaningLoadBalancer(CleaningTaskRepository cleaningTaskRepository,
+            @Value("${cleaning.assignment.load-window-weeks:12}") int loadWindowWeeks) {
+        if (loadWindowWeeks < 0) {
+            throw new IllegalArgumentException("Load window must not be negative");
+        }
+        this.cleaningTaskRepository = cleaningTaskRepository;
+        this.loadWindowWeeks = loadWindowWeeks;
+    }
+
+    // Plan for generating firstWeek and the weeks after it
+    public Plan plan(WG wg, List<User> members, LocalDate firstWeek) {
+        Plan plan = new Plan(members);
+        if (loadWindowWeeks > 0) {
+            for (MemberCleaningLoadDTO load : cleaningTaskRepository.sumRoomWeightsByAssignee(wg,
+                    firstWeek.minusWeeks(loadWindowWeeks), firstWeek)) {
+                plan.addLoad(load.assigneeId(), load.load());
+            }
+        }
+        return plan;
+    }
+
+    // Loads of the current members while a range of weeks is generated
+    public static final class Plan {
+        private final List<User> members;
+        private final Map<Long, Integer> indexByUserId = new HashMap<>();
+        private final long[] loads;
+        // Member index who cleaned the room last, for the solver's tie-break
+        private final Map<Long, Integer> lastMemberByRoomId = new HashMap<>();
+
+        Plan(List<User> members) {
+            this.members = List.copyOf(members);
+            this.loads = new long[members.size()];
+            for (int i = 0; i < members.size(); i++) {
+                indexByUserId.put(members.get(i).getId(), i);
+            }
+        }
+
+        // Tasks of former members are ignored
+        private void addLoad(Long userId, long load) {
+            Integer index = indexByUserId.get(userId);
+            if (index != null) {
+                loads[index] += load;
+            }
+        }
+
+        public long getLoad(Long userId) {
+            Integer index = indexByUserId.get(userId);
+            return index != null ? loads[index] : 0;
+        }
+
+        // Counts a task that already exists in a generated week
+        public void record(CleaningTask task) {
+            Integer index = indexByUserId.get(task.getAssignee().getId());
+            if (index != null) {
+                loads[index] += task.getRoom().getCleaningWeight();
+                lastMemberByRoomId.put(task.getRoom().getId(), index);
+            }
+        }
+
+        // Assignees for the rooms of one week, in the order of rooms. A room
+        // may appear more than once if it has several templates.
+        public List<User> assign(List<Room> rooms) {
+            if (rooms.isEmpty() || members.isEmpty()) {
+                return new ArrayList<>();
+            }
+            int[] weights = new int[rooms.size()];
+            int[] previousMember = new int[rooms.size()];
+            for (int i = 0; i < rooms.size(); i++) {
+                weights[i] = rooms.get(i).getCleaningWeight();
+                previousMember[i] = lastMemberByRoomId.getOrDefault(rooms.get(i).getId(), -1);
+            }
+
+            int[] assignment = CleaningAssignmentSolver.assign(weights, loads, previousMember);
+            List<User> assignees = new ArrayList<>(rooms.size());
+            for (int i = 0; i < rooms.size(); i++) {
+                int member = assignment[i];
+                loads[member] += weights[i];
+                lastMemberByRoomId.put(rooms.get(i).getId(), member);
+                assignees.add(members.get(member));
+            }
+            return assignees;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.group_2.service.cleaning;
+
+// Published by the cleaning services whenever tasks or templates of the WG
+// change. Listeners with @TransactionalEventListener see it after the commit.
+public record CleaningScheduleChangedEvent(Long wgId) {
+}
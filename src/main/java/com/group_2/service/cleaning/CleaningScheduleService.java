@@ -2,6 +2,7 @@ package com.group_2.service.cleaning;
 
 import com.group_2.model.User;
 import com.group_2.model.WG;
+import com.group_2.model.cleaning.CleaningAssignmentStrategy;
 import com.group_2.model.cleaning.CleaningTask;
 import com.group_2.model.cleaning.CleaningTaskTemplate;
 import com.group_2.model.cleaning.RecurrenceInterval;
@@ -19,42 +20,63 @@ import com.group_2.repository.cleaning.CleaningTaskRepository;
 import com.group_2.repository.cleaning.CleaningTaskTemplateRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 // Coordinating service for cleaning schedules and tasks
 // Delegates to: QueueManagementService, CleaningTemplateService, CleaningTaskAssignmentService, CleaningTaskLifecycleService
 @Service
 public class CleaningScheduleService {
 
+    // Upper bound for generateTasksForWeeks, two years
+    public static final int MAX_PREGENERATED_WEEKS = 104;
+
     private final CleaningTaskRepository cleaningTaskRepository;
     private final CleaningTaskTemplateRepository templateRepository;
     private final UserRepository userRepository;
     private final WGRepository wgRepository;
     private final CleaningMapper cleaningMapper;
     private final CoreMapper coreMapper;
+    private final CleaningWeekCache weekCache;
+    private final TransactionTemplate weekTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int weeksAhead;
 
     // Delegated services
     private final QueueManagementService queueManagementService;
     private final CleaningTemplateService templateService;
     private final CleaningTaskAssignmentService assignmentService;
     private final CleaningTaskLifecycleService lifecycleService;
+    private final CleaningLoadBalancer loadBalancer;
 
     @Autowired
     public CleaningScheduleService(CleaningTaskRepository cleaningTaskRepository,
             CleaningTaskTemplateRepository templateRepository, UserRepository userRepository,
             WGRepository wgRepository, CleaningMapper cleaningMapper, CoreMapper coreMapper,
             QueueManagementService queueManagementService, CleaningTemplateService templateService,
-            CleaningTaskAssignmentService assignmentService, CleaningTaskLifecycleService lifecycleService) {
+            CleaningTaskAssignmentService assignmentService, CleaningTaskLifecycleService lifecycleService,
+            CleaningLoadBalancer loadBalancer, CleaningWeekCache weekCache, PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher, @Value("${cleaning.schedule.weeks-ahead:8}") int weeksAhead) {
+        if (weeksAhead < 0 || weeksAhead >= MAX_PREGENERATED_WEEKS) {
+            throw new IllegalArgumentException("Weeks ahead must be between 0 and " + (MAX_PREGENERATED_WEEKS - 1));
+        }
         this.cleaningTaskRepository = cleaningTaskRepository;
         this.templateRepository = templateRepository;
         this.userRepository = userRepository;
@@ -65,6 +87,12 @@ public class CleaningScheduleService {
         this.templateService = templateService;
         this.assignmentService = assignmentService;
         this.lifecycleService = lifecycleService;
+        this.loadBalancer = loadBalancer;
+        this.weekCache = weekCache;
+        this.weekTransaction = new TransactionTemplate(transactionManager);
+        this.weekTransaction.setReadOnly(true);
+        this.eventPublisher = eventPublisher;
+        this.weeksAhead = weeksAhead;
     }
 
     // ========== Core Query Methods ==========
@@ -84,24 +112,27 @@ public class CleaningScheduleService {
         return cleaningTaskRepository.findByWgAndWeekStartDate(wg, getCurrentWeekStart());
     }
 
-    @Transactional
+    // Only reads. Template tasks of the coming weeks are generated in advance,
+    // see generateUpcomingWeeks and CleaningTaskGenerationJob.
+    @Transactional(readOnly = true)
     public List<CleaningTask> getTasksForWeek(WG wg, LocalDate weekStart) {
-        List<CleaningTask> tasks = cleaningTaskRepository.findByWgAndWeekStartDate(wg, weekStart);
-        if (templateService.hasTemplate(wg)) {
-            List<CleaningTask> generatedTasks = generateMissingTasksFromTemplate(wg, weekStart, tasks);
-            tasks.addAll(generatedTasks);
-        }
-        return tasks;
+        return cleaningTaskRepository.findByWgAndWeekStartDate(wg, weekStart);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<CleaningTaskDTO> getTasksForWeekDTO(WG wg, LocalDate weekStart) {
         return cleaningMapper.toDTOList(getTasksForWeek(wg, weekStart));
     }
 
-    @Transactional
     public List<CleaningTaskDTO> getTasksForWeekDTO(Long wgId, LocalDate weekStart) {
-        return getTasksForWeekDTO(requireWg(wgId), weekStart);
+        return getWeekSnapshot(wgId, weekStart).tasks();
+    }
+
+    // Tasks and statistics of the week, from CleaningWeekCache. A miss loads
+    // the week in its own read-only transaction.
+    public CleaningWeekCache.WeekSnapshot getWeekSnapshot(Long wgId, LocalDate weekStart) {
+        return weekCache.get(wgId, weekStart,
+                () -> weekTransaction.execute(status -> getTasksForWeekDTO(requireWg(wgId), weekStart)));
     }
 
     public List<CleaningTask> getUserTasksForCurrentWeek(User user) {
@@ -109,15 +140,8 @@ public class CleaningScheduleService {
     }
 
     // Calculates statistics for a week's cleaning schedule
-    @Transactional
     public WeekStatsDTO getWeekStats(Long wgId, LocalDate weekStart, Long currentUserId) {
-        List<CleaningTaskDTO> weekTasks = getTasksForWeekDTO(wgId, weekStart);
-        int total = weekTasks.size();
-        int completed = (int) weekTasks.stream().filter(CleaningTaskDTO::completed).count();
-        int myTasks = (int) weekTasks.stream()
-                .filter(t -> t.isAssignedTo(currentUserId))
-                .count();
-        return new WeekStatsDTO(total, completed, myTasks);
+        return getWeekSnapshot(wgId, weekStart).statsFor(currentUserId);
     }
 
     // Returns tasks due on a specific day
@@ -136,7 +160,57 @@ public class CleaningScheduleService {
         if (weekStart.isBefore(getCurrentWeekStart())) {
             return new ArrayList<>();
         }
+        return generateMissingTasks(wg, List.of(weekStart), () -> existingTasks);
+    }
+
+    // Fills the schedule for the current and the following weeks, e.g. weeks=12
+    // for about three months ahead. Weeks that already have their template
+    // tasks are kept.
+    @Transactional
+    public List<CleaningTask> generateTasksForWeeks(WG wg, int weeks) {
+        if (weeks < 1 || weeks > MAX_PREGENERATED_WEEKS) {
+            throw new IllegalArgumentException("Weeks must be between 1 and " + MAX_PREGENERATED_WEEKS);
+        }
+        List<LocalDate> weekStarts = new ArrayList<>(weeks);
+        for (int i = 0; i < weeks; i++) {
+            weekStarts.add(getCurrentWeekStart().plusWeeks(i));
+        }
+        List<CleaningTask> newTasks = generateMissingTasks(wg, weekStarts,
+                () -> cleaningTaskRepository.findByWgAndWeekStartDateBetween(wg, weekStarts.get(0),
+                        weekStarts.get(weeks - 1)));
+        if (!newTasks.isEmpty()) {
+            publishChanged(wg);
+        }
+        return newTasks;
+    }
+
+    // For callers outside a transaction, e.g. the UI: runs in a transaction of
+    // its own that is retried on queue conflicts, see QueueManagementService
+    public List<CleaningTask> generateTasksForWeeks(Long wgId, int weeks) {
+        return queueManagementService.runWithRetry(() -> generateTasksForWeeks(requireWg(wgId), weeks));
+    }
+
+    // The current week and cleaning.schedule.weeks-ahead weeks after it, the
+    // range the calendar can show without generating
+    @Transactional
+    public List<CleaningTask> generateUpcomingWeeks(WG wg) {
+        return generateTasksForWeeks(wg, weeksAhead + 1);
+    }
+
+    // Retried like generateTasksForWeeks(Long, int), used by
+    // CleaningTaskGenerationJob
+    public List<CleaningTask> generateUpcomingWeeks(Long wgId) {
+        return queueManagementService.runWithRetry(() -> generateUpcomingWeeks(requireWg(wgId)));
+    }
 
+    // Generates the weeks in order. The queues rotate in memory from week to
+    // week; all tasks are inserted in one batch and each queue is written once.
+    // With CleaningAssignmentStrategy.BALANCED the rooms of each week are
+    // assigned together by CleaningLoadBalancer instead of by their queues.
+    // The existing tasks are read once the queues are locked, so a concurrent
+    // generation that held the locks before is seen and not repeated.
+    private List<CleaningTask> generateMissingTasks(WG wg, List<LocalDate> weekStarts,
+            Supplier<List<CleaningTask>> existingTasksLoader) {
         List<CleaningTaskTemplate> templates = templateRepository.findByWg(wg);
         if (templates.isEmpty()) {
             return new ArrayList<>();
@@ -147,48 +221,95 @@ public class CleaningScheduleService {
             return new ArrayList<>();
         }
 
+        // Locked in both strategies, it serializes concurrent generation for the WG
+        Set<Long> templateRoomIds = new HashSet<>();
+        for (CleaningTaskTemplate template : templates) {
+            templateRoomIds.add(template.getRoom().getId());
+        }
+        Map<Long, RoomAssignmentQueue> queuesByRoomId = queueManagementService.getQueuesForUpdate(wg,
+                templateRoomIds);
+        List<CleaningTask> existingTasks = existingTasksLoader.get();
+
         // Only consider non-manual (template-generated) tasks when checking for
         // existing rooms
         // Manual tasks should not block template task generation
-        Set<Long> existingTemplateRoomIds = new HashSet<>();
+        Map<LocalDate, Set<Long>> existingTemplateRoomIds = new HashMap<>();
+        Map<LocalDate, List<CleaningTask>> existingTasksByWeek = new HashMap<>();
         for (CleaningTask task : existingTasks) {
             if (!task.isManualOverride()) {
-                existingTemplateRoomIds.add(task.getRoom().getId());
+                existingTemplateRoomIds.computeIfAbsent(task.getWeekStartDate(), week -> new HashSet<>())
+                        .add(task.getRoom().getId());
             }
+            existingTasksByWeek.computeIfAbsent(task.getWeekStartDate(), week -> new ArrayList<>()).add(task);
         }
 
+        CleaningLoadBalancer.Plan balancedPlan = null;
+        if (wg.getCleaningAssignmentStrategy() == CleaningAssignmentStrategy.BALANCED) {
+            balancedPlan = loadBalancer.plan(wg, members, weekStarts.get(0));
+        }
+        // New queues get an offset based on existing queue count
+        int queueCount = queuesByRoomId.size();
+        Set<RoomAssignmentQueue> changedQueues = new LinkedHashSet<>();
         List<CleaningTask> newTasks = new ArrayList<>();
-        for (CleaningTaskTemplate template : templates) {
-            if (existingTemplateRoomIds.contains(template.getRoom().getId())) {
-                continue;
-            }
-            if (!templateService.shouldGenerateTaskThisWeek(template, weekStart)) {
-                continue;
+        for (LocalDate weekStart : weekStarts) {
+            Set<Long> roomIdsWithTask = existingTemplateRoomIds.getOrDefault(weekStart, Set.of());
+            List<Room> dueRooms = new ArrayList<>();
+            List<LocalDate> dueDates = new ArrayList<>();
+            for (CleaningTaskTemplate template : templates) {
+                Room room = template.getRoom();
+                if (roomIdsWithTask.contains(room.getId())) {
+                    continue;
+                }
+                if (!templateService.shouldGenerateTaskThisWeek(template, weekStart)) {
+                    continue;
+                }
+                LocalDate dueDate = templateService.resolveDueDateForWeek(template, weekStart);
+                if (dueDate == null) {
+                    continue;
+                }
+                dueRooms.add(room);
+                dueDates.add(dueDate);
             }
 
-            RoomAssignmentQueue queue = queueManagementService.getOrCreateQueueForRoom(wg, template.getRoom(), members);
-            User assignee = queueManagementService.getNextAssigneeFromQueue(queue, members);
-            if (assignee == null) {
+            if (balancedPlan != null) {
+                existingTasksByWeek.getOrDefault(weekStart, List.of()).forEach(balancedPlan::record);
+                List<User> assignees = balancedPlan.assign(dueRooms);
+                for (int i = 0; i < assignees.size(); i++) {
+                    newTasks.add(new CleaningTask(dueRooms.get(i), assignees.get(i), wg, weekStart, dueDates.get(i)));
+                }
                 continue;
             }
 
-            LocalDate dueDate = templateService.resolveDueDateForWeek(template, weekStart);
-            if (dueDate == null) {
-                continue;
+            for (int i = 0; i < dueRooms.size(); i++) {
+                Room room = dueRooms.get(i);
+                RoomAssignmentQueue queue = queuesByRoomId.get(room.getId());
+                if (queue == null) {
+                    queue = new RoomAssignmentQueue(room, wg, members, queueCount++);
+                    queuesByRoomId.put(room.getId(), queue);
+                    changedQueues.add(queue);
+                }
+                User assignee = queueManagementService.peekNextAssignee(queue, members);
+                if (assignee == null) {
+                    continue;
+                }
+
+                newTasks.add(new CleaningTask(room, assignee, wg, weekStart, dueDates.get(i)));
+                queue.rotate();
+                changedQueues.add(queue);
             }
-
-            CleaningTask task = new CleaningTask(template.getRoom(), assignee, wg, weekStart, dueDate);
-            newTasks.add(cleaningTaskRepository.save(task));
-            queueManagementService.advanceQueue(queue);
         }
 
-        return newTasks;
+        queueManagementService.saveQueues(changedQueues);
+        return cleaningTaskRepository.saveAll(newTasks);
     }
 
     @Transactional
     public List<CleaningTask> generateFromTemplateForWeek(WG wg, LocalDate weekStart) {
-        List<CleaningTask> existingTasks = cleaningTaskRepository.findByWgAndWeekStartDate(wg, weekStart);
-        return generateMissingTasksFromTemplate(wg, weekStart, existingTasks);
+        if (weekStart.isBefore(getCurrentWeekStart())) {
+            return new ArrayList<>();
+        }
+        return generateMissingTasks(wg, List.of(weekStart),
+                () -> cleaningTaskRepository.findByWgAndWeekStartDate(wg, weekStart));
     }
 
     @Transactional
@@ -196,7 +317,10 @@ public class CleaningScheduleService {
         LocalDate weekStart = getCurrentWeekStart();
         List<CleaningTask> existingTasks = cleaningTaskRepository.findByWgAndWeekStartDate(wg, weekStart);
         cleaningTaskRepository.deleteAll(existingTasks);
-        return generateFromTemplateForWeek(wg, weekStart);
+        publishChanged(wg);
+        List<CleaningTask> tasks = generateFromTemplateForWeek(wg, weekStart);
+        generateUpcomingWeeks(wg);
+        return tasks;
     }
 
     @Transactional
@@ -204,6 +328,17 @@ public class CleaningScheduleService {
         return generateFromTemplate(requireWg(wgId));
     }
 
+    // Applies to tasks generated from now on, existing tasks keep their assignee
+    @Transactional
+    public void setAssignmentStrategy(Long wgId, CleaningAssignmentStrategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("Assignment strategy is required");
+        }
+        WG wg = requireWg(wgId);
+        wg.setCleaningAssignmentStrategy(strategy);
+        wgRepository.save(wg);
+    }
+
     // ========== Delegated Template Methods ==========
 
     public List<CleaningTaskTemplate> getTemplates(WG wg) {
@@ -228,47 +363,58 @@ public class CleaningScheduleService {
 
     @Transactional
     public List<CleaningTaskTemplate> saveAsTemplate(WG wg) {
-        return templateService.saveAsTemplate(wg);
+        List<CleaningTaskTemplate> templates = templateService.saveAsTemplate(wg);
+        generateUpcomingWeeks(wg);
+        return templates;
     }
 
     @Transactional
     public List<CleaningTaskTemplate> saveAsTemplate(Long wgId) {
-        return templateService.saveAsTemplate(requireWg(wgId));
+        return saveAsTemplate(requireWg(wgId));
     }
 
+    // Generates the upcoming weeks right away, the calendar does not wait for
+    // CleaningTaskGenerationJob
     @Transactional
     public CleaningTaskTemplate addTemplate(WG wg, Room room, DayOfWeek dayOfWeek, RecurrenceInterval interval) {
-        return templateService.addTemplate(wg, room, dayOfWeek, interval);
+        CleaningTaskTemplate template = templateService.addTemplate(wg, room, dayOfWeek, interval);
+        generateUpcomingWeeks(wg);
+        return template;
     }
 
     @Transactional
     public CleaningTaskTemplateDTO addTemplateByRoomId(WG wg, Long roomId, DayOfWeek dayOfWeek,
             RecurrenceInterval interval) {
-        return templateService.addTemplateByRoomId(wg, roomId, dayOfWeek, interval);
+        return addTemplateByRoomId(wg, roomId, dayOfWeek, interval, null);
     }
 
     @Transactional
     public CleaningTaskTemplateDTO addTemplateByRoomId(Long wgId, Long roomId, DayOfWeek dayOfWeek,
             RecurrenceInterval interval) {
-        return templateService.addTemplateByRoomId(requireWg(wgId), roomId, dayOfWeek, interval);
+        return addTemplateByRoomId(requireWg(wgId), roomId, dayOfWeek, interval, null);
     }
 
     @Transactional
     public CleaningTaskTemplateDTO addTemplateByRoomId(WG wg, Long roomId, DayOfWeek dayOfWeek,
             RecurrenceInterval interval, LocalDate baseWeekStart) {
-        return templateService.addTemplateByRoomId(wg, roomId, dayOfWeek, interval, baseWeekStart);
+        CleaningTaskTemplateDTO template = templateService.addTemplateByRoomId(wg, roomId, dayOfWeek, interval,
+                baseWeekStart);
+        generateUpcomingWeeks(wg);
+        return template;
     }
 
     @Transactional
     public CleaningTaskTemplateDTO addTemplateByRoomId(Long wgId, Long roomId, DayOfWeek dayOfWeek,
             RecurrenceInterval interval, LocalDate baseWeekStart) {
-        return templateService.addTemplateByRoomId(requireWg(wgId), roomId, dayOfWeek, interval, baseWeekStart);
+        return addTemplateByRoomId(requireWg(wgId), roomId, dayOfWeek, interval, baseWeekStart);
     }
 
     @Transactional
     public CleaningTaskTemplate updateTemplate(CleaningTaskTemplate template, DayOfWeek newDay,
             RecurrenceInterval newInterval) {
-        return templateService.updateTemplate(template, newDay, newInterval);
+        CleaningTaskTemplate updated = templateService.updateTemplate(template, newDay, newInterval);
+        syncWithTemplates(updated.getWg());
+        return updated;
     }
 
     @Transactional
@@ -286,9 +432,12 @@ public class CleaningScheduleService {
         templateService.clearTemplates(requireWg(wgId));
     }
 
+    // Re-syncs the whole range tasks may be pre-generated for, then fills the
+    // weeks the templates now cover
     @Transactional
-    public void syncCurrentWeekWithTemplate(WG wg) {
-        templateService.syncCurrentWeekWithTemplate(wg, queueManagementService);
+    public void syncWithTemplates(WG wg) {
+        templateService.syncTasksWithTemplates(wg, getCurrentWeekStart().plusWeeks(MAX_PREGENERATED_WEEKS - 1));
+        generateUpcomingWeeks(wg);
     }
 
     // ========== Delegated Assignment Methods ==========
@@ -336,12 +485,7 @@ public class CleaningScheduleService {
     @Transactional
     public void resetScheduleForMembershipChange(WG wg) {
         assignmentService.resetScheduleForMembershipChange(wg, templateService.hasTemplate(wg),
-                (w, weekStart) -> generateFromTemplateForWeek(w, weekStart));
-    }
-
-    @Transactional
-    public void reassignTasksFromDepartedMember(WG wg, Long departedUserId) {
-        assignmentService.reassignTasksFromDepartedMember(wg, departedUserId);
+                this::generateUpcomingWeeks);
     }
 
     public User getNextAssigneeForRoom(WG wg, Room room) {
@@ -418,6 +562,11 @@ public class CleaningScheduleService {
         cleaningTaskRepository.deleteByWg(wg);
         templateService.clearTemplates(wg);
         queueManagementService.deleteQueuesForWg(wg);
+        publishChanged(wg);
+    }
+
+    private void publishChanged(WG wg) {
+        eventPublisher.publishEvent(new CleaningScheduleChangedEvent(wg.getId()));
     }
 
     private WG requireWg(Long wgId) {
@@ -0,0 +1,53 @@
+package com.group_2.service.cleaning;
+
+import com.group_2.service.core.SequenceAlignmentService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * One-time migrations of existing database files that Hibernate's
+ * ddl-auto=update cannot do on its own: moving the cleaning task id sequence
+ * past ids that were assigned by the IDENTITY column before CleaningTask
+ * switched to a pooled sequence for batched inserts, and giving templates
+ * from before CleaningTaskTemplate had a version column their first version.
+ */
+@Service
+public class CleaningSchemaMigrationService {
+
+    private static final String TASK_SEQUENCE = "cleaning_task_seq";
+    private static final int TASK_ALLOCATION_SIZE = 50;
+
+    private final SequenceAlignmentService sequenceAlignmentService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public CleaningSchemaMigrationService(SequenceAlignmentService sequenceAlignmentService,
+            JdbcTemplate jdbcTemplate) {
+        this.sequenceAlignmentService = sequenceAlignmentService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Runs before the other startup listeners, which may generate tasks
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void alignTaskSequenceWithExistingIds() {
+        sequenceAlignmentService.alignWithExistingIds("tasks", TASK_SEQUENCE, TASK_ALLOCATION_SIZE);
+    }
+
+    // ddl-auto=update adds the column empty; Spring Data treats a template
+    // without a version as new, and Hibernate cannot raise a missing version
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void initializeTemplateVersions() {
+        jdbcTemplate.update("UPDATE task_template SET version = 0 WHERE version IS NULL");
+    }
+}
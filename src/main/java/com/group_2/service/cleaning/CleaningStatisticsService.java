@@ -0,0 +1,62 @@
+package com.group_2.service.cleaning;
+
+import com.group_2.dto.cleaning.AssigneeCleaningStatsDTO;
+import com.group_2.dto.cleaning.MonthlyCleaningStatsDTO;
+import com.group_2.dto.cleaning.RoomCleaningStatsDTO;
+import com.group_2.repository.cleaning.CleaningTaskRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Cleaning statistics over the task history of a WG: who was assigned and
+ * completed how many tasks, how many became overdue and how late they were
+ * done, by member, room or month. Each statistic is one aggregate query over
+ * the tasks of the weeks starting from and to (inclusive), nothing is loaded
+ * into memory.
+ */
+@Service
+public class CleaningStatisticsService {
+
+    private final CleaningTaskRepository cleaningTaskRepository;
+
+    @Autowired
+    public CleaningStatisticsService(CleaningTaskRepository cleaningTaskRepository) {
+        this.cleaningTaskRepository = cleaningTaskRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<AssigneeCleaningStatsDTO> getStatsByAssignee(Long wgId, LocalDate from, LocalDate to) {
+        validateRange(wgId, from, to);
+        return cleaningTaskRepository.getStatsByAssignee(wgId, from, to, LocalDate.now());
+    }
+
+    @Transactional(readOnly = true)
+    public List<RoomCleaningStatsDTO> getStatsByRoom(Long wgId, LocalDate from, LocalDate to) {
+        validateRange(wgId, from, to);
+        return cleaningTaskRepository.getStatsByRoom(wgId, from, to, LocalDate.now());
+    }
+
+    // Months by due date, oldest first; months without tasks are left out
+    @Transactional(readOnly = true)
+    public List<MonthlyCleaningStatsDTO> getStatsByMonth(Long wgId, LocalDate from, LocalDate to) {
+        validateRange(wgId, from, to);
+        return cleaningTaskRepository.getStatsByMonth(wgId, from, to, LocalDate.now());
+    }
+
+    private void validateRange(Long wgId, LocalDate from, LocalDate to) {
+        if (wgId == null) {
+            throw new IllegalArgumentException("WG ID is required");
+        }
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Date range is required");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+    }
+}
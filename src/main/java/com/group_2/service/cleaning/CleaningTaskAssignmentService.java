@@ -13,6 +13,7 @@ import com.group_2.repository.cleaning.RoomAssignmentQueueRepository;
 import com.group_2.repository.cleaning.RoomRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,18 +31,18 @@ public class CleaningTaskAssignmentService {
     private final RoomRepository roomRepository;
     private final UserRepository userRepository;
     private final CleaningMapper cleaningMapper;
-    private final QueueManagementService queueManagementService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public CleaningTaskAssignmentService(CleaningTaskRepository cleaningTaskRepository,
             RoomAssignmentQueueRepository queueRepository, RoomRepository roomRepository, UserRepository userRepository,
-            CleaningMapper cleaningMapper, QueueManagementService queueManagementService) {
+            CleaningMapper cleaningMapper, ApplicationEventPublisher eventPublisher) {
         this.cleaningTaskRepository = cleaningTaskRepository;
         this.queueRepository = queueRepository;
         this.roomRepository = roomRepository;
         this.userRepository = userRepository;
         this.cleaningMapper = cleaningMapper;
-        this.queueManagementService = queueManagementService;
+        this.eventPublisher = eventPublisher;
     }
 
     private LocalDate getCurrentWeekStart() {
@@ -52,16 +53,22 @@ public class CleaningTaskAssignmentService {
     public CleaningTask assignTask(Room room, User assignee, WG wg) {
         LocalDate weekStart = getCurrentWeekStart();
 
+        CleaningTask task = null;
         List<CleaningTask> existingTasks = cleaningTaskRepository.findByWgAndWeekStartDate(wg, weekStart);
-        for (CleaningTask task : existingTasks) {
-            if (task.getRoom().getId().equals(room.getId())) {
+        for (CleaningTask existing : existingTasks) {
+            if (existing.getRoom().getId().equals(room.getId())) {
+                task = existing;
                 task.setAssignee(assignee);
-                return cleaningTaskRepository.save(task);
+                break;
             }
         }
+        if (task == null) {
+            task = new CleaningTask(room, assignee, wg, weekStart);
+        }
 
-        CleaningTask task = new CleaningTask(room, assignee, wg, weekStart);
-        return cleaningTaskRepository.save(task);
+        CleaningTask saved = cleaningTaskRepository.save(task);
+        publishChanged(wg);
+        return saved;
     }
 
     @Transactional
@@ -93,7 +100,9 @@ public class CleaningTaskAssignmentService {
         // Always create a new task (allows multiple tasks per room per day)
         CleaningTask task = new CleaningTask(room, assignee, wg, weekStart, dueDate);
         task.setManualOverride(true);
-        return cleaningMapper.toDTO(cleaningTaskRepository.save(task));
+        CleaningTask saved = cleaningTaskRepository.save(task);
+        publishChanged(wg);
+        return cleaningMapper.toDTO(saved);
     }
 
     // Swaps with target's next scheduled task to preserve fairness
@@ -132,7 +141,9 @@ public class CleaningTaskAssignmentService {
         // Update the current task assignment
         task.setAssignee(newAssignee);
         task.setManualOverride(true);
-        return cleaningTaskRepository.save(task);
+        CleaningTask saved = cleaningTaskRepository.save(task);
+        publishChanged(task.getWg());
+        return saved;
     }
 
     @Transactional
@@ -148,57 +159,27 @@ public class CleaningTaskAssignmentService {
     // Deletes current/future tasks and regenerates fresh
     @Transactional
     public void resetScheduleForMembershipChange(WG wg, boolean hasTemplate,
-            java.util.function.BiConsumer<WG, LocalDate> generateFromTemplateFn) {
+            java.util.function.Consumer<WG> generateFromTemplateFn) {
         LocalDate currentWeekStart = getCurrentWeekStart();
         List<User> currentMembers = wg.getMitbewohner();
 
         // Delete all tasks from current week onwards (preserve history)
-        List<CleaningTask> allTasks = cleaningTaskRepository.findByWg(wg);
-        for (CleaningTask task : allTasks) {
-            if (!task.getWeekStartDate().isBefore(currentWeekStart)) {
-                cleaningTaskRepository.delete(task);
-            }
-        }
+        cleaningTaskRepository.deleteByWgFromWeek(wg, currentWeekStart);
 
         // Reset all queues with current members and fresh starting positions
         List<RoomAssignmentQueue> queues = queueRepository.findByWg(wg);
         int offset = 0;
         for (RoomAssignmentQueue queue : queues) {
             queue.initializeQueue(currentMembers, offset);
-            queueRepository.save(queue);
             offset++;
         }
+        queueRepository.saveAll(queues);
 
-        // Regenerate tasks for current week from templates
+        // Regenerate tasks for the current and upcoming weeks from templates
         if (hasTemplate && generateFromTemplateFn != null) {
-            generateFromTemplateFn.accept(wg, currentWeekStart);
-        }
-    }
-
-    @Transactional
-    public void reassignTasksFromDepartedMember(WG wg, Long departedUserId) {
-        LocalDate currentWeekStart = getCurrentWeekStart();
-        List<User> currentMembers = wg.getMitbewohner();
-
-        // Find all incomplete tasks assigned to the departed user
-        List<CleaningTask> tasks = cleaningTaskRepository.findByWg(wg);
-        for (CleaningTask task : tasks) {
-            // Only reassign incomplete tasks from current week onwards
-            if (!task.isCompleted() && task.getAssignee().getId().equals(departedUserId)
-                    && !task.getWeekStartDate().isBefore(currentWeekStart)) {
-
-                // Get the queue for this room and find the next available assignee
-                List<RoomAssignmentQueue> queues = queueRepository.findByWgAndRoom(wg, task.getRoom());
-                if (!queues.isEmpty() && !currentMembers.isEmpty()) {
-                    RoomAssignmentQueue queue = queues.get(0);
-                    User newAssignee = queueManagementService.getNextAssigneeFromQueue(queue, currentMembers);
-                    if (newAssignee != null) {
-                        task.setAssignee(newAssignee);
-                        cleaningTaskRepository.save(task);
-                    }
-                }
-            }
+            generateFromTemplateFn.accept(wg);
         }
+        publishChanged(wg);
     }
 
     @Transactional
@@ -220,4 +201,8 @@ public class CleaningTaskAssignmentService {
 
         return userRepository.findById(nextId).orElse(null);
     }
+
+    private void publishChanged(WG wg) {
+        eventPublisher.publishEvent(new CleaningScheduleChangedEvent(wg.getId()));
+    }
 }
@@ -0,0 +1,64 @@
+package com.group_2.service.cleaning;
+
+import com.group_2.repository.cleaning.CleaningTaskTemplateRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Generates the template tasks of the current and the upcoming weeks for every
+ * WG with a template, so the cleaning calendar only reads. Template and
+ * membership changes generate the same range right away, this job moves it
+ * forward as the weeks pass.
+ *
+ * Each WG is generated in its own transaction, a failing WG does not stop
+ * the others.
+ */
+@Component
+public class CleaningTaskGenerationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CleaningTaskGenerationJob.class);
+
+    private final CleaningTaskTemplateRepository templateRepository;
+    private final CleaningScheduleService cleaningScheduleService;
+
+    @Autowired
+    public CleaningTaskGenerationJob(CleaningTaskTemplateRepository templateRepository,
+            CleaningScheduleService cleaningScheduleService) {
+        this.templateRepository = templateRepository;
+        this.cleaningScheduleService = cleaningScheduleService;
+    }
+
+    // Runs at 03:00 every Monday, when a new week starts
+    @Scheduled(cron = "${cleaning.generation.cron:0 0 3 * * MON}")
+    public void generateScheduled() {
+        generateUpcomingWeeks();
+    }
+
+    // Also on startup, the app is rarely running at the scheduled time
+    @EventListener(ApplicationReadyEvent.class)
+    public void generateOnStartup() {
+        generateUpcomingWeeks();
+    }
+
+    // Returns the number of generated tasks
+    public int generateUpcomingWeeks() {
+        int generated = 0;
+        for (Long wgId : templateRepository.findWgIdsWithTemplates()) {
+            try {
+                generated += cleaningScheduleService.generateUpcomingWeeks(wgId).size();
+            } catch (RuntimeException e) {
+                log.error("Failed to generate cleaning tasks for WG {}: {}", wgId, e.getMessage());
+            }
+        }
+        if (generated > 0) {
+            log.info("Generated {} cleaning tasks for the upcoming weeks", generated);
+        }
+        return generated;
+    }
+}
@@ -2,6 +2,7 @@ package com.group_2.service.cleaning;
 
 import com.group_2.dto.cleaning.CleaningMapper;
 import com.group_2.dto.cleaning.CleaningTaskDTO;
+import com.group_2.model.WG;
 import com.group_2.model.cleaning.CleaningTask;
 import com.group_2.model.cleaning.CleaningTaskTemplate;
 import com.group_2.model.cleaning.Room;
@@ -10,12 +11,15 @@ import com.group_2.repository.cleaning.CleaningTaskTemplateRepository;
 import com.group_2.repository.cleaning.RoomAssignmentQueueRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 // Service for task lifecycle operations (status changes, rescheduling, deletion)
@@ -26,21 +30,25 @@ public class CleaningTaskLifecycleService {
     private final CleaningTaskTemplateRepository templateRepository;
     private final RoomAssignmentQueueRepository queueRepository;
     private final CleaningMapper cleaningMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public CleaningTaskLifecycleService(CleaningTaskRepository cleaningTaskRepository,
             CleaningTaskTemplateRepository templateRepository, RoomAssignmentQueueRepository queueRepository,
-            CleaningMapper cleaningMapper) {
+            CleaningMapper cleaningMapper, ApplicationEventPublisher eventPublisher) {
         this.cleaningTaskRepository = cleaningTaskRepository;
         this.templateRepository = templateRepository;
         this.queueRepository = queueRepository;
         this.cleaningMapper = cleaningMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
     public CleaningTask markTaskComplete(CleaningTask task) {
         task.markComplete();
-        return cleaningTaskRepository.save(task);
+        CleaningTask saved = cleaningTaskRepository.save(task);
+        publishChanged(task.getWg());
+        return saved;
     }
 
     @Transactional
@@ -54,7 +62,9 @@ public class CleaningTaskLifecycleService {
     @Transactional
     public CleaningTask markTaskIncomplete(CleaningTask task) {
         task.markIncomplete();
-        return cleaningTaskRepository.save(task);
+        CleaningTask saved = cleaningTaskRepository.save(task);
+        publishChanged(task.getWg());
+        return saved;
     }
 
     @Transactional
@@ -72,7 +82,9 @@ public class CleaningTaskLifecycleService {
         }
         task.setDueDate(newDueDate);
         task.setManualOverride(true);
-        return cleaningTaskRepository.save(task);
+        CleaningTask saved = cleaningTaskRepository.save(task);
+        publishChanged(task.getWg());
+        return saved;
     }
 
     @Transactional
@@ -90,13 +102,14 @@ public class CleaningTaskLifecycleService {
     @Transactional
     public void deleteTask(CleaningTask task) {
         cleaningTaskRepository.delete(task);
+        publishChanged(task.getWg());
     }
 
     @Transactional
     public void deleteTask(Long taskId) {
         CleaningTask task = cleaningTaskRepository.findById(taskId)
                 .orElseThrow(() -> new IllegalArgumentException("Task not found"));
-        cleaningTaskRepository.delete(task);
+        deleteTask(task);
     }
 
     // Must be called before deleting room itself
@@ -114,5 +127,14 @@ public class CleaningTaskLifecycleService {
 
         // Delete all queues for this room
         queueRepository.deleteByRoom(room);
+
+        Set<WG> changedWgs = new HashSet<>();
+        tasks.forEach(task -> changedWgs.add(task.getWg()));
+        templates.forEach(template -> changedWgs.add(template.getWg()));
+        changedWgs.forEach(this::publishChanged);
+    }
+
+    private void publishChanged(WG wg) {
+        eventPublisher.publishEvent(new CleaningScheduleChangedEvent(wg.getId()));
     }
 }
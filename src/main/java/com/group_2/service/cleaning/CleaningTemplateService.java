@@ -16,6 +16,7 @@ import com.group_2.repository.cleaning.RoomRepository;
 import com.group_2.util.MonthlyScheduleUtil;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,7 +25,9 @@ import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 // Service for cleaning task templates (CRUD, sync, recurrence calculations)
 @Service
@@ -35,16 +38,18 @@ public class CleaningTemplateService {
     private final RoomAssignmentQueueRepository queueRepository;
     private final RoomRepository roomRepository;
     private final CleaningMapper cleaningMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public CleaningTemplateService(CleaningTaskRepository cleaningTaskRepository,
             CleaningTaskTemplateRepository templateRepository, RoomAssignmentQueueRepository queueRepository,
-            RoomRepository roomRepository, CleaningMapper cleaningMapper) {
+            RoomRepository roomRepository, CleaningMapper cleaningMapper, ApplicationEventPublisher eventPublisher) {
         this.cleaningTaskRepository = cleaningTaskRepository;
         this.templateRepository = templateRepository;
         this.queueRepository = queueRepository;
         this.roomRepository = roomRepository;
         this.cleaningMapper = cleaningMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     private LocalDate getCurrentWeekStart() {
@@ -92,6 +97,7 @@ public class CleaningTemplateService {
             offset++;
         }
 
+        publishChanged(wg);
         return templates;
     }
 
@@ -113,6 +119,7 @@ public class CleaningTemplateService {
         RoomAssignmentQueue queue = new RoomAssignmentQueue(room, wg, members, offset);
         queueRepository.save(queue);
 
+        publishChanged(wg);
         return template;
     }
 
@@ -130,26 +137,14 @@ public class CleaningTemplateService {
         return cleaningMapper.toTemplateDTO(template);
     }
 
+    // The tasks are moved by syncTasksWithTemplates, see
+    // CleaningScheduleService.updateTemplate
     @Transactional
     public CleaningTaskTemplate updateTemplate(CleaningTaskTemplate template, DayOfWeek newDay,
             RecurrenceInterval newInterval) {
-        LocalDate currentWeekStart = getCurrentWeekStart();
-
         template.setDayOfWeek(newDay);
         template.setRecurrenceInterval(newInterval);
-        template.setBaseWeekStart(currentWeekStart);
-
-        // Update due dates for current and future tasks (preserve manual task dates)
-        List<CleaningTask> tasks = cleaningTaskRepository.findByWgAndRoom(template.getWg(), template.getRoom());
-        for (CleaningTask task : tasks) {
-            if (!task.getWeekStartDate().isBefore(currentWeekStart) && !task.isManualOverride()) {
-                LocalDate newDueDate = resolveDueDateForWeek(template, task.getWeekStartDate());
-                if (newDueDate != null) {
-                    task.setDueDate(newDueDate);
-                    cleaningTaskRepository.save(task);
-                }
-            }
-        }
+        template.setBaseWeekStart(getCurrentWeekStart());
         return templateRepository.save(template);
     }
 
@@ -167,6 +162,7 @@ public class CleaningTemplateService {
 
         queueRepository.deleteByRoom(template.getRoom());
         templateRepository.delete(template);
+        publishChanged(template.getWg());
     }
 
     @Transactional
@@ -183,6 +179,7 @@ public class CleaningTemplateService {
 
         queueRepository.deleteByWg(wg);
         templateRepository.deleteByWg(wg);
+        publishChanged(wg);
     }
 
     // ========== Recurrence Calculation Methods ==========
@@ -225,6 +222,11 @@ public class CleaningTemplateService {
         return null;
     }
 
+    // Day of month a MONTHLY template is due on, before clamping to short months
+    public int getMonthlyDueDay(CleaningTaskTemplate template) {
+        return getTemplateBaseDueDate(template).getDayOfMonth();
+    }
+
     private LocalDate resolveMonthlyDueDateForMonth(LocalDate monthAnchor, int preferredDay) {
         int effectiveDay = MonthlyScheduleUtil.getEffectiveDay(monthAnchor, preferredDay);
         return monthAnchor.withDayOfMonth(effectiveDay);
@@ -238,63 +240,42 @@ public class CleaningTemplateService {
 
     // ========== Template Sync Methods ==========
 
+    // Brings the template tasks from the current week up to lastWeekStart in
+    // line with the templates: tasks of rooms without a template or of weeks
+    // their template no longer covers are deleted, the others move to the
+    // template's due date. Manual tasks are kept. Missing tasks are left to the
+    // task generation.
     @Transactional
-    public void syncCurrentWeekWithTemplate(WG wg, QueueManagementService queueManagementService) {
-        LocalDate weekStart = getCurrentWeekStart();
-        List<CleaningTask> existingTasks = cleaningTaskRepository.findByWgAndWeekStartDate(wg, weekStart);
-        List<CleaningTaskTemplate> templates = templateRepository.findByWg(wg);
-
-        // Track which rooms are in templates
-        List<Long> roomIdsInTemplates = new ArrayList<>();
-        for (CleaningTaskTemplate t : templates) {
-            roomIdsInTemplates.add(t.getRoom().getId());
-        }
-
-        // Delete tasks for rooms no longer in template
-        for (CleaningTask task : new ArrayList<>(existingTasks)) {
-            if (!roomIdsInTemplates.contains(task.getRoom().getId()) && !task.isManualOverride()) {
-                cleaningTaskRepository.delete(task);
-                existingTasks.remove(task);
-            }
+    public void syncTasksWithTemplates(WG wg, LocalDate lastWeekStart) {
+        Map<Long, CleaningTaskTemplate> templatesByRoomId = new HashMap<>();
+        for (CleaningTaskTemplate template : templateRepository.findByWg(wg)) {
+            templatesByRoomId.putIfAbsent(template.getRoom().getId(), template);
         }
 
-        // Update or create tasks from templates
-        List<User> members = wg.getMitbewohner();
-        for (CleaningTaskTemplate template : templates) {
-            if (!shouldGenerateTaskThisWeek(template, weekStart)) {
-                existingTasks.stream()
-                        .filter(t -> t.getRoom().getId().equals(template.getRoom().getId()) && !t.isManualOverride())
-                        .findFirst().ifPresent(task -> {
-                            cleaningTaskRepository.delete(task);
-                            existingTasks.remove(task);
-                        });
+        List<CleaningTask> obsoleteTasks = new ArrayList<>();
+        List<CleaningTask> movedTasks = new ArrayList<>();
+        for (CleaningTask task : cleaningTaskRepository.findByWgAndWeekStartDateBetween(wg, getCurrentWeekStart(),
+                lastWeekStart)) {
+            if (task.isManualOverride()) {
                 continue;
             }
-
-            var existing = existingTasks.stream().filter(t -> t.getRoom().getId().equals(template.getRoom().getId()))
-                    .findFirst();
-
-            if (existing.isPresent()) {
-                CleaningTask task = existing.get();
-                if (!task.isManualOverride()) {
-                    LocalDate correctDueDate = resolveDueDateForWeek(template, weekStart);
-                    if (correctDueDate != null) {
-                        task.setDueDate(correctDueDate);
-                        cleaningTaskRepository.save(task);
-                    }
-                }
-            } else {
-                RoomAssignmentQueue queue = queueManagementService.getOrCreateQueueForRoom(wg, template.getRoom(),
-                        members);
-                User assignee = queueManagementService.getNextAssigneeFromQueue(queue, members);
-                if (assignee != null) {
-                    LocalDate dueDate = resolveDueDateForWeek(template, weekStart);
-                    if (dueDate != null) {
-                        CleaningTask task = new CleaningTask(template.getRoom(), assignee, wg, weekStart, dueDate);
-                        cleaningTaskRepository.save(task);
-                    }
-                }
+            CleaningTaskTemplate template = templatesByRoomId.get(task.getRoom().getId());
+            LocalDate dueDate = template != null && shouldGenerateTaskThisWeek(template, task.getWeekStartDate())
+                    ? resolveDueDateForWeek(template, task.getWeekStartDate())
+                    : null;
+            if (dueDate == null) {
+                obsoleteTasks.add(task);
+            } else if (!dueDate.equals(task.getDueDate())) {
+                task.setDueDate(dueDate);
+                movedTasks.add(task);
             }
         }
+        cleaningTaskRepository.deleteAll(obsoleteTasks);
+        cleaningTaskRepository.saveAll(movedTasks);
+        publishChanged(wg);
+    }
+
+    private void publishChanged(WG wg) {
+        eventPublisher.publishEvent(new CleaningScheduleChangedEvent(wg.getId()));
     }
 }
@@ -0,0 +1,90 @@
+package com.group_2.service.cleaning;
+
+import com.group_2.dto.cleaning.CleaningTaskDTO;
+import com.group_2.dto.cleaning.WeekStatsDTO;
+import com.group_2.util.WgScopedCache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of the cleaning calendar per WG and week, so one refresh of
+ * the calendar, the room cards and the week statistics reads the week once.
+ * Holds at most maxSize weeks and evicts the least recently used one.
+ *
+ * All weeks of a WG are dropped when a CleaningScheduleChangedEvent for it is
+ * committed, since a template change reaches every week. Reads inside a
+ * transaction and loads overlapping an invalidation are handled by
+ * WgScopedCache.
+ */
+@Component
+public class CleaningWeekCache {
+
+    // Tasks of one WG week with the statistics the calendar shows for it
+    public static final class WeekSnapshot {
+        private final List<CleaningTaskDTO> tasks;
+        private final int completedTasks;
+        private final Map<Long, Integer> tasksByAssignee = new HashMap<>();
+
+        WeekSnapshot(List<CleaningTaskDTO> tasks) {
+            this.tasks = List.copyOf(tasks);
+            int completed = 0;
+            for (CleaningTaskDTO task : this.tasks) {
+                if (task.completed()) {
+                    completed++;
+                }
+                if (task.assigneeId() != null) {
+                    tasksByAssignee.merge(task.assigneeId(), 1, Integer::sum);
+                }
+            }
+            this.completedTasks = completed;
+        }
+
+        public List<CleaningTaskDTO> tasks() {
+            return tasks;
+        }
+
+        public WeekStatsDTO statsFor(Long userId) {
+            return new WeekStatsDTO(tasks.size(), completedTasks, tasksByAssignee.getOrDefault(userId, 0));
+        }
+    }
+
+    private record WeekKey(Long wgId, LocalDate weekStart) {
+    }
+
+    private final WgScopedCache<WeekKey, WeekSnapshot> cache;
+
+    public CleaningWeekCache(@Value("${cleaning.week-cache.max-size:200}") int maxSize) {
+        this.cache = new WgScopedCache<>(maxSize, WeekKey::wgId);
+    }
+
+    public WeekSnapshot get(Long wgId, LocalDate weekStart, Supplier<List<CleaningTaskDTO>> loader) {
+        return cache.get(new WeekKey(wgId, weekStart), () -> new WeekSnapshot(loader.get()));
+    }
+
+    // Number of WGs with a load in progress
+    int getRunningLoadCount() {
+        return cache.getRunningLoadCount();
+    }
+
+    // Runs immediately when published outside of a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(CleaningScheduleChangedEvent event) {
+        invalidate(event.wgId());
+    }
+
+    public void invalidate(Long wgId) {
+        cache.invalidate(wgId);
+    }
+
+    public WgScopedCache.Stats getStats() {
+        return cache.getStats();
+    }
+}
@@ -8,24 +8,47 @@ import com.group_2.repository.UserRepository;
 import com.group_2.repository.cleaning.RoomAssignmentQueueRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
-
-// Service for round-robin room assignment queues
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Service for round-robin room assignment queues. Reading a queue for update
+// or rotating it takes the RoomQueueLocks lock of its room for the rest of the
+// transaction.
 @Service
 public class QueueManagementService {
 
     private final RoomAssignmentQueueRepository queueRepository;
     private final UserRepository userRepository;
+    private final RoomQueueLocks queueLocks;
+    private final TransactionTemplate queueTransaction;
+    private final int maxAttempts;
 
     @Autowired
-    public QueueManagementService(RoomAssignmentQueueRepository queueRepository, UserRepository userRepository) {
+    public QueueManagementService(RoomAssignmentQueueRepository queueRepository, UserRepository userRepository,
+            RoomQueueLocks queueLocks, PlatformTransactionManager transactionManager,
+            @Value("${cleaning.queue.max-attempts:5}") int maxAttempts) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Max attempts must be positive");
+        }
         this.queueRepository = queueRepository;
         this.userRepository = userRepository;
+        this.queueLocks = queueLocks;
+        this.queueTransaction = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
     }
 
     public User getNextAssigneeFromQueue(RoomAssignmentQueue queue, List<User> currentMembers) {
@@ -53,9 +76,41 @@ public class QueueManagementService {
         return userRepository.findById(nextId).orElse(null);
     }
 
+    // Same choice as getNextAssigneeFromQueue for callers that save the queue
+    // themselves: a queue naming a departed member is synced but not saved
+    public User peekNextAssignee(RoomAssignmentQueue queue, List<User> currentMembers) {
+        Long nextId = queue.getNextAssigneeId();
+        if (nextId == null) {
+            return currentMembers.isEmpty() ? null : currentMembers.get(0);
+        }
+
+        User next = findMember(currentMembers, nextId);
+        if (next == null) {
+            syncQueueWithMembers(queue, currentMembers);
+            nextId = queue.getNextAssigneeId();
+            next = nextId != null ? findMember(currentMembers, nextId) : null;
+        }
+        return next;
+    }
+
+    // Queues of all WG rooms by room id, locked for the rest of the transaction.
+    // The rooms in roomIds are locked even without a queue, so a caller that
+    // creates their queues cannot race another one doing the same.
+    @Transactional
+    public Map<Long, RoomAssignmentQueue> getQueuesForUpdate(WG wg, Collection<Long> roomIds) {
+        queueLocks.lockAllUntilCompletion(wg.getId(), roomIds);
+        Map<Long, RoomAssignmentQueue> queuesByRoomId = new HashMap<>();
+        for (RoomAssignmentQueue queue : queueRepository.findByWgForUpdate(wg)) {
+            queuesByRoomId.putIfAbsent(queue.getRoom().getId(), queue);
+        }
+        return queuesByRoomId;
+    }
+
     @Transactional
     public RoomAssignmentQueue getOrCreateQueueForRoom(WG wg, Room room, List<User> members) {
-        // Use pessimistic lock to prevent concurrent queue rotation issues
+        // The in-process lock also covers the queue that does not exist yet,
+        // the row lock guards against other processes
+        queueLocks.lockUntilCompletion(wg.getId(), room.getId());
         List<RoomAssignmentQueue> queues = queueRepository.findByWgAndRoomForUpdate(wg, room);
         if (!queues.isEmpty()) {
             return queues.get(0);
@@ -69,24 +124,18 @@ public class QueueManagementService {
 
     // New members added at end of queue (after all current members)
     public void syncQueueWithMembers(RoomAssignmentQueue queue, List<User> currentMembers) {
-        List<Long> queueIds = queue.getMemberIds();
-        List<Long> currentIds = new ArrayList<>();
+        Set<Long> currentIds = new HashSet<>();
         for (User m : currentMembers) {
             currentIds.add(m.getId());
         }
 
         // Remove departed members
-        queueIds.removeIf(id -> !currentIds.contains(id));
+        queue.removeMembersIf(id -> !currentIds.contains(id));
 
         // Add new members at the end of the queue (end of current cycle)
-        for (Long id : currentIds) {
-            if (!queueIds.contains(id)) {
-                queueIds.add(id);
-            }
+        for (User m : currentMembers) {
+            queue.addMember(m);
         }
-
-        // Update the queue
-        queue.setMemberQueueOrder(queueIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
     }
 
     // Call when members join or leave WG
@@ -112,12 +161,22 @@ public class QueueManagementService {
         return getNextAssigneeFromQueue(queue, members);
     }
 
+    // A queue read before the lock was taken may be stale, its save then fails
+    // with an optimistic lock exception; runWithRetry retries that case
     @Transactional
     public void advanceQueue(RoomAssignmentQueue queue) {
+        queueLocks.lockUntilCompletion(queue.getWg().getId(), queue.getRoom().getId());
         queue.rotate();
         queueRepository.save(queue);
     }
 
+    // Saves new queues and flushes changed ones together, e.g. after a batch
+    // of rotations in memory
+    @Transactional
+    public void saveQueues(Collection<RoomAssignmentQueue> queues) {
+        queueRepository.saveAll(queues);
+    }
+
     @Transactional
     public void deleteQueuesForRoom(Room room) {
         queueRepository.deleteByRoom(room);
@@ -127,4 +186,44 @@ public class QueueManagementService {
     public void deleteQueuesForWg(WG wg) {
         queueRepository.deleteByWg(wg);
     }
+
+    // Runs work that reads queues for update, e.g. the task generation, in its
+    // own transaction and retries it up to cleaning.queue.max-attempts times
+    // (default 5) on optimistic lock conflicts and lock timeouts. Inside a
+    // transaction the work runs once: only the caller that started the
+    // transaction can retry it.
+    public <T> T runWithRetry(Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        for (int attempt = 1;; attempt++) {
+            try {
+                return queueTransaction.execute(status -> work.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    // Random wait growing with the attempt, so retrying callers spread out
+    private static void backOff(int attempt, ConcurrencyFailureException cause) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 10L * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    private static User findMember(List<User> members, Long userId) {
+        for (User member : members) {
+            if (member.getId().equals(userId)) {
+                return member;
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,105 @@
+package com.group_2.service.cleaning;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process locks for the round-robin queues, striped by (WG, room): two
+ * rotations of the same queue run one after another, queues of other rooms
+ * are not blocked. Unrelated rooms only wait for each other if they hash to
+ * the same stripe; with the default 64 stripes two given rooms share one with
+ * a probability of 1/64.
+ *
+ * A lock is held until the current transaction completes, so the next holder
+ * reads the committed queue, and a queue created for a room without one is
+ * visible to the next caller instead of being created twice. The row lock of
+ * RoomAssignmentQueueRepository.findByWgAndRoomForUpdate still guards against
+ * other processes on the same database.
+ *
+ * Waiting is bounded by cleaning.queue.lock-timeout-ms (default 10 s) and ends
+ * with a CannotAcquireLockException, which also breaks lock cycles between
+ * transactions that lock rooms one at a time.
+ */
+@Component
+public class RoomQueueLocks {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+
+    @Autowired
+    public RoomQueueLocks(@Value("${cleaning.queue.lock-stripes:64}") int stripeCount,
+            @Value("${cleaning.queue.lock-timeout-ms:10000}") long timeoutMillis) {
+        if (stripeCount <= 0 || timeoutMillis < 0) {
+            throw new IllegalArgumentException("Stripe count must be positive and timeout not negative");
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    // Locks the queue of one room until the current transaction completes
+    public void lockUntilCompletion(Long wgId, Long roomId) {
+        acquireUntilCompletion(stripeIndex(wgId, roomId));
+    }
+
+    // Locks the queues of several rooms in stripe order, so two callers locking
+    // overlapping sets never wait for each other in a cycle
+    public void lockAllUntilCompletion(Long wgId, Collection<Long> roomIds) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Long roomId : roomIds) {
+            indexes.add(stripeIndex(wgId, roomId));
+        }
+        for (int index : indexes) {
+            acquireUntilCompletion(index);
+        }
+    }
+
+    // Both ids go through the 64-bit finalizer of murmur3 (fmix64), so the
+    // consecutive room ids of one WG spread evenly over the stripes
+    int stripeIndex(Long wgId, Long roomId) {
+        long hash = mix64(mix64(wgId) ^ roomId);
+        return (int) Long.remainderUnsigned(hash, stripes.length);
+    }
+
+    private static long mix64(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private void acquireUntilCompletion(int index) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Queue locks can only be taken inside a transaction");
+        }
+        ReentrantLock lock = stripes[index];
+        try {
+            if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new CannotAcquireLockException("Timed out waiting for a room assignment queue lock");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotAcquireLockException("Interrupted while waiting for a room assignment queue lock", e);
+        }
+        // Runs on the thread that took the lock, also after a rollback
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
@@ -55,6 +55,15 @@ public class RoomService {
         return roomRepository.save(room);
     }
 
+    // Effort of the room for balanced assignment, see Room.getCleaningWeight
+    @Transactional
+    public Room updateRoomWeight(Long id, int cleaningWeight) {
+        Room room = roomRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Room not found with id: " + id));
+        room.setCleaningWeight(cleaningWeight);
+        return roomRepository.save(room);
+    }
+
     @Transactional
     public void deleteRoom(Long id) {
         roomRepository.deleteById(id);
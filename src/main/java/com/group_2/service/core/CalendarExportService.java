@@ -0,0 +1,338 @@
+package com.group_2.service.core;
+
+import com.group_2.dto.cleaning.CleaningTaskEventDTO;
+import com.group_2.model.User;
+import com.group_2.model.WG;
+import com.group_2.model.cleaning.CleaningTaskTemplate;
+import com.group_2.model.cleaning.RecurrenceInterval;
+import com.group_2.model.finance.StandingOrder;
+import com.group_2.model.finance.StandingOrderExecution;
+import com.group_2.repository.UserRepository;
+import com.group_2.repository.WGRepository;
+import com.group_2.repository.cleaning.CleaningTaskRepository;
+import com.group_2.repository.cleaning.CleaningTaskTemplateRepository;
+import com.group_2.repository.finance.StandingOrderExecutionRepository;
+import com.group_2.repository.finance.StandingOrderRepository;
+import com.group_2.service.cleaning.CleaningTemplateService;
+import com.group_2.util.FormatUtils;
+import com.group_2.util.IcsWriter;
+import com.group_2.util.MoneyUtils;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Exports the cleaning schedule and the standing orders of a WG or a user as
+ * an iCalendar (RFC 5545) file that calendar apps can import or subscribe
+ * to. Tasks and booked standing order executions are streamed from the
+ * database and written event by event, the document is never held in memory.
+ *
+ * Generated cleaning tasks and booked executions become single all-day
+ * events. Recurrence is written as RRULE instead of being expanded: active
+ * standing orders from their next execution on, and (in the WG export) the
+ * cleaning templates from the first week after the generated schedule, where
+ * the assignee is not known yet. Every event has a UID derived from the
+ * database id, so clients update events instead of duplicating them, and a
+ * SEQUENCE from the entity's version, so they take the changed event over the
+ * one they have.
+ *
+ * Monthly rules on day 29 to 31 and on the last day use the last existing day
+ * of the month; the app itself uses the 28th in every February, so leap-year
+ * Februaries differ by one day.
+ */
+@Service
+public class CalendarExportService {
+
+    private static final String PRODUCT_ID = "-//group_2//WG Manager//EN";
+    private static final String UID_DOMAIN = "@wg-manager.group-2";
+    private static final DateTimeFormatter UID_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    // Long enough to find the first occurrence of any template interval
+    private static final int TEMPLATE_SEARCH_WEEKS = 8;
+
+    private final WGRepository wgRepository;
+    private final UserRepository userRepository;
+    private final CleaningTaskRepository cleaningTaskRepository;
+    private final CleaningTaskTemplateRepository templateRepository;
+    private final CleaningTemplateService templateService;
+    private final StandingOrderRepository standingOrderRepository;
+    private final StandingOrderExecutionRepository executionRepository;
+
+    @Autowired
+    public CalendarExportService(WGRepository wgRepository, UserRepository userRepository,
+            CleaningTaskRepository cleaningTaskRepository, CleaningTaskTemplateRepository templateRepository,
+            CleaningTemplateService templateService, StandingOrderRepository standingOrderRepository,
+            StandingOrderExecutionRepository executionRepository) {
+        this.wgRepository = wgRepository;
+        this.userRepository = userRepository;
+        this.cleaningTaskRepository = cleaningTaskRepository;
+        this.templateRepository = templateRepository;
+        this.templateService = templateService;
+        this.standingOrderRepository = standingOrderRepository;
+        this.executionRepository = executionRepository;
+    }
+
+    // All cleaning tasks, templates and standing orders of the WG. Writes
+    // UTF-8 and flushes, the stream is not closed.
+    @Transactional(readOnly = true)
+    public void exportWg(Long wgId, OutputStream output) throws IOException {
+        if (wgId == null) {
+            throw new IllegalArgumentException("WG ID is required");
+        }
+        WG wg = wgRepository.findById(wgId).orElseThrow(() -> new IllegalArgumentException("WG not found"));
+        Map<Long, StandingOrder> orders = ordersById(standingOrderRepository.findByWg(wg), null);
+
+        Writer writer = writerFor(output);
+        IcsWriter ics = new IcsWriter(writer);
+        Instant stamp = Instant.now();
+        beginCalendar(ics, wg.getName());
+        try (Stream<CleaningTaskEventDTO> tasks = cleaningTaskRepository.streamEventsByWgId(wgId)) {
+            writeEach(tasks, task -> writeTask(ics, task, true, stamp));
+        }
+        writeTemplates(ics, wg, stamp);
+        writeStandingOrders(ics, wgId, orders, stamp);
+        ics.end("VCALENDAR");
+        writer.flush();
+    }
+
+    // The user's cleaning tasks and the standing orders they pay into or
+    // receive from. Writes UTF-8 and flushes, the stream is not closed.
+    @Transactional(readOnly = true)
+    public void exportUser(Long userId, OutputStream output) throws IOException {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+        User user = userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found"));
+        WG wg = user.getWg();
+        Map<Long, StandingOrder> orders = wg != null ? ordersById(standingOrderRepository.findByWg(wg), userId)
+                : Map.of();
+
+        Writer writer = writerFor(output);
+        IcsWriter ics = new IcsWriter(writer);
+        Instant stamp = Instant.now();
+        beginCalendar(ics, displayName(user));
+        try (Stream<CleaningTaskEventDTO> tasks = cleaningTaskRepository.streamEventsByAssigneeId(userId)) {
+            writeEach(tasks, task -> writeTask(ics, task, false, stamp));
+        }
+        if (wg != null) {
+            writeStandingOrders(ics, wg.getId(), orders, stamp);
+        }
+        ics.end("VCALENDAR");
+        writer.flush();
+    }
+
+    private Writer writerFor(OutputStream output) {
+        return new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    }
+
+    private void beginCalendar(IcsWriter ics, String name) throws IOException {
+        ics.begin("VCALENDAR")
+                .raw("VERSION", "2.0")
+                .raw("PRODID", PRODUCT_ID)
+                .raw("CALSCALE", "GREGORIAN")
+                .raw("METHOD", "PUBLISH")
+                .text("X-WR-CALNAME", name);
+    }
+
+    private void writeTask(IcsWriter ics, CleaningTaskEventDTO task, boolean withAssignee, Instant stamp)
+            throws IOException {
+        String summary = "Cleaning: " + task.roomName();
+        if (withAssignee) {
+            summary += " (" + task.getAssigneeDisplayName() + ")";
+        }
+        String description = "Assigned to " + task.getAssigneeDisplayName();
+        if (task.isCompleted()) {
+            description += task.completedAt() != null
+                    ? "\nCompleted on " + FormatUtils.formatDate(task.completedAt().toLocalDate())
+                    : "\nCompleted";
+        }
+        beginEvent(ics, "cleaning-task-" + task.id(), stamp, task.getEffectiveDueDate());
+        writeSequence(ics, task.version());
+        ics.text("SUMMARY", summary)
+                .text("DESCRIPTION", description)
+                .end("VEVENT");
+    }
+
+    // Recurring template events start in the first week without generated
+    // tasks, so they never duplicate a task event
+    private void writeTemplates(IcsWriter ics, WG wg, Instant stamp) throws IOException {
+        LocalDate currentWeekStart = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate lastGeneratedWeek = cleaningTaskRepository.findLastGeneratedWeek(wg.getId());
+        LocalDate firstWeek = lastGeneratedWeek != null && !lastGeneratedWeek.isBefore(currentWeekStart)
+                ? lastGeneratedWeek.plusWeeks(1)
+                : currentWeekStart;
+
+        for (CleaningTaskTemplate template : templateRepository.findByWg(wg)) {
+            LocalDate start = firstDueDate(template, firstWeek);
+            if (start == null) {
+                continue;
+            }
+            beginEvent(ics, "cleaning-template-" + template.getId(), stamp, start);
+            writeSequence(ics, template.getVersion());
+            ics.raw("RRULE", templateRule(template))
+                    .text("SUMMARY", "Cleaning: " + template.getRoom().getName())
+                    .text("DESCRIPTION", "Assigned when the schedule is generated")
+                    .end("VEVENT");
+        }
+    }
+
+    private LocalDate firstDueDate(CleaningTaskTemplate template, LocalDate firstWeek) {
+        for (int i = 0; i < TEMPLATE_SEARCH_WEEKS; i++) {
+            LocalDate weekStart = firstWeek.plusWeeks(i);
+            if (templateService.shouldGenerateTaskThisWeek(template, weekStart)) {
+                LocalDate dueDate = templateService.resolveDueDateForWeek(template, weekStart);
+                if (dueDate != null) {
+                    return dueDate;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String templateRule(CleaningTaskTemplate template) {
+        RecurrenceInterval interval = template.getRecurrenceInterval();
+        if (interval == RecurrenceInterval.MONTHLY) {
+            return monthlyRule(templateService.getMonthlyDueDay(template));
+        }
+        return interval.getWeeks() == 1 ? "FREQ=WEEKLY" : "FREQ=WEEKLY;INTERVAL=" + interval.getWeeks();
+    }
+
+    // Booked executions as single events, active orders as a series from the
+    // next execution on
+    private void writeStandingOrders(IcsWriter ics, Long wgId, Map<Long, StandingOrder> orders, Instant stamp)
+            throws IOException {
+        if (orders.isEmpty()) {
+            return;
+        }
+        try (Stream<StandingOrderExecution> executions = executionRepository.streamByWgIdOrderByDueDate(wgId)) {
+            writeEach(executions, execution -> {
+                StandingOrder order = orders.get(execution.getStandingOrderId());
+                if (order != null) {
+                    beginEvent(ics, "standing-order-" + order.getId() + "-" + UID_DATE.format(execution.getDueDate()),
+                            stamp, execution.getDueDate());
+                    writeOrderText(ics, order);
+                    ics.end("VEVENT");
+                }
+            });
+        }
+
+        for (StandingOrder order : orders.values()) {
+            if (!Boolean.TRUE.equals(order.getIsActive()) || order.getNextExecution() == null) {
+                continue;
+            }
+            // Each booked execution moves the series start and raises the version
+            beginEvent(ics, "standing-order-" + order.getId(), stamp, order.getNextExecution());
+            writeSequence(ics, order.getVersion());
+            ics.raw("RRULE", standingOrderRule(order));
+            writeOrderText(ics, order);
+            ics.end("VEVENT");
+        }
+    }
+
+    private void writeOrderText(IcsWriter ics, StandingOrder order) throws IOException {
+        String amount = FormatUtils.formatCurrency(MoneyUtils.toAmount(order.getTotalAmountCents()));
+        ics.text("SUMMARY", "Standing order: " + order.getDescription() + " (" + amount + ")");
+        if (order.getCreditor() != null) {
+            ics.text("DESCRIPTION", "Paid to " + displayName(order.getCreditor()));
+        }
+    }
+
+    private String standingOrderRule(StandingOrder order) {
+        return switch (order.getFrequency()) {
+            case WEEKLY -> "FREQ=WEEKLY";
+            case BI_WEEKLY -> "FREQ=WEEKLY;INTERVAL=2";
+            case MONTHLY -> {
+                if (Boolean.TRUE.equals(order.getMonthlyLastDay())) {
+                    yield monthlyRule(31);
+                }
+                Integer day = order.getMonthlyDay();
+                yield monthlyRule(day != null && day >= 1 && day <= 31 ? day : 1);
+            }
+        };
+    }
+
+    // Day 29 to 31 falls back to the last day of shorter months
+    private static String monthlyRule(int day) {
+        if (day <= 28) {
+            return "FREQ=MONTHLY;BYMONTHDAY=" + day;
+        }
+        StringBuilder days = new StringBuilder("28");
+        for (int d = 29; d <= day; d++) {
+            days.append(',').append(d);
+        }
+        return "FREQ=MONTHLY;BYMONTHDAY=" + days + ";BYSETPOS=-1";
+    }
+
+    // All-day event, transparent so it does not block free/busy time
+    private static void beginEvent(IcsWriter ics, String uid, Instant stamp, LocalDate date) throws IOException {
+        ics.begin("VEVENT")
+                .raw("UID", uid + UID_DOMAIN)
+                .dateTime("DTSTAMP", stamp)
+                .date("DTSTART", date)
+                .raw("TRANSP", "TRANSPARENT");
+    }
+
+    private static void writeSequence(IcsWriter ics, Long version) throws IOException {
+        if (version != null) {
+            ics.raw("SEQUENCE", String.valueOf(version));
+        }
+    }
+
+    // Orders of the WG by id, only those involving the user if userId is set
+    private static Map<Long, StandingOrder> ordersById(List<StandingOrder> orders, Long userId) {
+        Map<Long, StandingOrder> byId = new LinkedHashMap<>();
+        for (StandingOrder order : orders) {
+            boolean involved = userId == null
+                    || (order.getCreditor() != null && userId.equals(order.getCreditor().getId()))
+                    || order.getDebtorIds().contains(userId);
+            if (involved) {
+                byId.put(order.getId(), order);
+            }
+        }
+        return byId;
+    }
+
+    private static String displayName(User user) {
+        String name = user.getName();
+        if (user.getSurname() != null && !user.getSurname().isEmpty()) {
+            name += " " + user.getSurname();
+        }
+        return name;
+    }
+
+    private interface EventWriter<T> {
+        void write(T item) throws IOException;
+    }
+
+    // Stream.forEach cannot throw IOException, it is tunnelled through
+    private static <T> void writeEach(Stream<T> items, EventWriter<T> writer) throws IOException {
+        try {
+            items.forEach(item -> {
+                try {
+                    writer.write(item);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
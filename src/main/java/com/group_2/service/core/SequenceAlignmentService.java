@@ -0,0 +1,43 @@
+package com.group_2.service.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Moves a pooled id sequence past the ids already in its table. Used by the
+ * schema migrations of entities whose ids were assigned by an IDENTITY column
+ * before they switched to a sequence for batched inserts.
+ */
+@Service
+public class SequenceAlignmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(SequenceAlignmentService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SequenceAlignmentService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public void alignWithExistingIds(String table, String sequence, int allocationSize) {
+        Long nextValue = jdbcTemplate.queryForObject(
+                "SELECT MAX(BASE_VALUE) FROM INFORMATION_SCHEMA.SEQUENCES WHERE UPPER(SEQUENCE_NAME) = ?",
+                Long.class, sequence.toUpperCase());
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (nextValue == null || maxId == null) {
+            return;
+        }
+        // A pooled sequence value v hands out the ids v - allocationSize + 1 .. v
+        long restartWith = maxId + allocationSize;
+        if (nextValue < restartWith) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + restartWith);
+            log.info("Moved sequence {} past existing id {} of {}", sequence, maxId, table);
+        }
+    }
+}
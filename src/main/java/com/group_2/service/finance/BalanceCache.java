@@ -0,0 +1,83 @@
+package com.group_2.service.finance;
+
+import com.group_2.dto.finance.PairwiseBalanceDTO;
+import com.group_2.util.WgScopedCache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory cache of the ledger balances per WG, so one screen asking for the
+ * total, the balance sheet and the available credits reads the ledger once.
+ * Holds at most maxSize WGs and evicts the least recently used one.
+ *
+ * An entry is dropped when a BalancesChangedEvent for its WG is committed;
+ * reads inside a transaction and loads overlapping an invalidation are
+ * handled by WgScopedCache.
+ */
+@Component
+public class BalanceCache {
+
+    // Balances of a WG in cents, positive = is owed money
+    public static final class WgBalances {
+        private final Map<Long, Map<Long, Long>> byUser = new HashMap<>();
+        private final Map<Long, Long> net = new HashMap<>();
+
+        WgBalances(List<PairwiseBalanceDTO> pairs) {
+            for (PairwiseBalanceDTO pair : pairs) {
+                byUser.computeIfAbsent(pair.creditorId(), id -> new HashMap<>()).merge(pair.debtorId(),
+                        pair.amountCents(), Long::sum);
+                byUser.computeIfAbsent(pair.debtorId(), id -> new HashMap<>()).merge(pair.creditorId(),
+                        -pair.amountCents(), Long::sum);
+                net.merge(pair.creditorId(), pair.amountCents(), Long::sum);
+                net.merge(pair.debtorId(), -pair.amountCents(), Long::sum);
+            }
+        }
+
+        // Net balance of the user against every counterparty
+        public Map<Long, Long> balancesOf(Long userId) {
+            return Collections.unmodifiableMap(byUser.getOrDefault(userId, Map.of()));
+        }
+
+        // Net balance of every participant against the whole WG
+        public Map<Long, Long> netBalances() {
+            return Collections.unmodifiableMap(net);
+        }
+    }
+
+    private final WgScopedCache<Long, WgBalances> cache;
+
+    public BalanceCache(@Value("${finance.balance-cache.max-size:100}") int maxSize) {
+        this.cache = new WgScopedCache<>(maxSize, wgId -> wgId);
+    }
+
+    public WgBalances get(Long wgId, Function<Long, List<PairwiseBalanceDTO>> loader) {
+        return cache.get(wgId, () -> new WgBalances(loader.apply(wgId)));
+    }
+
+    // Number of WGs with a load in progress
+    int getRunningLoadCount() {
+        return cache.getRunningLoadCount();
+    }
+
+    // Runs immediately when published outside of a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBalancesChanged(BalancesChangedEvent event) {
+        invalidate(event.wgId());
+    }
+
+    public void invalidate(Long wgId) {
+        cache.invalidate(wgId);
+    }
+
+    public WgScopedCache.Stats getStats() {
+        return cache.getStats();
+    }
+}
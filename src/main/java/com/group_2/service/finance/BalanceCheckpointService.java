@@ -0,0 +1,158 @@
+package com.group_2.service.finance;
+
+import com.group_2.dto.finance.PairwiseBalanceDTO;
+import com.group_2.model.WG;
+import com.group_2.model.finance.BalanceCheckpoint;
+import com.group_2.repository.WGRepository;
+import com.group_2.repository.finance.BalanceCheckpointRepository;
+import com.group_2.repository.finance.TransactionRepository;
+import com.group_2.repository.finance.TransactionSplitRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps monthly snapshots of the pairwise balances of each WG, so balance math
+ * over the history (rebuilding or verifying the ledger, balances as of a past
+ * date) starts from the latest checkpoint and only sums the transactions after
+ * it. Each checkpoint is built from the previous one plus one month of
+ * transactions.
+ *
+ * Changing or adding a transaction older than a checkpoint makes that
+ * checkpoint and all later ones wrong; TransactionService and the import
+ * report such writes so the affected checkpoints are rebuilt.
+ */
+@Service
+public class BalanceCheckpointService {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceCheckpointService.class);
+
+    private final BalanceCheckpointRepository balanceCheckpointRepository;
+    private final TransactionSplitRepository transactionSplitRepository;
+    private final TransactionRepository transactionRepository;
+    private final WGRepository wgRepository;
+
+    @Autowired
+    public BalanceCheckpointService(BalanceCheckpointRepository balanceCheckpointRepository,
+            TransactionSplitRepository transactionSplitRepository, TransactionRepository transactionRepository,
+            WGRepository wgRepository) {
+        this.balanceCheckpointRepository = balanceCheckpointRepository;
+        this.transactionSplitRepository = transactionSplitRepository;
+        this.transactionRepository = transactionRepository;
+        this.wgRepository = wgRepository;
+    }
+
+    private record PairKey(Long creditorId, Long debtorId) {
+    }
+
+    // Runs at 03:30 on the first of every month
+    @Scheduled(cron = "${finance.checkpoint.cron:0 30 3 1 * ?}")
+    @Transactional
+    public void createMonthlyCheckpointsScheduled() {
+        createMonthlyCheckpoints();
+    }
+
+    // Also on startup, the app is rarely running at the scheduled time
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void createMonthlyCheckpointsOnStartup() {
+        createMonthlyCheckpoints();
+    }
+
+    // Checkpoint at the start of the current month for every WG that has none yet
+    @Transactional
+    public void createMonthlyCheckpoints() {
+        LocalDateTime cutoff = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        for (WG wg : wgRepository.findAll()) {
+            LocalDateTime latest = balanceCheckpointRepository.findLatestCutoff(wg.getId(), cutoff);
+            if ((latest == null || latest.isBefore(cutoff)) && transactionRepository.existsByWg(wg)) {
+                createCheckpoint(wg.getId(), cutoff);
+            }
+        }
+    }
+
+    // Stores the balances of all transactions before cutoff. Zero balances get
+    // no row, so a WG without debts at cutoff has no visible checkpoint there.
+    @Transactional
+    public void createCheckpoint(Long wgId, LocalDateTime cutoff) {
+        balanceCheckpointRepository.deleteAt(wgId, cutoff);
+        List<BalanceCheckpoint> rows = new ArrayList<>();
+        for (PairwiseBalanceDTO pair : getPairBalancesAsOf(wgId, cutoff)) {
+            if (pair.amountCents() != 0) {
+                rows.add(new BalanceCheckpoint(wgId, cutoff, pair.creditorId(), pair.debtorId(), pair.amountCents()));
+            }
+        }
+        balanceCheckpointRepository.saveAll(rows);
+        log.debug("Created balance checkpoint for WG {} at {} with {} pairs", wgId, cutoff, rows.size());
+    }
+
+    // Sum of split amounts per (creditor, debtor) pair over all transactions
+    // before asOf, or over all transactions if asOf is null
+    public List<PairwiseBalanceDTO> getPairBalancesAsOf(Long wgId, LocalDateTime asOf) {
+        LocalDateTime cutoff = balanceCheckpointRepository.findLatestCutoff(wgId, asOf);
+        Map<PairKey, Long> sums = new HashMap<>();
+        if (cutoff != null) {
+            for (PairwiseBalanceDTO pair : balanceCheckpointRepository.findPairs(wgId, cutoff)) {
+                sums.merge(new PairKey(pair.creditorId(), pair.debtorId()), pair.amountCents(), Long::sum);
+            }
+        }
+        for (PairwiseBalanceDTO pair : transactionSplitRepository.sumAmountsByPairBetween(wgId, cutoff, asOf)) {
+            sums.merge(new PairKey(pair.creditorId(), pair.debtorId()), pair.amountCents(), Long::sum);
+        }
+
+        List<PairwiseBalanceDTO> pairs = new ArrayList<>(sums.size());
+        sums.forEach((key, amount) -> pairs.add(new PairwiseBalanceDTO(key.creditorId(), key.debtorId(), amount)));
+        return pairs;
+    }
+
+    // Called after a transaction at the given time was edited, deleted or
+    // backdated into an already checkpointed period
+    @Transactional
+    public void onTransactionChanged(Long wgId, LocalDateTime timestamp) {
+        rebuildCheckpoints(wgId, discardCheckpointsAfter(wgId, timestamp));
+    }
+
+    // Deletes the checkpoints that include a transaction at the given time and
+    // returns their cutoffs. Balances stay correct without them, they are only
+    // slower until rebuildCheckpoints has run.
+    @Transactional
+    public List<LocalDateTime> discardCheckpointsAfter(Long wgId, LocalDateTime timestamp) {
+        if (wgId == null || timestamp == null) {
+            return List.of();
+        }
+        List<LocalDateTime> cutoffs = balanceCheckpointRepository.findCutoffsAfter(wgId, timestamp);
+        if (!cutoffs.isEmpty()) {
+            balanceCheckpointRepository.deleteFrom(wgId, cutoffs.get(0));
+            log.info("Discarded {} balance checkpoints of WG {} after {}", cutoffs.size(), wgId, timestamp);
+        }
+        return cutoffs;
+    }
+
+    // Oldest first, so each checkpoint starts from an already rebuilt one
+    @Transactional
+    public void rebuildCheckpoints(Long wgId, Collection<LocalDateTime> cutoffs) {
+        cutoffs.stream().distinct().sorted().forEach(cutoff -> createCheckpoint(wgId, cutoff));
+    }
+
+    @Transactional
+    public void deleteAllForWg(WG wg) {
+        if (wg == null || wg.getId() == null) {
+            return;
+        }
+        balanceCheckpointRepository.deleteByWgId(wg.getId());
+    }
+}
@@ -0,0 +1,240 @@
+package com.group_2.service.finance;
+
+import com.group_2.dto.finance.PairwiseBalanceDTO;
+import com.group_2.model.WG;
+import com.group_2.model.finance.BalanceLedgerEntry;
+import com.group_2.model.finance.Transaction;
+import com.group_2.model.finance.TransactionSplit;
+import com.group_2.repository.WGRepository;
+import com.group_2.repository.finance.BalanceLedgerRepository;
+import com.group_2.repository.finance.TransactionRepository;
+import com.group_2.repository.finance.TransactionSplitRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the pairwise balance ledger (wg, creditor, debtor) -> amount owed.
+ * TransactionService applies every write as a delta in the same transaction,
+ * so reading a balance is an indexed lookup instead of a full history replay.
+ * The ledger can always be rebuilt or verified from transactions and splits.
+ * Both aggregate the full split history rather than starting from a
+ * BalanceCheckpoint, so a wrong checkpoint cannot hide a wrong ledger.
+ *
+ * Deltas are added by an UPDATE in the database rather than read, modified
+ * and saved, so concurrent writers to the same pair (e.g. an expense entered
+ * while the StandingOrderScheduler runs) wait for each other's row lock
+ * instead of failing on the version check. A missing row is inserted first in
+ * a short transaction of its own, where a concurrent insert of the same pair
+ * is harmless.
+ *
+ * Every write publishes a BalancesChangedEvent for its WG; reads go through
+ * the BalanceCache, which drops the WG once that write is committed.
+ */
+@Service
+public class BalanceLedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceLedgerService.class);
+
+    private final BalanceLedgerRepository balanceLedgerRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionSplitRepository transactionSplitRepository;
+    private final WGRepository wgRepository;
+    private final BalanceCache balanceCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate rowCreation;
+
+    @Autowired
+    public BalanceLedgerService(BalanceLedgerRepository balanceLedgerRepository,
+            TransactionRepository transactionRepository, TransactionSplitRepository transactionSplitRepository,
+            WGRepository wgRepository, BalanceCache balanceCache, ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager) {
+        this.balanceLedgerRepository = balanceLedgerRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionSplitRepository = transactionSplitRepository;
+        this.wgRepository = wgRepository;
+        this.balanceCache = balanceCache;
+        this.eventPublisher = eventPublisher;
+        this.rowCreation = new TransactionTemplate(transactionManager);
+        this.rowCreation.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Ledger row that differs from the value recomputed from transaction history
+    public record Discrepancy(Long creditorId, Long debtorId, long ledgerAmountCents, long expectedAmountCents) {
+    }
+
+    private record PairKey(Long creditorId, Long debtorId) {
+    }
+
+    // sign = 1 books the transaction, sign = -1 reverses it (before edit/delete)
+    @Transactional
+    public void applyTransaction(Transaction transaction, int sign) {
+        if (transaction == null || transaction.getWg() == null || transaction.getCreditor() == null) {
+            return;
+        }
+        Long wgId = transaction.getWg().getId();
+        Long creditorId = transaction.getCreditor().getId();
+        for (TransactionSplit split : transaction.getSplits()) {
+            Long debtorId = split.getDebtor().getId();
+            if (debtorId.equals(creditorId)) {
+                continue; // Own share of an expense is not a debt
+            }
+            applyDelta(wgId, creditorId, debtorId, sign * split.getAmountCents());
+        }
+        eventPublisher.publishEvent(new BalancesChangedEvent(wgId));
+    }
+
+    // Books many transactions of one WG with one UPDATE per (creditor, debtor)
+    // pair instead of one per split, e.g. for imports
+    @Transactional
+    public void applyTransactions(Long wgId, List<Transaction> transactions, int sign) {
+        Map<PairKey, Long> deltas = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            Long creditorId = transaction.getCreditor().getId();
+            for (TransactionSplit split : transaction.getSplits()) {
+                Long debtorId = split.getDebtor().getId();
+                if (!debtorId.equals(creditorId)) {
+                    deltas.merge(new PairKey(creditorId, debtorId), sign * split.getAmountCents(), Long::sum);
+                }
+            }
+        }
+        deltas.forEach((key, delta) -> applyDelta(wgId, key.creditorId(), key.debtorId(), delta));
+        eventPublisher.publishEvent(new BalancesChangedEvent(wgId));
+    }
+
+    private void applyDelta(Long wgId, Long creditorId, Long debtorId, long deltaCents) {
+        if (balanceLedgerRepository.addAmountCents(wgId, creditorId, debtorId, deltaCents) == 0) {
+            createRowIfAbsent(wgId, creditorId, debtorId);
+            balanceLedgerRepository.addAmountCents(wgId, creditorId, debtorId, deltaCents);
+        }
+    }
+
+    // Commits an empty row for the pair right away. Losing the race against
+    // another writer only rolls back this inner transaction.
+    private void createRowIfAbsent(Long wgId, Long creditorId, Long debtorId) {
+        try {
+            rowCreation.executeWithoutResult(status -> {
+                if (!balanceLedgerRepository.existsByWgIdAndCreditorIdAndDebtorId(wgId, creditorId, debtorId)) {
+                    balanceLedgerRepository.saveAndFlush(new BalanceLedgerEntry(wgId, creditorId, debtorId, 0));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Ledger row {} -> {} in WG {} was created concurrently", creditorId, debtorId, wgId);
+        }
+    }
+
+    // In cents. Positive = otherUser owes user, Negative = user owes otherUser
+    public long getBalanceCents(Long wgId, Long userId, Long otherUserId) {
+        return getBalancesCents(wgId, userId).getOrDefault(otherUserId, 0L);
+    }
+
+    // Net balance in cents of the user against every counterparty in the ledger
+    public Map<Long, Long> getBalancesCents(Long wgId, Long userId) {
+        return new HashMap<>(balanceCache.get(wgId, balanceLedgerRepository::findPairsByWgId).balancesOf(userId));
+    }
+
+    // Net balance in cents of every ledger participant against the whole WG.
+    // Positive = is owed money, negative = owes money. Sums to zero.
+    public Map<Long, Long> getNetBalancesCents(Long wgId) {
+        return new HashMap<>(balanceCache.get(wgId, balanceLedgerRepository::findPairsByWgId).netBalances());
+    }
+
+    // Compares every ledger row with the sums recomputed from transaction history
+    public List<Discrepancy> verifyLedger(Long wgId) {
+        WG wg = wgRepository.findById(wgId).orElseThrow(() -> new RuntimeException("WG not found"));
+        Map<PairKey, Long> expected = recompute(wg);
+        Map<PairKey, Long> actual = new HashMap<>();
+        for (PairwiseBalanceDTO pair : balanceLedgerRepository.findPairsByWgId(wgId)) {
+            actual.put(new PairKey(pair.creditorId(), pair.debtorId()), pair.amountCents());
+        }
+
+        List<Discrepancy> discrepancies = new ArrayList<>();
+        Map<PairKey, Long> allKeys = new HashMap<>(expected);
+        actual.forEach(allKeys::putIfAbsent);
+        for (PairKey key : allKeys.keySet()) {
+            long ledgerAmount = actual.getOrDefault(key, 0L);
+            long expectedAmount = expected.getOrDefault(key, 0L);
+            if (ledgerAmount != expectedAmount) {
+                discrepancies.add(new Discrepancy(key.creditorId(), key.debtorId(), ledgerAmount, expectedAmount));
+            }
+        }
+        return discrepancies;
+    }
+
+    // Recomputes the ledger from transactions and splits, reusing existing rows
+    @Transactional
+    public void rebuildLedger(Long wgId) {
+        WG wg = wgRepository.findById(wgId).orElseThrow(() -> new RuntimeException("WG not found"));
+        Map<PairKey, Long> expected = recompute(wg);
+
+        for (BalanceLedgerEntry entry : balanceLedgerRepository.findByWgId(wgId)) {
+            Long amount = expected.remove(new PairKey(entry.getCreditorId(), entry.getDebtorId()));
+            if (amount == null) {
+                balanceLedgerRepository.delete(entry);
+            } else {
+                entry.setAmountCents(amount);
+                balanceLedgerRepository.save(entry);
+            }
+        }
+        expected.forEach((key, amount) -> balanceLedgerRepository
+                .save(new BalanceLedgerEntry(wgId, key.creditorId(), key.debtorId(), amount)));
+        eventPublisher.publishEvent(new BalancesChangedEvent(wgId));
+        log.info("Rebuilt balance ledger for WG {}", wgId);
+    }
+
+    @Transactional
+    public void rebuildAllLedgers() {
+        for (WG wg : wgRepository.findAll()) {
+            rebuildLedger(wg.getId());
+        }
+    }
+
+    // Fills the ledger for WGs that have history from before the ledger existed.
+    // Runs right after the schema migrations and before listeners that book
+    // transactions (e.g. StandingOrderScheduler.start): a WG whose first ledger
+    // row came from such a booking would never be backfilled.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @Transactional
+    public void backfillMissingLedgers() {
+        for (WG wg : wgRepository.findAll()) {
+            if (!balanceLedgerRepository.existsByWgId(wg.getId()) && transactionRepository.existsByWg(wg)) {
+                rebuildLedger(wg.getId());
+            }
+        }
+    }
+
+    @Transactional
+    public void deleteAllForWg(WG wg) {
+        if (wg == null || wg.getId() == null) {
+            return;
+        }
+        balanceLedgerRepository.deleteByWgId(wg.getId());
+        eventPublisher.publishEvent(new BalancesChangedEvent(wg.getId()));
+    }
+
+    private Map<PairKey, Long> recompute(WG wg) {
+        Map<PairKey, Long> sums = new HashMap<>();
+        for (PairwiseBalanceDTO pair : transactionSplitRepository.sumAmountsByPair(wg.getId())) {
+            sums.put(new PairKey(pair.creditorId(), pair.debtorId()), pair.amountCents());
+        }
+        return sums;
+    }
+}
@@ -0,0 +1,6 @@
+package com.group_2.service.finance;
+
+// Published by BalanceLedgerService whenever balances of the WG change.
+// Listeners with @TransactionalEventListener see it after the commit.
+public record BalancesChangedEvent(Long wgId) {
+}
@@ -0,0 +1,149 @@
+package com.group_2.service.finance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Computes settlement transfers that clear a set of net balances in cents
+ * (positive = is owed money, negative = owes money). Works on net balances
+ * only, so the cost depends on the number of participants and not on the
+ * size of the transaction history.
+ *
+ * GREEDY repeatedly matches the largest debtor with the largest creditor and
+ * needs at most n - 1 transfers. EXACT finds the minimal number of transfers
+ * by splitting the participants into as many zero-sum groups as possible,
+ * which is exponential and therefore only used for up to
+ * EXACT_MAX_PARTICIPANTS non-zero balances; above that it falls back to
+ * GREEDY.
+ */
+public final class DebtSimplifier {
+
+    public static final int EXACT_MAX_PARTICIPANTS = 16;
+
+    public enum Mode {
+        GREEDY,
+        EXACT
+    }
+
+    // Indices refer to the balances array passed to simplify()
+    public record Transfer(int fromIndex, int toIndex, long amountCents) {
+    }
+
+    private DebtSimplifier() {
+        // Utility class - prevent instantiation
+    }
+
+    public static List<Transfer> simplify(long[] netBalances, Mode mode) {
+        int[] participants = nonZeroIndices(netBalances);
+        if (mode == Mode.EXACT && participants.length <= EXACT_MAX_PARTICIPANTS) {
+            return simplifyExact(netBalances, participants);
+        }
+        return simplifyGreedy(netBalances, participants);
+    }
+
+    private static List<Transfer> simplifyGreedy(long[] netBalances, int[] participants) {
+        long[] remaining = netBalances.clone();
+        // Largest remaining amount first, ties to the lower index
+        PriorityQueue<Integer> creditors = new PriorityQueue<>(
+                (a, b) -> remaining[a] != remaining[b] ? Long.compare(remaining[b], remaining[a])
+                        : Integer.compare(a, b));
+        PriorityQueue<Integer> debtors = new PriorityQueue<>(
+                (a, b) -> remaining[a] != remaining[b] ? Long.compare(remaining[a], remaining[b])
+                        : Integer.compare(a, b));
+        for (int index : participants) {
+            if (remaining[index] > 0) {
+                creditors.add(index);
+            } else {
+                debtors.add(index);
+            }
+        }
+
+        List<Transfer> transfers = new ArrayList<>();
+        while (!creditors.isEmpty() && !debtors.isEmpty()) {
+            int creditor = creditors.poll();
+            int debtor = debtors.poll();
+            long amount = Math.min(remaining[creditor], -remaining[debtor]);
+            transfers.add(new Transfer(debtor, creditor, amount));
+            remaining[creditor] -= amount;
+            remaining[debtor] += amount;
+            // Re-added only after the update, the queues never see a changed key
+            if (remaining[creditor] > 0) {
+                creditors.add(creditor);
+            }
+            if (remaining[debtor] < 0) {
+                debtors.add(debtor);
+            }
+        }
+        return transfers;
+    }
+
+    // A zero-sum group of m participants needs m - 1 transfers, so the minimum
+    // is n minus the maximal number of disjoint zero-sum groups. groups[mask] is
+    // that maximum for the subset mask, built up one participant at a time.
+    private static List<Transfer> simplifyExact(long[] netBalances, int[] participants) {
+        int n = participants.length;
+        int full = (1 << n) - 1;
+        long[] sums = new long[full + 1];
+        byte[] groups = new byte[full + 1];
+        for (int mask = 1; mask <= full; mask++) {
+            int lowest = Integer.numberOfTrailingZeros(mask);
+            sums[mask] = sums[mask & (mask - 1)] + netBalances[participants[lowest]];
+            int best = 0;
+            for (int bits = mask; bits != 0; bits &= bits - 1) {
+                best = Math.max(best, groups[mask & ~Integer.lowestOneBit(bits)]);
+            }
+            groups[mask] = (byte) (best + (sums[mask] == 0 ? 1 : 0));
+        }
+
+        // Walk back through the table; every zero-sum subset on the way closes
+        // a group, which is then settled on its own
+        List<Transfer> transfers = new ArrayList<>();
+        int mask = full;
+        int groupMask = 0;
+        while (mask != 0) {
+            int zeroBonus = sums[mask] == 0 ? 1 : 0;
+            int next = 0;
+            for (int bits = mask; bits != 0; bits &= bits - 1) {
+                int bit = Integer.lowestOneBit(bits);
+                if (groups[mask & ~bit] + zeroBonus == groups[mask]) {
+                    next = bit;
+                    break;
+                }
+            }
+            groupMask |= next;
+            mask &= ~next;
+            if (sums[mask] == 0) {
+                transfers.addAll(simplifyGreedy(netBalances, select(participants, groupMask)));
+                groupMask = 0;
+            }
+        }
+        return transfers;
+    }
+
+    private static int[] nonZeroIndices(long[] netBalances) {
+        int count = 0;
+        for (long balance : netBalances) {
+            if (balance != 0) {
+                count++;
+            }
+        }
+        int[] indices = new int[count];
+        int next = 0;
+        for (int i = 0; i < netBalances.length; i++) {
+            if (netBalances[i] != 0) {
+                indices[next++] = i;
+            }
+        }
+        return indices;
+    }
+
+    private static int[] select(int[] participants, int mask) {
+        int[] selected = new int[Integer.bitCount(mask)];
+        int next = 0;
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            selected[next++] = participants[Integer.numberOfTrailingZeros(bits)];
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,157 @@
+package com.group_2.service.finance;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group_2.service.core.SequenceAlignmentService;
+import com.group_2.util.MoneyUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-time migrations of existing database files that Hibernate's
+ * ddl-auto=update cannot do on its own: copying floating-point money columns
+ * to the fixed-point cents / basis point columns (dropping the old NOT NULL
+ * columns), moving id sequences past ids that were assigned by IDENTITY
+ * columns before the entity switched to a sequence, and moving the debtors of
+ * standing orders from the old JSON column into standing_order_debtors.
+ */
+@Service
+public class FinanceSchemaMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(FinanceSchemaMigrationService.class);
+
+    private record ColumnMigration(String table, String legacyColumn, String column) {
+    }
+
+    // All legacy values are scaled by 100 (euros -> cents, percent -> basis points)
+    private static final List<ColumnMigration> MONEY_COLUMNS = List.of(
+            new ColumnMigration("transactions", "total_amount", "total_amount_cents"),
+            new ColumnMigration("transaction_splits", "amount", "amount_cents"),
+            new ColumnMigration("transaction_splits", "percentage", "percentage_bp"),
+            new ColumnMigration("standing_orders", "total_amount", "total_amount_cents"),
+            new ColumnMigration("balance_ledger", "amount", "amount_cents"));
+
+    private record SequenceMigration(String table, String sequence, int allocationSize) {
+    }
+
+    // Entities whose ids moved from IDENTITY to a pooled sequence
+    private static final List<SequenceMigration> SEQUENCES = List.of(
+            new SequenceMigration("transaction_splits", "transaction_split_seq", 50),
+            new SequenceMigration("transactions", "transaction_seq", 50));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceAlignmentService sequenceAlignmentService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    public FinanceSchemaMigrationService(JdbcTemplate jdbcTemplate,
+            SequenceAlignmentService sequenceAlignmentService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sequenceAlignmentService = sequenceAlignmentService;
+    }
+
+    // Runs before the other startup listeners that read or write finance data
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void migrateLegacyMoneyColumns() {
+        for (ColumnMigration migration : MONEY_COLUMNS) {
+            if (columnExists(migration.table(), migration.legacyColumn())
+                    && columnExists(migration.table(), migration.column())) {
+                int rows = jdbcTemplate.update("UPDATE " + migration.table() + " SET " + migration.column()
+                        + " = ROUND(" + migration.legacyColumn() + " * 100) WHERE " + migration.legacyColumn()
+                        + " IS NOT NULL");
+                jdbcTemplate.execute("ALTER TABLE " + migration.table() + " DROP COLUMN " + migration.legacyColumn());
+                log.info("Migrated {} rows of {}.{} to {}", rows, migration.table(), migration.legacyColumn(),
+                        migration.column());
+            }
+        }
+    }
+
+    // Same startup slot as the column migration, before the first insert
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void alignSequencesWithExistingIds() {
+        for (SequenceMigration migration : SEQUENCES) {
+            sequenceAlignmentService.alignWithExistingIds(migration.table(), migration.sequence(),
+                    migration.allocationSize());
+        }
+    }
+
+    // Same startup slot as the column migration, before the first standing
+    // order run reads the debtors
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void migrateStandingOrderDebtorData() {
+        if (!columnExists("standing_orders", "debtor_data")) {
+            return;
+        }
+        // Skips orders that already have debtor rows, e.g. after an interrupted run
+        List<Map<String, Object>> orders = jdbcTemplate.queryForList(
+                "SELECT s.id, s.debtor_data FROM standing_orders s WHERE s.debtor_data IS NOT NULL AND NOT EXISTS "
+                + "(SELECT 1 FROM standing_order_debtors d WHERE d.standing_order_id = s.id)");
+
+        List<Object[]> rows = new ArrayList<>();
+        List<Long> failedOrderIds = new ArrayList<>();
+        for (Map<String, Object> order : orders) {
+            Long orderId = ((Number) order.get("id")).longValue();
+            try {
+                rows.addAll(toDebtorRows(orderId, (String) order.get("debtor_data")));
+            } catch (JsonProcessingException | RuntimeException e) {
+                failedOrderIds.add(orderId);
+                log.error("Could not migrate debtors of standing order {}: {}", orderId, e.getMessage());
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO standing_order_debtors "
+                + "(standing_order_id, position, debtor_id, percentage_weight) VALUES (?, ?, ?, ?)", rows);
+        log.info("Migrated {} debtors of {} standing orders to standing_order_debtors", rows.size(),
+                orders.size() - failedOrderIds.size());
+        // The legacy column is the only copy of the failed orders' debtors, it
+        // stays until every order has been migrated
+        if (!failedOrderIds.isEmpty()) {
+            log.error("Keeping standing_orders.debtor_data, debtors of standing orders {} are not migrated",
+                    failedOrderIds);
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE standing_orders DROP COLUMN debtor_data");
+    }
+
+    // Legacy format: [{"userId": 1, "percentage": 50.0}, ...]
+    private List<Object[]> toDebtorRows(Long orderId, String json) throws JsonProcessingException {
+        JsonNode entries = objectMapper.readTree(json);
+        List<Object[]> rows = new ArrayList<>();
+        List<Double> percentages = new ArrayList<>();
+        for (JsonNode entry : entries) {
+            rows.add(new Object[] { orderId, rows.size(), entry.get("userId").asLong(), null });
+            percentages.add(entry.get("percentage").asDouble());
+        }
+        long[] weights = MoneyUtils.toPercentageWeights(percentages);
+        for (int i = 0; i < weights.length; i++) {
+            rows.get(i)[3] = weights[i];
+        }
+        return rows;
+    }
+
+    private boolean columnExists(String table, String column) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE UPPER(TABLE_NAME) = ? AND UPPER(COLUMN_NAME) = ?",
+                Integer.class, table.toUpperCase(), column.toUpperCase());
+        return count != null && count > 0;
+    }
+}
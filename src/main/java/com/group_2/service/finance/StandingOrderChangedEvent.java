@@ -0,0 +1,8 @@
+package com.group_2.service.finance;
+
+import java.time.LocalDate;
+
+// Published by StandingOrderService whenever an order is created, executed,
+// edited, deactivated or deleted. Inactive or deleted orders have active false.
+public record StandingOrderChangedEvent(Long orderId, Long wgId, LocalDate nextExecution, boolean active) {
+}
@@ -0,0 +1,241 @@
+package com.group_2.service.finance;
+
+import com.group_2.dto.finance.DueStandingOrderDTO;
+import com.group_2.dto.finance.StandingOrderRunReportDTO;
+import com.group_2.model.finance.StandingOrderExecution;
+import com.group_2.repository.finance.StandingOrderRepository;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes due standing orders, either all orders due at a date or the ones
+ * the StandingOrderScheduler hands over. A run splits the orders into chunks
+ * and processes the chunks on a bounded worker pool.
+ * Every order runs in its own transaction without locks, so a slow or failing
+ * order neither blocks nor rolls back the others. An occurrence booked twice,
+ * e.g. by a second instance on the same database, is rejected by the unique
+ * key of the execution log and counted as skipped.
+ *
+ * Chunks never split a WG: orders of one WG book onto the same ledger rows and
+ * run one after another, different WGs run in parallel. The run waits for
+ * every chunk; orders a failed or cancelled chunk did not reach are reported
+ * as failed.
+ */
+@Service
+public class StandingOrderProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(StandingOrderProcessor.class);
+
+    // SQLSTATE of a unique key violation
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final StandingOrderRepository standingOrderRepository;
+    private final StandingOrderService standingOrderService;
+    private final TransactionTemplate orderTransaction;
+    private final int parallelism;
+    private final int chunkSize;
+
+    @Autowired
+    public StandingOrderProcessor(StandingOrderRepository standingOrderRepository,
+            StandingOrderService standingOrderService, PlatformTransactionManager transactionManager,
+            @Value("${finance.standing-orders.parallelism:4}") int parallelism,
+            @Value("${finance.standing-orders.chunk-size:50}") int chunkSize) {
+        if (parallelism <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be positive");
+        }
+        this.standingOrderRepository = standingOrderRepository;
+        this.standingOrderService = standingOrderService;
+        this.orderTransaction = new TransactionTemplate(transactionManager);
+        this.orderTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    public StandingOrderRunReportDTO processDueStandingOrders() {
+        return processDueStandingOrders(LocalDate.now());
+    }
+
+    public StandingOrderRunReportDTO processDueStandingOrders(LocalDate today) {
+        return processOrders(standingOrderRepository.findDueOrders(today), today);
+    }
+
+    // Orders that are no longer due when their turn comes count as skipped
+    public StandingOrderRunReportDTO processOrders(List<DueStandingOrderDTO> orders, LocalDate today) {
+        long start = System.nanoTime();
+        List<List<Long>> chunks = toChunks(orders.stream()
+                .sorted(Comparator.comparing(DueStandingOrderDTO::wgId).thenComparing(DueStandingOrderDTO::id))
+                .toList());
+        RunCounters counters = new RunCounters();
+
+        if (!chunks.isEmpty()) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            ExecutorService workers = Executors.newFixedThreadPool(Math.min(parallelism, chunks.size()), task -> {
+                Thread thread = new Thread(task, "standing-order-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Number of orders each chunk has finished, see countUnprocessed
+            List<AtomicInteger> progress = new ArrayList<>();
+            List<Future<?>> futures = new ArrayList<>();
+            for (List<Long> chunk : chunks) {
+                AtomicInteger done = new AtomicInteger();
+                progress.add(done);
+                futures.add(workers.submit(() -> {
+                    for (Long orderId : chunk) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            return;
+                        }
+                        processOrder(orderId, today, counters);
+                        done.incrementAndGet();
+                    }
+                }));
+            }
+            boolean interrupted = false;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    log.warn("Standing order run was interrupted");
+                    break;
+                } catch (ExecutionException e) {
+                    // The other chunks keep running, only this one stops
+                    log.error("Standing order chunk failed", e.getCause());
+                }
+            }
+            workers.shutdownNow();
+            awaitWorkers(workers);
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            for (int i = 0; i < chunks.size(); i++) {
+                countUnprocessed(chunks.get(i), progress.get(i).get(), counters);
+            }
+        }
+
+        StandingOrderRunReportDTO report = new StandingOrderRunReportDTO(counters.executed.get(),
+                counters.skipped.get(), counters.failed.get(), List.copyOf(counters.failedOrderIds),
+                Duration.ofNanos(System.nanoTime() - start));
+        if (report.total() > 0) {
+            log.info("Standing order run: {} executed, {} skipped, {} failed in {} ms", report.executed(),
+                    report.skipped(), report.failed(), report.duration().toMillis());
+        }
+        return report;
+    }
+
+    // Waits for the chunks that are still booking their current order, so
+    // they are not counted twice. Runs with the interrupt flag cleared.
+    private static void awaitWorkers(ExecutorService workers) {
+        boolean interrupted = Thread.interrupted();
+        try {
+            if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("Standing order workers did not stop, the run report may be incomplete");
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Orders of a chunk that failed or was cancelled before reaching them
+    // count as failed, so the report always covers every order of the run
+    private static void countUnprocessed(List<Long> chunk, int done, RunCounters counters) {
+        List<Long> unprocessed = chunk.subList(done, chunk.size());
+        if (!unprocessed.isEmpty()) {
+            counters.failed.addAndGet(unprocessed.size());
+            counters.failedOrderIds.addAll(unprocessed);
+        }
+    }
+
+    private void processOrder(Long orderId, LocalDate today, RunCounters counters) {
+        try {
+            Boolean executed = orderTransaction.execute(status -> standingOrderService.executeIfDue(orderId, today));
+            if (Boolean.TRUE.equals(executed)) {
+                counters.executed.incrementAndGet();
+            } else {
+                counters.skipped.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            if (isConcurrentExecution(e)) {
+                counters.skipped.incrementAndGet();
+                log.info("Standing order {} was executed concurrently by another run", orderId);
+                return;
+            }
+            // Log error but continue with other orders
+            counters.failed.incrementAndGet();
+            counters.failedOrderIds.add(orderId);
+            log.error("Failed to execute standing order {}: {}", orderId, e.getMessage());
+        }
+    }
+
+    // Another run booked the same occurrence first: a unique violation of the
+    // execution log's key, or an optimistic lock failure on the order
+    private static boolean isConcurrentExecution(RuntimeException e) {
+        if (e instanceof ConcurrencyFailureException) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                // H2 reports the key's backing index, e.g. "PUBLIC.UK_..._INDEX_8 ON ..."
+                String constraint = violation.getConstraintName();
+                return UNIQUE_VIOLATION.equals(violation.getSQLState()) && constraint != null
+                        && constraint.toLowerCase().contains(StandingOrderExecution.DUE_DATE_KEY);
+            }
+        }
+        return false;
+    }
+
+    // Fills chunks up to chunkSize orders, but only starts a new chunk between
+    // two WGs. Expects the orders sorted by WG.
+    private List<List<Long>> toChunks(List<DueStandingOrderDTO> dueOrders) {
+        List<List<Long>> chunks = new ArrayList<>();
+        List<Long> current = new ArrayList<>();
+        Long currentWgId = null;
+        for (DueStandingOrderDTO order : dueOrders) {
+            if (!current.isEmpty() && current.size() >= chunkSize && !Objects.equals(order.wgId(), currentWgId)) {
+                chunks.add(current);
+                current = new ArrayList<>();
+            }
+            current.add(order.id());
+            currentWgId = order.wgId();
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    private static class RunCounters {
+        private final AtomicInteger executed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final Queue<Long> failedOrderIds = new ConcurrentLinkedQueue<>();
+    }
+}
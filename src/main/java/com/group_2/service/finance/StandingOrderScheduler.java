@@ -0,0 +1,227 @@
+package com.group_2.service.finance;
+
+import com.group_2.dto.finance.DueStandingOrderDTO;
+import com.group_2.dto.finance.ScheduledStandingOrderDTO;
+import com.group_2.repository.finance.StandingOrderRepository;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fires every standing order at its own execution time instead of scanning the
+ * table once a day. The active orders are kept in memory, sorted by their next
+ * execution; one thread sleeps until the earliest is due and hands the due
+ * orders to the StandingOrderProcessor.
+ *
+ * The table is read once at startup. Afterwards StandingOrderService reports
+ * every created, executed, edited or deactivated order, so each change costs a
+ * single O(log n) update of the schedule.
+ */
+@Component
+public class StandingOrderScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(StandingOrderScheduler.class);
+
+    // Upper bound for one sleep, so a suspended machine or a changed system
+    // clock delays an execution by at most this long
+    private static final Duration MAX_SLEEP = Duration.ofHours(1);
+
+    private record Entry(LocalDateTime dueAt, Long orderId, Long wgId) {
+    }
+
+    private static final Comparator<Entry> BY_DUE_TIME = Comparator.comparing(Entry::dueAt)
+            .thenComparing(Entry::orderId);
+
+    private final StandingOrderRepository standingOrderRepository;
+    private final StandingOrderProcessor standingOrderProcessor;
+    private final boolean enabled;
+
+    // Guards both collections, which always hold the same entries
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition scheduleChanged = lock.newCondition();
+    private final TreeSet<Entry> schedule = new TreeSet<>(BY_DUE_TIME);
+    private final Map<Long, Entry> entriesByOrderId = new HashMap<>();
+
+    private Thread thread;
+
+    @Autowired
+    public StandingOrderScheduler(StandingOrderRepository standingOrderRepository,
+            StandingOrderProcessor standingOrderProcessor,
+            @Value("${finance.standing-orders.scheduler.enabled:true}") boolean enabled) {
+        this.standingOrderRepository = standingOrderRepository;
+        this.standingOrderProcessor = standingOrderProcessor;
+        this.enabled = enabled;
+    }
+
+    // Books everything missed while the app was not running in one parallel
+    // run, then starts waiting for the next order
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Checking for due standing orders on startup...");
+        standingOrderProcessor.processDueStandingOrders();
+        for (ScheduledStandingOrderDTO order : standingOrderRepository.findActiveSchedule()) {
+            schedule(order.id(), order.wgId(), order.nextExecution());
+        }
+        log.info("Scheduled {} standing orders", size());
+
+        thread = new Thread(this::run, "standing-order-scheduler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    // Runs immediately when published outside of a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStandingOrderChanged(StandingOrderChangedEvent event) {
+        if (event.active()) {
+            schedule(event.orderId(), event.wgId(), event.nextExecution());
+        } else {
+            unschedule(event.orderId());
+        }
+    }
+
+    // Adds the order or moves it to its new execution time
+    public void schedule(Long orderId, Long wgId, LocalDate nextExecution) {
+        Entry entry = new Entry(nextExecution.atTime(StandingOrderService.EXECUTION_TIME), orderId, wgId);
+        lock.lock();
+        try {
+            Entry previous = entriesByOrderId.put(orderId, entry);
+            if (previous != null) {
+                schedule.remove(previous);
+            }
+            schedule.add(entry);
+            // Only a new earliest entry shortens the current sleep
+            if (schedule.first() == entry) {
+                scheduleChanged.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void unschedule(Long orderId) {
+        lock.lock();
+        try {
+            Entry previous = entriesByOrderId.remove(orderId);
+            if (previous != null) {
+                schedule.remove(previous);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Time at which the order fires next, null if it is not scheduled
+    public LocalDateTime getScheduledTime(Long orderId) {
+        lock.lock();
+        try {
+            Entry entry = entriesByOrderId.get(orderId);
+            return entry != null ? entry.dueAt() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return schedule.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                fire(awaitDueOrders());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void fire(List<DueStandingOrderDTO> dueOrders) {
+        LocalDate today = LocalDate.now();
+        try {
+            standingOrderProcessor.processOrders(dueOrders, today);
+        } catch (RuntimeException e) {
+            log.error("Standing order run failed", e);
+        }
+        reschedule(dueOrders, today);
+    }
+
+    // Puts the fired orders back from their committed state, whatever the run
+    // did with them: executed and skipped orders at their next execution,
+    // orders that are still due (failed) the next day, as with the former
+    // daily run. Deactivated or deleted orders stay off the schedule.
+    private void reschedule(List<DueStandingOrderDTO> firedOrders, LocalDate today) {
+        List<ScheduledStandingOrderDTO> active;
+        try {
+            active = standingOrderRepository
+                    .findActiveScheduleByIds(firedOrders.stream().map(DueStandingOrderDTO::id).toList());
+        } catch (RuntimeException e) {
+            log.error("Could not reload the fired standing orders, retrying them tomorrow", e);
+            firedOrders.forEach(order -> schedule(order.id(), order.wgId(), today.plusDays(1)));
+            return;
+        }
+        for (ScheduledStandingOrderDTO order : active) {
+            LocalDate next = order.nextExecution().isAfter(today) ? order.nextExecution() : today.plusDays(1);
+            schedule(order.id(), order.wgId(), next);
+        }
+    }
+
+    // Blocks until at least one order is due, then removes and returns all
+    // orders that are due
+    private List<DueStandingOrderDTO> awaitDueOrders() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                LocalDateTime now = LocalDateTime.now();
+                if (!schedule.isEmpty() && !schedule.first().dueAt().isAfter(now)) {
+                    List<DueStandingOrderDTO> dueOrders = new ArrayList<>();
+                    while (!schedule.isEmpty() && !schedule.first().dueAt().isAfter(now)) {
+                        Entry entry = schedule.pollFirst();
+                        entriesByOrderId.remove(entry.orderId());
+                        dueOrders.add(new DueStandingOrderDTO(entry.orderId(), entry.wgId()));
+                    }
+                    return dueOrders;
+                }
+                Duration sleep = schedule.isEmpty() ? MAX_SLEEP
+                        : Duration.between(now, schedule.first().dueAt());
+                scheduleChanged.await(Math.min(sleep.toMillis(), MAX_SLEEP.toMillis()) + 1, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,55 +1,89 @@
 package com.group_2.service.finance;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.group_2.model.User;
 import com.group_2.model.WG;
 import com.group_2.model.finance.StandingOrder;
+import com.group_2.model.finance.StandingOrderDebtor;
+import com.group_2.model.finance.StandingOrderExecution;
+import com.group_2.model.finance.Transaction;
 import com.group_2.model.finance.StandingOrderFrequency;
 import com.group_2.repository.UserRepository;
+import com.group_2.repository.finance.StandingOrderExecutionRepository;
 import com.group_2.repository.finance.StandingOrderRepository;
+import com.group_2.dto.core.UserSummaryDTO;
+import com.group_2.dto.finance.BalanceForecastDTO;
 import com.group_2.dto.finance.FinanceMapper;
 import com.group_2.dto.finance.StandingOrderDTO;
+import com.group_2.dto.finance.StandingOrderExecutionDTO;
 import com.group_2.dto.finance.StandingOrderViewDTO;
 import com.group_2.repository.WGRepository;
+import com.group_2.util.MoneyUtils;
 import com.group_2.util.MonthlyScheduleUtil;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.context.event.ApplicationReadyEvent;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 @Service
 public class StandingOrderService {
 
     private static final Logger log = LoggerFactory.getLogger(StandingOrderService.class);
 
+    // Time of day at which the StandingOrderScheduler fires an order, also the
+    // timestamp of missed occurrences
+    static final LocalTime EXECUTION_TIME = LocalTime.NOON;
+
+    public static final int MAX_FORECAST_MONTHS = 120;
+
     private final StandingOrderRepository standingOrderRepository;
+    private final StandingOrderExecutionRepository standingOrderExecutionRepository;
     private final TransactionService transactionService;
-    private final ObjectMapper objectMapper;
     private final FinanceMapper financeMapper;
     private final UserRepository userRepository;
     private final WGRepository wgRepository;
+    private final BalanceLedgerService balanceLedgerService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate immediateExecution;
 
     @Autowired
-    public StandingOrderService(StandingOrderRepository standingOrderRepository, TransactionService transactionService,
-            FinanceMapper financeMapper, UserRepository userRepository, WGRepository wgRepository) {
+    public StandingOrderService(StandingOrderRepository standingOrderRepository,
+            StandingOrderExecutionRepository standingOrderExecutionRepository, TransactionService transactionService,
+            FinanceMapper financeMapper, UserRepository userRepository, WGRepository wgRepository,
+            BalanceLedgerService balanceLedgerService, ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager) {
         this.standingOrderRepository = standingOrderRepository;
+        this.standingOrderExecutionRepository = standingOrderExecutionRepository;
         this.transactionService = transactionService;
-        this.objectMapper = new ObjectMapper();
         this.financeMapper = financeMapper;
         this.userRepository = userRepository;
         this.wgRepository = wgRepository;
+        this.balanceLedgerService = balanceLedgerService;
+        this.eventPublisher = eventPublisher;
+        this.immediateExecution = new TransactionTemplate(transactionManager);
+        this.immediateExecution.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Transactional
@@ -91,77 +125,130 @@ public class StandingOrderService {
             nextExecution = startDate;
         }
 
-        // Build debtor data JSON
-        String debtorData = buildDebtorDataJson(debtorIds, percentages);
-
         // Create order with monthly preferences (creator gets edit rights)
-        StandingOrder order = new StandingOrder(creditor, creator, wg, totalAmount, description, frequency,
-                nextExecution, debtorData, monthlyDay, monthlyLastDay);
+        StandingOrder order = new StandingOrder(creditor, creator, wg, toPositiveCents(totalAmount), description,
+                frequency, nextExecution, monthlyDay, monthlyLastDay);
+        order.setDebtors(debtorIds, toShareWeights(debtorIds, percentages));
 
         order = standingOrderRepository.save(order);
 
+        publishChanged(order);
+
         // If the order is due today or earlier, execute it immediately
         // (handles case where user creates order after 12PM scheduler has run)
         if (!nextExecution.isAfter(LocalDate.now())) {
-            try {
-                executeStandingOrder(order);
-                order.advanceNextExecution();
-                standingOrderRepository.save(order);
-                log.info("Standing order {} executed immediately (was due today)", order.getId());
-            } catch (Exception e) {
-                log.error("Failed to execute standing order immediately: {}", e.getMessage());
-            }
+            executeAfterCommit(order.getId());
         }
 
         return order;
     }
 
-    // Runs at 12:00 PM daily
-    @Scheduled(cron = "0 0 12 * * ?")
-    @Transactional
-    public void processDueStandingOrdersScheduled() {
-        processDueStandingOrders();
+    // Books the occurrences that are due at creation in a transaction of their
+    // own once the order is committed: a failed booking must not mark the
+    // creating transaction rollback-only, the order stays and is retried by the
+    // StandingOrderScheduler
+    private void executeAfterCommit(Long orderId) {
+        Runnable execute = () -> {
+            try {
+                Boolean executed = immediateExecution.execute(status -> executeIfDue(orderId, LocalDate.now()));
+                log.info("Standing order {} executed immediately: {}", orderId, executed);
+            } catch (RuntimeException e) {
+                log.error("Failed to execute standing order {} immediately: {}", orderId, e.getMessage());
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            execute.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                execute.run();
+            }
+        });
     }
 
-    // Also process on startup to catch missed orders
-    @EventListener(ApplicationReadyEvent.class)
+    // Executes one order if it is still due. Runs for the StandingOrderProcessor
+    // in a transaction of its own and takes no lock: a runner that books the
+    // same occurrence concurrently fails on the execution log's unique key.
     @Transactional
-    public void processOnStartup() {
-        log.info("Checking for due standing orders on startup...");
-        processDueStandingOrders();
+    public boolean executeIfDue(Long orderId, LocalDate today) {
+        StandingOrder order = standingOrderRepository.findById(orderId).orElse(null);
+        if (order == null || !Boolean.TRUE.equals(order.getIsActive())) {
+            return false;
+        }
+        return executeDueOccurrences(order, today) > 0;
     }
 
+    // Books every occurrence up to today in one batch, e.g. after the app was
+    // not running for weeks, and moves nextExecution past today. Missed
+    // occurrences keep their due date as timestamp. Occurrences already in the
+    // execution log are not booked again. Returns the number booked.
     @Transactional
-    public void processDueStandingOrders() {
-        LocalDate today = LocalDate.now();
-        // Use pessimistic lock to prevent double-execution when scheduler runs
-        // concurrently
-        List<StandingOrder> dueOrders = standingOrderRepository.findDueOrdersForUpdate(today);
+    public int executeDueOccurrences(StandingOrder order, LocalDate today) {
+        List<LocalDate> dueExecutions = order.getDueExecutions(today);
+        if (dueExecutions.isEmpty()) {
+            return 0;
+        }
+        LocalDate lastDue = dueExecutions.get(dueExecutions.size() - 1);
+        Set<LocalDate> booked = new HashSet<>(
+                standingOrderExecutionRepository.findDueDatesBetween(order.getId(), dueExecutions.get(0), lastDue));
+
+        // Claim the due dates before booking anything. If a concurrent runner
+        // has claimed one, the flush fails and the whole transaction rolls back.
+        LocalDateTime now = LocalDateTime.now();
+        List<StandingOrderExecution> executions = new ArrayList<>();
+        for (LocalDate dueDate : dueExecutions) {
+            if (!booked.contains(dueDate)) {
+                executions.add(new StandingOrderExecution(order.getId(), order.getWg().getId(), dueDate, now));
+            }
+        }
+        standingOrderExecutionRepository.saveAllAndFlush(executions);
+
+        if (!executions.isEmpty()) {
+            List<Long> debtorIds = new ArrayList<>();
+            List<Double> percentages = new ArrayList<>();
+            for (StandingOrderDebtor debtor : order.getDebtors()) {
+                debtorIds.add(debtor.getDebtorId());
+                percentages.add(MoneyUtils.fromPercentageWeight(debtor.getPercentageWeight()));
+            }
 
-        for (StandingOrder order : dueOrders) {
-            try {
-                executeStandingOrder(order);
-                order.advanceNextExecution();
-                standingOrderRepository.save(order);
-            } catch (Exception e) {
-                // Log error but continue with other orders
-                log.error("Failed to execute standing order {}: {}", order.getId(), e.getMessage());
+            // Today's occurrence is booked now, never with a timestamp in the future
+            List<LocalDateTime> timestamps = new ArrayList<>(executions.size());
+            for (StandingOrderExecution execution : executions) {
+                LocalDate dueDate = execution.getDueDate();
+                timestamps.add(dueDate.isBefore(now.toLocalDate()) ? dueDate.atTime(EXECUTION_TIME) : now);
+            }
+
+            // Create the transactions (createdBy is whoever created the standing order)
+            String description = order.getDescription() + " (Standing Order)";
+            List<Transaction> transactions = transactionService.createRecurringTransactionsCents(
+                    order.getCreatedBy().getId(), // creator
+                    order.getCreditor().getId(), // creditor (payer)
+                    debtorIds, percentages.isEmpty() ? null : percentages, order.getTotalAmountCents(), description,
+                    timestamps);
+            for (int i = 0; i < executions.size(); i++) {
+                executions.get(i).setTransactionId(transactions.get(i).getId());
             }
         }
+
+        order.setNextExecution(order.followingExecution(lastDue));
+        standingOrderRepository.save(order);
+        publishChanged(order);
+        if (executions.size() > 1) {
+            log.info("Caught up {} missed occurrences of standing order {}", executions.size(), order.getId());
+        }
+        return executions.size();
     }
 
-    @Transactional
-    public void executeStandingOrder(StandingOrder order) {
-        // Parse debtor data
-        List<Long> debtorIds = new ArrayList<>();
-        List<Double> percentages = new ArrayList<>();
-        parseDebtorData(order.getDebtorData(), debtorIds, percentages);
-
-        // Create the transaction (createdBy is whoever created the standing order)
-        String description = order.getDescription() + " (Standing Order)";
-        transactionService.createTransaction(order.getCreatedBy().getId(), // creator of the transaction
-                order.getCreditor().getId(), // creditor (payer)
-                debtorIds, percentages.isEmpty() ? null : percentages, order.getTotalAmount(), description);
+    // Booked occurrences of the order, newest first
+    public List<StandingOrderExecutionDTO> getExecutionHistory(Long orderId) {
+        List<StandingOrderExecutionDTO> history = new ArrayList<>();
+        for (StandingOrderExecution execution : standingOrderExecutionRepository
+                .findByStandingOrderIdOrderByDueDateDesc(orderId)) {
+            history.add(financeMapper.toDTO(execution));
+        }
+        return history;
     }
 
     @Transactional
@@ -170,6 +257,7 @@ public class StandingOrderService {
                 .orElseThrow(() -> new RuntimeException("Standing order not found"));
         order.setIsActive(false);
         standingOrderRepository.save(order);
+        publishChanged(order);
     }
 
     public List<StandingOrder> getActiveStandingOrders(WG wg) {
@@ -177,7 +265,8 @@ public class StandingOrderService {
     }
 
     public StandingOrder getStandingOrderById(Long id) {
-        return standingOrderRepository.findById(id).orElseThrow(() -> new RuntimeException("Standing order not found"));
+        return standingOrderRepository.findWithDebtorsById(id)
+                .orElseThrow(() -> new RuntimeException("Standing order not found"));
     }
 
     // Only creator can update
@@ -196,15 +285,13 @@ public class StandingOrderService {
 
         // Update basic fields
         order.setCreditor(newCreditor);
-        order.setTotalAmount(totalAmount);
+        order.setTotalAmountCents(toPositiveCents(totalAmount));
         order.setDescription(description);
         order.setFrequency(frequency);
         order.setMonthlyDay(monthlyDay);
         order.setMonthlyLastDay(monthlyLastDay != null ? monthlyLastDay : false);
 
-        // Build new debtor data JSON
-        String debtorData = buildDebtorDataJson(debtorIds, percentages);
-        order.setDebtorData(debtorData);
+        order.setDebtors(debtorIds, toShareWeights(debtorIds, percentages));
 
         // Recalculate next execution if frequency changed
         LocalDate now = LocalDate.now();
@@ -232,59 +319,52 @@ public class StandingOrderService {
             order.setNextExecution(newNextExecution);
         }
 
-        return standingOrderRepository.save(order);
+        order = standingOrderRepository.save(order);
+        publishChanged(order);
+        return order;
     }
 
-    private String buildDebtorDataJson(List<Long> debtorIds, List<Double> percentages) {
-        List<Map<String, Object>> debtorList = new ArrayList<>();
+    private long toPositiveCents(Double totalAmount) {
+        long cents = totalAmount != null ? MoneyUtils.toCents(totalAmount) : 0;
+        if (cents <= 0) {
+            throw new IllegalArgumentException("Total amount must be positive");
+        }
+        return cents;
+    }
 
-        boolean hasPercentages = percentages != null && !percentages.isEmpty();
-        double equalPercentage = hasPercentages ? 0 : 100.0 / debtorIds.size();
+    // Lets the StandingOrderScheduler pick up the new state after the commit
+    private void publishChanged(StandingOrder order) {
+        eventPublisher.publishEvent(new StandingOrderChangedEvent(order.getId(), order.getWg().getId(),
+                order.getNextExecution(), Boolean.TRUE.equals(order.getIsActive())));
+    }
 
-        for (int i = 0; i < debtorIds.size(); i++) {
-            double pct = hasPercentages ? percentages.get(i) : equalPercentage;
-            debtorList.add(Map.of("userId", debtorIds.get(i), "percentage", pct));
+    // Equal shares if no percentages are given
+    private long[] toShareWeights(List<Long> debtorIds, List<Double> percentages) {
+        if (percentages == null || percentages.isEmpty()) {
+            return MoneyUtils.toPercentageWeights(Collections.nCopies(debtorIds.size(), 100.0 / debtorIds.size()));
         }
-
-        try {
-            return objectMapper.writeValueAsString(debtorList);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to serialize debtor data", e);
+        if (percentages.size() != debtorIds.size()) {
+            throw new IllegalArgumentException("Number of percentages must match number of debtors");
         }
+        return MoneyUtils.toPercentageWeights(percentages);
     }
 
-    private void parseDebtorData(String json, List<Long> debtorIds, List<Double> percentages) {
-        if (json == null || json.isEmpty()) {
-            return;
+    // Debtors of all orders, loaded with one query. Creditor and creator are
+    // already loaded with the order.
+    private Function<Long, User> userResolver(Collection<StandingOrder> orders) {
+        Set<Long> userIds = new HashSet<>();
+        for (StandingOrder order : orders) {
+            userIds.addAll(order.getDebtorIds());
         }
-
-        try {
-            List<Map<String, Object>> debtorList = objectMapper.readValue(json,
-                    new TypeReference<List<Map<String, Object>>>() {
-                    });
-
-            for (Map<String, Object> entry : debtorList) {
-                Object userIdObj = entry.get("userId");
-                Object percentageObj = entry.get("percentage");
-
-                Long userId = userIdObj instanceof Number ? ((Number) userIdObj).longValue()
-                        : Long.parseLong(userIdObj.toString());
-                Double percentage = percentageObj instanceof Number ? ((Number) percentageObj).doubleValue()
-                        : Double.parseDouble(percentageObj.toString());
-
-                debtorIds.add(userId);
-                percentages.add(percentage);
-            }
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to parse debtor data", e);
+        Map<Long, User> usersById = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            usersById.put(user.getId(), user);
         }
+        return usersById::get;
     }
 
-    private User resolveUser(Long userId) {
-        if (userId == null) {
-            return null;
-        }
-        return userRepository.findById(userId).orElse(null);
+    private Function<Long, User> userResolver(StandingOrder order) {
+        return userResolver(List.of(order));
     }
 
     // ==================== DTO METHODS ====================
@@ -292,12 +372,12 @@ public class StandingOrderService {
 
     public List<StandingOrderDTO> getActiveStandingOrdersDTO(WG wg) {
         List<StandingOrder> orders = getActiveStandingOrders(wg);
-        return financeMapper.toStandingOrderDTOList(orders, this::resolveUser);
+        return financeMapper.toStandingOrderDTOList(orders, userResolver(orders));
     }
 
     public List<StandingOrderViewDTO> getActiveStandingOrdersView(WG wg) {
         List<StandingOrder> orders = getActiveStandingOrders(wg);
-        return financeMapper.toStandingOrderViewList(orders, this::resolveUser);
+        return financeMapper.toStandingOrderViewList(orders, userResolver(orders));
     }
 
     public List<StandingOrderDTO> getActiveStandingOrdersDTO(Long wgId) {
@@ -324,12 +404,12 @@ public class StandingOrderService {
 
     public StandingOrderDTO getStandingOrderByIdDTO(Long id) {
         StandingOrder order = getStandingOrderById(id);
-        return financeMapper.toDTO(order, this::resolveUser);
+        return financeMapper.toDTO(order, userResolver(order));
     }
 
     public StandingOrderViewDTO getStandingOrderByIdView(Long id) {
         StandingOrder order = getStandingOrderById(id);
-        return financeMapper.toStandingOrderView(order, this::resolveUser);
+        return financeMapper.toStandingOrderView(order, userResolver(order));
     }
 
     @Transactional
@@ -338,7 +418,7 @@ public class StandingOrderService {
             List<Double> percentages, Integer monthlyDay, Boolean monthlyLastDay) {
         StandingOrder order = createStandingOrder(creator, creditor, wg, totalAmount, description, frequency, startDate,
                 debtorIds, percentages, monthlyDay, monthlyLastDay);
-        return financeMapper.toDTO(order, this::resolveUser);
+        return financeMapper.toDTO(order, userResolver(order));
     }
 
     @Transactional
@@ -363,7 +443,7 @@ public class StandingOrderService {
 
         StandingOrder order = createStandingOrder(creator, creditor, wg, totalAmount, description, frequency, startDate,
                 debtorIds, percentages, monthlyDay, monthlyLastDay);
-        return financeMapper.toDTO(order, this::resolveUser);
+        return financeMapper.toDTO(order, userResolver(order));
     }
 
     @Transactional
@@ -382,7 +462,7 @@ public class StandingOrderService {
             Integer monthlyDay, Boolean monthlyLastDay) {
         StandingOrder order = updateStandingOrder(id, currentUserId, newCreditor, totalAmount, description, frequency,
                 debtorIds, percentages, monthlyDay, monthlyLastDay);
-        return financeMapper.toDTO(order, this::resolveUser);
+        return financeMapper.toDTO(order, userResolver(order));
     }
 
     @Transactional
@@ -395,7 +475,7 @@ public class StandingOrderService {
 
         StandingOrder order = updateStandingOrder(id, currentUserId, newCreditor, totalAmount, description, frequency,
                 debtorIds, percentages, monthlyDay, monthlyLastDay);
-        return financeMapper.toDTO(order, this::resolveUser);
+        return financeMapper.toDTO(order, userResolver(order));
     }
 
     @Transactional
@@ -408,6 +488,87 @@ public class StandingOrderService {
         return getStandingOrderByIdView(dto.id());
     }
 
+    // Net balance of every member at the end of the current and the following
+    // months, projected from today's balances and the future executions of all
+    // active standing orders. Overdue executions count for the current month.
+    // Nothing is persisted; memory grows with members x months, not with the
+    // number of executions.
+    public BalanceForecastDTO forecastBalances(Long wgId, int months) {
+        if (months < 1 || months > MAX_FORECAST_MONTHS) {
+            throw new IllegalArgumentException("Forecast must cover 1 to " + MAX_FORECAST_MONTHS + " months");
+        }
+        WG wg = wgRepository.findById(wgId).orElseThrow(() -> new IllegalArgumentException("WG not found"));
+        List<UserSummaryDTO> members = transactionService.getMemberSummaries(wgId);
+        Map<Long, Integer> indexById = new HashMap<>();
+        for (int i = 0; i < members.size(); i++) {
+            indexById.put(members.get(i).id(), i);
+        }
+
+        long[] current = new long[members.size()];
+        balanceLedgerService.getNetBalancesCents(wgId).forEach((userId, cents) -> {
+            Integer i = indexById.get(userId);
+            if (i != null) {
+                current[i] = cents;
+            }
+        });
+
+        YearMonth firstMonth = YearMonth.now();
+        LocalDate lastDay = firstMonth.plusMonths(months - 1).atEndOfMonth();
+        long[][] changes = new long[months][members.size()];
+        for (StandingOrder order : standingOrderRepository.findByWgAndIsActiveTrue(wg)) {
+            long[] effect = executionEffect(order, indexById, members.size());
+            int[] executionsPerMonth = new int[months];
+            order.executionsUntil(lastDay).forEach(execution -> {
+                long month = ChronoUnit.MONTHS.between(firstMonth, YearMonth.from(execution));
+                executionsPerMonth[(int) Math.max(0, month)]++;
+            });
+            for (int m = 0; m < months; m++) {
+                if (executionsPerMonth[m] == 0) {
+                    continue;
+                }
+                for (int i = 0; i < effect.length; i++) {
+                    changes[m][i] += effect[i] * executionsPerMonth[m];
+                }
+            }
+        }
+
+        List<YearMonth> monthList = new ArrayList<>(months);
+        long[][] balances = new long[months][];
+        long[] running = current.clone();
+        for (int m = 0; m < months; m++) {
+            monthList.add(firstMonth.plusMonths(m));
+            for (int i = 0; i < running.length; i++) {
+                running[i] += changes[m][i];
+            }
+            balances[m] = running.clone();
+        }
+        return new BalanceForecastDTO(members, monthList, current, balances);
+    }
+
+    // Change of each member's net balance by one execution, split the same way
+    // as the generated transactions. Former members are left out.
+    private long[] executionEffect(StandingOrder order, Map<Long, Integer> indexById, int memberCount) {
+        List<StandingOrderDebtor> debtors = order.getDebtors();
+        long[] weights = new long[debtors.size()];
+        for (int d = 0; d < weights.length; d++) {
+            weights[d] = debtors.get(d).getPercentageWeight();
+        }
+        long[] amounts = MoneyUtils.allocate(order.getTotalAmountCents(), weights);
+
+        long[] effect = new long[memberCount];
+        Integer creditor = indexById.get(order.getCreditor().getId());
+        for (int d = 0; d < amounts.length; d++) {
+            Integer debtor = indexById.get(debtors.get(d).getDebtorId());
+            if (creditor != null) {
+                effect[creditor] += amounts[d];
+            }
+            if (debtor != null) {
+                effect[debtor] -= amounts[d];
+            }
+        }
+        return effect;
+    }
+
     // Called when WG member leaves
     @Transactional
     public void deactivateStandingOrdersForUser(Long userId, Long wgId) {
@@ -420,46 +581,20 @@ public class StandingOrderService {
         for (StandingOrder order : creditorOrCreatorOrders) {
             order.setIsActive(false);
             standingOrderRepository.save(order);
+            publishChanged(order);
             log.info("Deactivated standing order {} (user {} was creditor/creator)", order.getId(), userId);
         }
 
         // Also deactivate orders where user is a debtor
         if (wgId != null) {
-            List<StandingOrder> wgOrders = standingOrderRepository.findActiveByWgId(wgId);
-            for (StandingOrder order : wgOrders) {
-                if (isUserDebtor(order, userId)) {
-                    order.setIsActive(false);
-                    standingOrderRepository.save(order);
-                    log.info("Deactivated standing order {} (user {} was debtor)", order.getId(), userId);
-                }
-            }
-        }
-    }
-
-    // Checks if a user is a debtor in a standing order
-    private boolean isUserDebtor(StandingOrder order, Long userId) {
-        String debtorData = order.getDebtorData();
-        if (debtorData == null || debtorData.isEmpty()) {
-            return false;
-        }
-
-        try {
-            List<Map<String, Object>> debtorList = objectMapper.readValue(debtorData,
-                    new TypeReference<List<Map<String, Object>>>() {
-                    });
-
-            for (Map<String, Object> entry : debtorList) {
-                Object userIdObj = entry.get("userId");
-                Long debtorId = userIdObj instanceof Number ? ((Number) userIdObj).longValue()
-                        : Long.parseLong(userIdObj.toString());
-                if (debtorId.equals(userId)) {
-                    return true;
-                }
+            List<StandingOrder> debtorOrders = standingOrderRepository.findActiveByWgIdAndDebtor(wgId, userId);
+            for (StandingOrder order : debtorOrders) {
+                order.setIsActive(false);
+                standingOrderRepository.save(order);
+                publishChanged(order);
+                log.info("Deactivated standing order {} (user {} was debtor)", order.getId(), userId);
             }
-        } catch (JsonProcessingException e) {
-            log.warn("Failed to parse debtor data for order {}: {}", order.getId(), e.getMessage());
         }
-        return false;
     }
 
     // Called when entire WG is deleted - deletes all standing orders and
@@ -470,7 +605,13 @@ public class StandingOrderService {
             return;
         }
         log.info("Deleting all finance data for WG: {}", wg.getId());
-        standingOrderRepository.deleteByWg(wg);
+        List<StandingOrder> orders = standingOrderRepository.findByWg(wg);
+        standingOrderRepository.deleteAll(orders);
+        standingOrderExecutionRepository.deleteByWgId(wg.getId());
+        for (StandingOrder order : orders) {
+            eventPublisher.publishEvent(
+                    new StandingOrderChangedEvent(order.getId(), wg.getId(), order.getNextExecution(), false));
+        }
         transactionService.deleteAllForWg(wg);
     }
 }
@@ -0,0 +1,494 @@
+package com.group_2.service.finance;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.group_2.dto.finance.TransactionImportResultDTO;
+import com.group_2.dto.finance.TransactionImportRowDTO;
+import com.group_2.model.User;
+import com.group_2.model.WG;
+import com.group_2.model.finance.Transaction;
+import com.group_2.model.finance.TransactionSplit;
+import com.group_2.repository.UserRepository;
+import com.group_2.repository.finance.TransactionRepository;
+import com.group_2.util.MoneyUtils;
+import com.group_2.util.SplitValidationHelper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports historic expenses from CSV or JSON, e.g. when a household moves over
+ * from a spreadsheet. Input is read one row at a time and written in chunks of
+ * commitSize rows, each chunk in its own database transaction (so call it
+ * outside of a transaction), which keeps memory use independent of the file
+ * size. Invalid rows are reported and skipped, the rest of the file is still
+ * imported.
+ *
+ * CSV needs a header row with the columns date, description, amount, payer,
+ * debtors and optionally percentages or amounts; ',' and ';' are both
+ * accepted as delimiter. Lists inside a cell are separated by '|', e.g.
+ * "anna@wg.de|Ben". Quoted cells may not span several lines.
+ *
+ * JSON is either an array of row objects or one row object per line, with the
+ * fields of TransactionImportRowDTO.
+ */
+@Service
+public class TransactionImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionImportService.class);
+
+    public static final int DEFAULT_COMMIT_SIZE = 500;
+
+    // Further errors are only counted
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String LIST_SEPARATOR = "\\|";
+
+    private static final List<DateTimeFormatter> DATE_TIME_FORMATS = List.of(DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm[:ss]"), DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm[:ss]"));
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd.MM.yyyy"));
+
+    public enum Format {
+        CSV,
+        JSON
+    }
+
+    private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final BalanceLedgerService balanceLedgerService;
+    private final BalanceCheckpointService balanceCheckpointService;
+    private final TransactionTemplate chunkTransaction;
+    private final ObjectReader rowReader;
+
+    @Autowired
+    public TransactionImportService(UserRepository userRepository, TransactionRepository transactionRepository,
+            BalanceLedgerService balanceLedgerService, BalanceCheckpointService balanceCheckpointService,
+            PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.transactionRepository = transactionRepository;
+        this.balanceLedgerService = balanceLedgerService;
+        this.balanceCheckpointService = balanceCheckpointService;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.rowReader = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .readerFor(TransactionImportRowDTO.class);
+    }
+
+    public TransactionImportResultDTO importTransactions(Long importingUserId, Reader input, Format format)
+            throws IOException {
+        return importTransactions(importingUserId, input, format, DEFAULT_COMMIT_SIZE);
+    }
+
+    // Imports into the WG of the importing user, who is recorded as creator
+    public TransactionImportResultDTO importTransactions(Long importingUserId, Reader input, Format format,
+            int commitSize) throws IOException {
+        if (commitSize <= 0) {
+            throw new IllegalArgumentException("Commit size must be positive");
+        }
+        User importer = userRepository.findById(importingUserId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        WG wg = importer.getWg();
+        if (wg == null) {
+            throw new RuntimeException("User must belong to a WG to import transactions");
+        }
+
+        ImportRun run = new ImportRun(importer, wg, new MemberLookup(userRepository.findByWgId(wg.getId())),
+                commitSize);
+        if (format == Format.CSV) {
+            readCsv(input, run);
+        } else {
+            readJson(input, run);
+        }
+        run.flushChunk();
+        if (!run.discardedCheckpoints.isEmpty()) {
+            chunkTransaction.executeWithoutResult(
+                    status -> balanceCheckpointService.rebuildCheckpoints(wg.getId(), run.discardedCheckpoints));
+        }
+
+        log.info("Imported {} transactions into WG {}, {} rows rejected", run.importedCount, wg.getId(),
+                run.errorCount);
+        return new TransactionImportResultDTO(run.importedCount, run.errorCount, run.errors);
+    }
+
+    // ==================== Readers ====================
+
+    private void readCsv(Reader input, ImportRun run) throws IOException {
+        BufferedReader reader = input instanceof BufferedReader buffered ? buffered : new BufferedReader(input);
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return;
+        }
+        headerLine = headerLine.replace("﻿", ""); // Byte order mark of spreadsheet exports
+        char delimiter = headerLine.indexOf(';') >= 0 ? ';' : ',';
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = splitCsvLine(headerLine, delimiter);
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("date", "description", "amount", "payer", "debtors")) {
+            if (!columns.containsKey(required)) {
+                run.reject(1, "Missing column: " + required);
+                return;
+            }
+        }
+
+        long lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                List<String> cells = splitCsvLine(line, delimiter);
+                run.accept(lineNumber, new TransactionImportRowDTO(cell(cells, columns, "date"),
+                        cell(cells, columns, "description"), parseNumber(cell(cells, columns, "amount")),
+                        cell(cells, columns, "payer"), parseList(cell(cells, columns, "debtors")),
+                        parseNumbers(cell(cells, columns, "percentages")),
+                        parseNumbers(cell(cells, columns, "amounts"))));
+            } catch (IllegalArgumentException e) {
+                run.reject(lineNumber, e.getMessage());
+            }
+        }
+    }
+
+    private void readJson(Reader input, ImportRun run) throws IOException {
+        try (MappingIterator<TransactionImportRowDTO> rows = rowReader.readValues(input)) {
+            long index = 0;
+            while (true) {
+                index++;
+                TransactionImportRowDTO row;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    row = rows.nextValue();
+                } catch (JsonParseException e) {
+                    // Broken syntax, the position of the next row is unknown
+                    run.reject(index, "Invalid JSON: " + e.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException e) {
+                    run.reject(index, "Invalid row: " + e.getOriginalMessage());
+                    continue;
+                }
+                run.accept(index, row);
+            }
+        }
+    }
+
+    // ==================== Import State ====================
+
+    private record PendingRow(long lineNumber, Transaction transaction) {
+    }
+
+    private class ImportRun {
+        private final User importer;
+        private final WG wg;
+        private final MemberLookup members;
+        private final int commitSize;
+        private final List<PendingRow> chunk = new ArrayList<>();
+        private final List<TransactionImportResultDTO.RowError> errors = new ArrayList<>();
+        // Checkpoints invalidated by backdated rows, rebuilt once at the end
+        private final Set<LocalDateTime> discardedCheckpoints = new HashSet<>();
+        private long importedCount;
+        private long errorCount;
+
+        ImportRun(User importer, WG wg, MemberLookup members, int commitSize) {
+            this.importer = importer;
+            this.wg = wg;
+            this.members = members;
+            this.commitSize = commitSize;
+        }
+
+        void accept(long lineNumber, TransactionImportRowDTO row) {
+            try {
+                chunk.add(new PendingRow(lineNumber, toTransaction(row, importer, wg, members)));
+            } catch (IllegalArgumentException e) {
+                reject(lineNumber, e.getMessage());
+                return;
+            }
+            if (chunk.size() >= commitSize) {
+                flushChunk();
+            }
+        }
+
+        void reject(long lineNumber, String message) {
+            errorCount++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new TransactionImportResultDTO.RowError(lineNumber, message));
+            }
+        }
+
+        void flushChunk() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<Transaction> transactions = chunk.stream().map(PendingRow::transaction).toList();
+            LocalDateTime oldest = transactions.stream().map(Transaction::getTimestamp).min(LocalDateTime::compareTo)
+                    .orElseThrow();
+            try {
+                List<LocalDateTime> discarded = chunkTransaction.execute(status -> {
+                    transactionRepository.saveAll(transactions);
+                    balanceLedgerService.applyTransactions(wg.getId(), transactions, 1);
+                    return balanceCheckpointService.discardCheckpointsAfter(wg.getId(), oldest);
+                });
+                discardedCheckpoints.addAll(discarded);
+                importedCount += transactions.size();
+            } catch (RuntimeException e) {
+                log.warn("Import chunk of {} rows failed", chunk.size(), e);
+                for (PendingRow pending : chunk) {
+                    reject(pending.lineNumber(), "Could not be saved: " + e.getMessage());
+                }
+            }
+            chunk.clear();
+        }
+    }
+
+    // Members of the WG by lower-case email, full name and first name. Names
+    // shared by several members map to null and have to be given by email.
+    private static class MemberLookup {
+        private final Map<String, User> byKey = new HashMap<>();
+
+        MemberLookup(List<User> members) {
+            for (User member : members) {
+                register(member.getEmail(), member);
+                register(member.getName(), member);
+                if (member.getSurname() != null && !member.getSurname().isBlank()) {
+                    register(member.getName() + " " + member.getSurname(), member);
+                }
+            }
+        }
+
+        private void register(String key, User member) {
+            if (key == null || key.isBlank()) {
+                return;
+            }
+            String normalized = key.trim().toLowerCase(Locale.ROOT);
+            if (byKey.containsKey(normalized) && byKey.get(normalized) != member) {
+                byKey.put(normalized, null);
+            } else {
+                byKey.put(normalized, member);
+            }
+        }
+
+        User resolve(String key) {
+            if (key == null || key.isBlank()) {
+                throw new IllegalArgumentException("Member is missing");
+            }
+            String normalized = key.trim().toLowerCase(Locale.ROOT);
+            if (!byKey.containsKey(normalized)) {
+                throw new IllegalArgumentException("Unknown member: " + key.trim());
+            }
+            User member = byKey.get(normalized);
+            if (member == null) {
+                throw new IllegalArgumentException("Ambiguous member, use the email: " + key.trim());
+            }
+            return member;
+        }
+    }
+
+    // ==================== Row Conversion ====================
+
+    // Validates the row and builds the transaction with its splits, with the
+    // same rounding as TransactionService
+    private Transaction toTransaction(TransactionImportRowDTO row, User importer, WG wg, MemberLookup members) {
+        if (row == null) {
+            throw new IllegalArgumentException("Empty row");
+        }
+        if (row.description() == null || row.description().isBlank()) {
+            throw new IllegalArgumentException("Description is missing");
+        }
+        String description = row.description().trim();
+        if (description.length() > 500) {
+            throw new IllegalArgumentException("Description is longer than 500 characters");
+        }
+        if (row.amount() == null || MoneyUtils.toCents(row.amount()) <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        long totalAmountCents = MoneyUtils.toCents(row.amount());
+        LocalDateTime timestamp = parseTimestamp(row.date());
+        User payer = members.resolve(row.payer());
+
+        List<String> debtorKeys = row.debtors();
+        if (debtorKeys == null || debtorKeys.isEmpty()) {
+            throw new IllegalArgumentException("At least one debtor is required");
+        }
+        List<User> debtors = new ArrayList<>(debtorKeys.size());
+        for (String key : debtorKeys) {
+            debtors.add(members.resolve(key));
+        }
+
+        long[] weights = resolveWeights(row, debtors.size());
+        long[] amounts = MoneyUtils.allocate(totalAmountCents, weights);
+        long[] basisPoints = MoneyUtils.allocate(MoneyUtils.FULL_PERCENTAGE_BP, weights);
+
+        Transaction transaction = new Transaction(payer, importer, totalAmountCents, description, wg);
+        transaction.setTimestamp(timestamp);
+        for (int i = 0; i < debtors.size(); i++) {
+            transaction.addSplit(new TransactionSplit(transaction, debtors.get(i), (int) basisPoints[i], amounts[i]));
+        }
+        return transaction;
+    }
+
+    private long[] resolveWeights(TransactionImportRowDTO row, int debtorCount) {
+        boolean hasPercentages = row.percentages() != null && !row.percentages().isEmpty();
+        boolean hasAmounts = row.amounts() != null && !row.amounts().isEmpty();
+        if (hasPercentages && hasAmounts) {
+            throw new IllegalArgumentException("Give either percentages or amounts, not both");
+        }
+        if (hasPercentages) {
+            requirePositiveShares(row.percentages(), debtorCount, "percentages");
+            if (!SplitValidationHelper.validatePercentageSplit(row.percentages()).isValid()) {
+                throw new IllegalArgumentException("Percentages must sum to 100");
+            }
+            return MoneyUtils.toPercentageWeights(row.percentages());
+        }
+        if (hasAmounts) {
+            requirePositiveShares(row.amounts(), debtorCount, "amounts");
+            if (!SplitValidationHelper.validateAmountSplit(row.amounts(), row.amount()).isValid()) {
+                throw new IllegalArgumentException("Split amounts must sum to the total amount");
+            }
+            long[] weights = new long[debtorCount];
+            for (int i = 0; i < debtorCount; i++) {
+                weights[i] = MoneyUtils.toCents(row.amounts().get(i));
+            }
+            return weights;
+        }
+        long[] weights = new long[debtorCount];
+        Arrays.fill(weights, 1L);
+        return weights;
+    }
+
+    private void requirePositiveShares(List<Double> shares, int debtorCount, String name) {
+        if (shares.size() != debtorCount) {
+            throw new IllegalArgumentException("Number of " + name + " must match number of debtors");
+        }
+        for (Double share : shares) {
+            if (share == null || share <= 0) {
+                throw new IllegalArgumentException("All " + name + " must be greater than 0");
+            }
+        }
+    }
+
+    private LocalDateTime parseTimestamp(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Date is missing");
+        }
+        String trimmed = value.trim();
+        for (DateTimeFormatter format : DATE_TIME_FORMATS) {
+            try {
+                return LocalDateTime.parse(trimmed, format);
+            } catch (DateTimeParseException e) {
+                // Try the next format
+            }
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(trimmed, format).atStartOfDay();
+            } catch (DateTimeParseException e) {
+                // Try the next format
+            }
+        }
+        throw new IllegalArgumentException("Invalid date: " + trimmed);
+    }
+
+    // ==================== CSV Helpers ====================
+
+    // Splits one CSV line, "..." quotes a cell and "" is a quote inside it
+    static List<String> splitCsvLine(String line, char delimiter) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    private static String cell(List<String> cells, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= cells.size()) {
+            return null;
+        }
+        String value = cells.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static List<String> parseList(String value) {
+        if (value == null) {
+            return List.of();
+        }
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(LIST_SEPARATOR)) {
+            if (!item.isBlank()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    private static List<Double> parseNumbers(String value) {
+        List<Double> numbers = new ArrayList<>();
+        for (String item : parseList(value)) {
+            numbers.add(parseNumber(item));
+        }
+        return numbers;
+    }
+
+    // Accepts a decimal comma as in SplitValidationHelper.parseAmount
+    private static Double parseNumber(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return SplitValidationHelper.parseAmount(value.replace("€", "").trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + value);
+        }
+    }
+}
@@ -9,21 +9,37 @@ import com.group_2.repository.WGRepository;
 import com.group_2.repository.finance.TransactionRepository;
 import com.group_2.repository.finance.TransactionSplitRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import com.group_2.dto.finance.BalanceDTO;
+import com.group_2.dto.finance.BalanceMatrixDTO;
 import com.group_2.dto.finance.FinanceMapper;
 import com.group_2.dto.finance.TransactionDTO;
+import com.group_2.dto.finance.TransactionHistoryFilter;
+import com.group_2.dto.finance.TransactionHistoryPageDTO;
 import com.group_2.dto.finance.TransactionViewDTO;
 import com.group_2.dto.finance.BalanceViewDTO;
+import com.group_2.dto.finance.PairwiseBalanceDTO;
+import com.group_2.dto.finance.SettlementTransferDTO;
 import com.group_2.dto.core.CoreMapper;
 import com.group_2.dto.core.UserSummaryDTO;
+import com.group_2.util.MoneyUtils;
 
 @Service
 public class TransactionService {
@@ -32,17 +48,25 @@ public class TransactionService {
     private final TransactionSplitRepository transactionSplitRepository;
     private final UserRepository userRepository;
     private final WGRepository wgRepository;
+    private final BalanceLedgerService balanceLedgerService;
+    private final BalanceCheckpointService balanceCheckpointService;
     private final FinanceMapper financeMapper;
     private final CoreMapper coreMapper;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     public TransactionService(TransactionRepository transactionRepository,
             TransactionSplitRepository transactionSplitRepository, UserRepository userRepository,
-            WGRepository wgRepository, FinanceMapper financeMapper, CoreMapper coreMapper) {
+            WGRepository wgRepository, BalanceLedgerService balanceLedgerService,
+            BalanceCheckpointService balanceCheckpointService, FinanceMapper financeMapper, CoreMapper coreMapper) {
         this.transactionRepository = transactionRepository;
         this.transactionSplitRepository = transactionSplitRepository;
         this.userRepository = userRepository;
         this.wgRepository = wgRepository;
+        this.balanceLedgerService = balanceLedgerService;
+        this.balanceCheckpointService = balanceCheckpointService;
         this.financeMapper = financeMapper;
         this.coreMapper = coreMapper;
     }
@@ -58,11 +82,22 @@ public class TransactionService {
     @Transactional
     public Transaction createTransaction(Long creatorId, Long creditorId, List<Long> debtorIds,
             List<Double> percentages, Double totalAmount, String description) {
+        if (totalAmount == null) {
+            throw new IllegalArgumentException("Total amount must be positive");
+        }
+        return createTransactionCents(creatorId, creditorId, debtorIds, percentages, MoneyUtils.toCents(totalAmount),
+                description);
+    }
+
+    // Same as createTransaction, with the total already in cents
+    @Transactional
+    public Transaction createTransactionCents(Long creatorId, Long creditorId, List<Long> debtorIds,
+            List<Double> percentages, long totalAmountCents, String description) {
         // Validate inputs
         if (debtorIds == null || debtorIds.isEmpty()) {
             throw new IllegalArgumentException("At least one debtor is required");
         }
-        if (totalAmount == null || totalAmount <= 0) {
+        if (totalAmountCents <= 0) {
             throw new IllegalArgumentException("Total amount must be positive");
         }
 
@@ -76,43 +111,59 @@ public class TransactionService {
         }
         assertSameWg(wg, creditor, "Creditor");
 
-        // Handle percentages - default to equal split if not provided
-        List<Double> finalPercentages = percentages;
-        if (percentages == null || percentages.isEmpty()) {
-            double equalPercentage = 100.0 / debtorIds.size();
-            finalPercentages = debtorIds.stream().map(id -> equalPercentage).toList();
-        } else {
-            // Validate percentages sum to 100
-            double sum = percentages.stream().mapToDouble(Double::doubleValue).sum();
-            if (Math.abs(sum - 100.0) > 0.01) {
-                throw new IllegalArgumentException("Percentages must sum to 100");
-            }
-            if (percentages.size() != debtorIds.size()) {
-                throw new IllegalArgumentException("Number of percentages must match number of debtors");
-            }
-        }
+        long[] weights = resolveSplitWeights(debtorIds, percentages);
 
         // Create transaction (createdBy is the user who created it, not necessarily the
         // creditor)
-        Transaction transaction = new Transaction(creditor, creator, totalAmount, description, wg);
+        Transaction transaction = new Transaction(creditor, creator, totalAmountCents, description, wg);
         transaction = transactionRepository.save(transaction);
 
-        // Create splits
-        for (int i = 0; i < debtorIds.size(); i++) {
-            Long debtorId = debtorIds.get(i);
-            Double percentage = finalPercentages.get(i);
+        addSplits(transaction, wg, debtorIds, weights);
 
-            User debtor = userRepository.findById(debtorId)
-                    .orElseThrow(() -> new RuntimeException("Debtor not found: " + debtorId));
-            assertSameWg(wg, debtor, "Debtor");
+        balanceLedgerService.applyTransaction(transaction, 1);
+        return transaction;
+    }
 
-            double amount = (percentage / 100.0) * totalAmount;
-            TransactionSplit split = new TransactionSplit(transaction, debtor, percentage, amount);
-            transaction.addSplit(split);
-            transactionSplitRepository.save(split);
+    // One transaction per timestamp with the same payer, debtors and shares,
+    // e.g. missed occurrences of a standing order. Inserted in JDBC batches and
+    // booked onto the ledger with one update per pair.
+    @Transactional
+    public List<Transaction> createRecurringTransactionsCents(Long creatorId, Long creditorId, List<Long> debtorIds,
+            List<Double> percentages, long totalAmountCents, String description, List<LocalDateTime> timestamps) {
+        if (debtorIds == null || debtorIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one debtor is required");
+        }
+        if (totalAmountCents <= 0) {
+            throw new IllegalArgumentException("Total amount must be positive");
+        }
+        if (timestamps == null || timestamps.isEmpty()) {
+            return List.of();
         }
 
-        return transaction;
+        User creator = userRepository.findById(creatorId).orElseThrow(() -> new RuntimeException("Creator not found"));
+        User creditor = userRepository.findById(creditorId)
+                .orElseThrow(() -> new RuntimeException("Creditor not found"));
+        WG wg = creator.getWg();
+        if (wg == null) {
+            throw new RuntimeException("Creator must be part of a WG");
+        }
+        assertSameWg(wg, creditor, "Creditor");
+
+        long[] weights = resolveSplitWeights(debtorIds, percentages);
+        List<User> debtors = resolveDebtors(wg, debtorIds);
+
+        List<Transaction> transactions = new ArrayList<>(timestamps.size());
+        for (LocalDateTime timestamp : timestamps) {
+            Transaction transaction = new Transaction(creditor, creator, totalAmountCents, description, wg);
+            transaction.setTimestamp(timestamp);
+            buildSplits(transaction, debtors, weights);
+            transactions.add(transaction);
+        }
+        transactions = transactionRepository.saveAll(transactions);
+
+        balanceLedgerService.applyTransactions(wg.getId(), transactions, 1);
+        balanceCheckpointService.onTransactionChanged(wg.getId(), Collections.min(timestamps));
+        return transactions;
     }
 
     public List<Transaction> getTransactionsByWG(Long wgId) {
@@ -129,18 +180,7 @@ public class TransactionService {
             return List.of();
         }
 
-        List<Transaction> allTransactions = transactionRepository.findByWg(wg);
-
-        // Filter transactions where user is creditor or appears in splits
-        return allTransactions.stream().filter(t -> {
-            // User is creditor
-            if (t.getCreditor().getId().equals(userId)) {
-                return true;
-            }
-            // User is debtor in any split
-            return t.getSplits().stream().anyMatch(split -> split.getDebtor().getId().equals(userId));
-        }).sorted((t1, t2) -> t2.getTimestamp().compareTo(t1.getTimestamp())) // Newest first
-                .toList();
+        return transactionRepository.findVisibleToUser(wg.getId(), userId);
     }
 
     // Positive = otherUser owes currentUser, Negative = currentUser owes otherUser
@@ -155,30 +195,7 @@ public class TransactionService {
             return 0.0;
         }
 
-        List<Transaction> allTransactions = transactionRepository.findByWg(wg);
-        double balance = 0.0;
-
-        for (Transaction transaction : allTransactions) {
-            // Case 1: Current user is creditor, other user is debtor
-            if (transaction.getCreditor().getId().equals(currentUserId)) {
-                for (TransactionSplit split : transaction.getSplits()) {
-                    if (split.getDebtor().getId().equals(otherUserId)) {
-                        balance += split.getAmount(); // Other user owes current user
-                    }
-                }
-            }
-
-            // Case 2: Other user is creditor, current user is debtor
-            if (transaction.getCreditor().getId().equals(otherUserId)) {
-                for (TransactionSplit split : transaction.getSplits()) {
-                    if (split.getDebtor().getId().equals(currentUserId)) {
-                        balance -= split.getAmount(); // Current user owes other user
-                    }
-                }
-            }
-        }
-
-        return balance;
+        return MoneyUtils.toAmount(balanceLedgerService.getBalanceCents(wg.getId(), currentUserId, otherUserId));
     }
 
     public Map<Long, Double> calculateAllBalances(Long currentUserId) {
@@ -190,12 +207,12 @@ public class TransactionService {
             return new HashMap<>();
         }
 
+        Map<Long, Long> ledgerBalances = balanceLedgerService.getBalancesCents(wg.getId(), currentUserId);
         Map<Long, Double> balances = new HashMap<>();
         List<User> members = userRepository.findByWgId(wg.getId());
         for (User member : members) {
             if (!member.getId().equals(currentUserId)) {
-                double balance = calculateBalanceWithUser(currentUserId, member.getId());
-                balances.put(member.getId(), balance);
+                balances.put(member.getId(), MoneyUtils.toAmount(ledgerBalances.getOrDefault(member.getId(), 0L)));
             }
         }
 
@@ -203,8 +220,20 @@ public class TransactionService {
     }
 
     public double getTotalBalance(Long userId) {
-        Map<Long, Double> allBalances = calculateAllBalances(userId);
-        return allBalances.values().stream().mapToDouble(Double::doubleValue).sum();
+        return MoneyUtils.toAmount(getTotalBalanceCents(userId));
+    }
+
+    public long getTotalBalanceCents(Long userId) {
+        User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+        WG wg = user.getWg();
+        if (wg == null || wg.getId() == null) {
+            return 0;
+        }
+        long total = 0;
+        for (long balance : balanceLedgerService.getBalancesCents(wg.getId(), userId).values()) {
+            total += balance;
+        }
+        return total;
     }
 
     // Nur der Creator kann bearbeiten
@@ -228,7 +257,8 @@ public class TransactionService {
         if (debtorIds == null || debtorIds.isEmpty()) {
             throw new IllegalArgumentException("At least one debtor is required");
         }
-        if (totalAmount == null || totalAmount <= 0) {
+        long totalAmountCents = totalAmount != null ? MoneyUtils.toCents(totalAmount) : 0;
+        if (totalAmountCents <= 0) {
             throw new IllegalArgumentException("Total amount must be positive");
         }
 
@@ -237,46 +267,24 @@ public class TransactionService {
                 .orElseThrow(() -> new RuntimeException("Creditor not found"));
         assertSameWg(wg, newCreditor, "Creditor");
 
-        // Handle percentages - default to equal split if not provided
-        List<Double> finalPercentages = percentages;
-        if (percentages == null || percentages.isEmpty()) {
-            double equalPercentage = 100.0 / debtorIds.size();
-            finalPercentages = debtorIds.stream().map(id -> equalPercentage).toList();
-        } else {
-            // Validate percentages sum to 100
-            double sum = percentages.stream().mapToDouble(Double::doubleValue).sum();
-            if (Math.abs(sum - 100.0) > 0.01) {
-                throw new IllegalArgumentException("Percentages must sum to 100");
-            }
-            if (percentages.size() != debtorIds.size()) {
-                throw new IllegalArgumentException("Number of percentages must match number of debtors");
-            }
-        }
+        long[] weights = resolveSplitWeights(debtorIds, percentages);
+
+        // Reverse the old state in the balance ledger before changing anything
+        balanceLedgerService.applyTransaction(transaction, -1);
 
         // Update transaction fields
         transaction.setCreditor(newCreditor);
-        transaction.setTotalAmount(totalAmount);
+        transaction.setTotalAmountCents(totalAmountCents);
         transaction.setDescription(description);
 
         // Clear old splits
-        transactionSplitRepository.deleteAll(transaction.getSplits());
-        transaction.getSplits().clear();
+        deleteSplits(transaction);
 
         // Create new splits
-        for (int i = 0; i < debtorIds.size(); i++) {
-            Long debtorId = debtorIds.get(i);
-            Double percentage = finalPercentages.get(i);
-
-            User debtor = userRepository.findById(debtorId)
-                    .orElseThrow(() -> new RuntimeException("Debtor not found: " + debtorId));
-            assertSameWg(wg, debtor, "Debtor");
-
-            double amount = (percentage / 100.0) * totalAmount;
-            TransactionSplit split = new TransactionSplit(transaction, debtor, percentage, amount);
-            transaction.addSplit(split);
-            transactionSplitRepository.save(split);
-        }
+        addSplits(transaction, wg, debtorIds, weights);
 
+        balanceLedgerService.applyTransaction(transaction, 1);
+        balanceCheckpointService.onTransactionChanged(wg.getId(), transaction.getTimestamp());
         return transactionRepository.save(transaction);
     }
 
@@ -291,11 +299,16 @@ public class TransactionService {
             throw new RuntimeException("Only the creator of the transaction can delete it");
         }
 
-        // Delete all splits first (cascade should handle this, but being explicit)
-        transactionSplitRepository.deleteAll(transaction.getSplits());
+        balanceLedgerService.applyTransaction(transaction, -1);
+
+        // Delete all splits first, so the cascade has nothing left to remove
+        deleteSplits(transaction);
 
         // Delete the transaction
         transactionRepository.delete(transaction);
+        if (transaction.getWg() != null) {
+            balanceCheckpointService.onTransactionChanged(transaction.getWg().getId(), transaction.getTimestamp());
+        }
     }
 
     public Transaction getTransactionById(Long transactionId) {
@@ -326,6 +339,67 @@ public class TransactionService {
         return financeMapper.toViewList(transactions);
     }
 
+    // One keyset page of the user's history with all filters applied in the
+    // database. Pass null for afterTimestamp/afterId to get the first page.
+    public TransactionHistoryPageDTO getTransactionHistoryPage(Long userId, TransactionHistoryFilter filter,
+            LocalDateTime afterTimestamp, Long afterId, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+        WG wg = user.getWg();
+        if (wg == null) {
+            return new TransactionHistoryPageDTO(List.of(), 0, null, null);
+        }
+        TransactionHistoryFilter f = filter != null ? filter : TransactionHistoryFilter.none();
+
+        // A year becomes a timestamp range so the index on timestamp can be used
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        Integer month = f.month();
+        if (f.year() != null) {
+            if (month != null) {
+                from = LocalDate.of(f.year(), month, 1).atStartOfDay();
+                to = from.plusMonths(1);
+            } else {
+                from = LocalDate.of(f.year(), 1, 1).atStartOfDay();
+                to = from.plusYears(1);
+            }
+            month = null;
+        }
+        String search = toLikePattern(f.search());
+
+        // One extra row tells whether there is a next page
+        List<Long> ids = transactionRepository.findHistoryPageIds(wg.getId(), userId, from, to, month, f.payerId(),
+                f.debtorId(), search, afterTimestamp, afterId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) {
+            ids = ids.subList(0, pageSize);
+        }
+        long totalCount = transactionRepository.countHistory(wg.getId(), userId, from, to, month, f.payerId(),
+                f.debtorId(), search);
+        if (ids.isEmpty()) {
+            return new TransactionHistoryPageDTO(List.of(), totalCount, null, null);
+        }
+
+        List<Transaction> transactions = new ArrayList<>(transactionRepository.findWithSplitsByIdIn(ids));
+        transactions.sort(Comparator.comparing(Transaction::getTimestamp).thenComparing(Transaction::getId).reversed());
+        Transaction last = transactions.get(transactions.size() - 1);
+        return new TransactionHistoryPageDTO(financeMapper.toViewList(transactions), totalCount,
+                hasMore ? last.getTimestamp() : null, hasMore ? last.getId() : null);
+    }
+
+    // Years with at least one transaction of the user, newest first
+    public List<Integer> getTransactionHistoryYears(Long userId) {
+        User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+        if (user.getWg() == null) {
+            return List.of();
+        }
+        List<Integer> years = new ArrayList<>(transactionRepository.findHistoryYears(user.getWg().getId(), userId));
+        years.sort(Comparator.reverseOrder());
+        return years;
+    }
+
     public List<BalanceDTO> calculateAllBalancesDTO(Long currentUserId) {
         User currentUser = userRepository.findById(currentUserId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -335,9 +409,10 @@ public class TransactionService {
             return List.of();
         }
 
+        Map<Long, Long> ledgerBalances = balanceLedgerService.getBalancesCents(wg.getId(), currentUserId);
         return userRepository.findByWgId(wg.getId()).stream().filter(member -> !member.getId().equals(currentUserId))
                 .map(member -> {
-                    double balance = calculateBalanceWithUser(currentUserId, member.getId());
+                    long balance = ledgerBalances.getOrDefault(member.getId(), 0L);
                     return financeMapper.toBalanceDTO(member, balance);
                 }).filter(dto -> dto != null).toList();
     }
@@ -351,13 +426,81 @@ public class TransactionService {
             return List.of();
         }
 
+        Map<Long, Long> ledgerBalances = balanceLedgerService.getBalancesCents(wg.getId(), currentUserId);
         return userRepository.findByWgId(wg.getId()).stream().filter(member -> !member.getId().equals(currentUserId))
                 .map(member -> {
-                    double balance = calculateBalanceWithUser(currentUserId, member.getId());
+                    long balance = ledgerBalances.getOrDefault(member.getId(), 0L);
                     return financeMapper.toBalanceView(member, balance);
                 }).filter(dto -> dto != null).toList();
     }
 
+    // Full member-by-member balance matrix from the latest balance checkpoint
+    // and one aggregate query over the splits after it
+    public BalanceMatrixDTO getBalanceMatrix(Long wgId) {
+        return getBalanceMatrix(wgId, null);
+    }
+
+    // Balance matrix as it was at the given time, e.g. at the end of a month
+    public BalanceMatrixDTO getBalanceMatrix(Long wgId, LocalDateTime asOf) {
+        if (wgId == null) {
+            return new BalanceMatrixDTO(List.of(), new long[0][0]);
+        }
+        List<UserSummaryDTO> members = getMemberSummaries(wgId);
+        Map<Long, Integer> indexById = new HashMap<>();
+        for (int i = 0; i < members.size(); i++) {
+            indexById.put(members.get(i).id(), i);
+        }
+
+        long[][] balances = new long[members.size()][members.size()];
+        for (PairwiseBalanceDTO pair : balanceCheckpointService.getPairBalancesAsOf(wgId, asOf)) {
+            Integer creditor = indexById.get(pair.creditorId());
+            Integer debtor = indexById.get(pair.debtorId());
+            if (creditor == null || debtor == null) {
+                continue; // Former members are not part of the matrix
+            }
+            balances[creditor][debtor] += pair.amountCents();
+            balances[debtor][creditor] -= pair.amountCents();
+        }
+        return new BalanceMatrixDTO(members, balances);
+    }
+
+    // Fewest transfers that settle every balance in the WG, exact for small WGs
+    public List<SettlementTransferDTO> getSimplifiedSettlements(Long wgId) {
+        return getSimplifiedSettlements(wgId, DebtSimplifier.Mode.EXACT);
+    }
+
+    // Computed from the net balances in the ledger, the transaction history is
+    // not read. Former members with open balances are included, users deleted
+    // since appear as "Unknown User": leaving them out would make the balances
+    // no longer sum to zero and the settlements would not close the books.
+    public List<SettlementTransferDTO> getSimplifiedSettlements(Long wgId, DebtSimplifier.Mode mode) {
+        if (wgId == null) {
+            return List.of();
+        }
+        Map<Long, Long> netBalances = balanceLedgerService.getNetBalancesCents(wgId);
+        Map<Long, UserSummaryDTO> usersById = new HashMap<>();
+        for (User user : userRepository.findAllById(netBalances.keySet())) {
+            usersById.put(user.getId(), coreMapper.toUserSummary(user));
+        }
+        List<UserSummaryDTO> participants = new ArrayList<>(netBalances.size());
+        long[] balances = new long[netBalances.size()];
+        for (Map.Entry<Long, Long> balance : netBalances.entrySet()) {
+            UserSummaryDTO participant = usersById.get(balance.getKey());
+            if (participant == null) {
+                participant = new UserSummaryDTO(balance.getKey(), "Unknown User", null, null, wgId);
+            }
+            balances[participants.size()] = balance.getValue();
+            participants.add(participant);
+        }
+
+        List<SettlementTransferDTO> settlements = new ArrayList<>();
+        for (DebtSimplifier.Transfer transfer : DebtSimplifier.simplify(balances, mode)) {
+            settlements.add(new SettlementTransferDTO(participants.get(transfer.fromIndex()),
+                    participants.get(transfer.toIndex()), transfer.amountCents()));
+        }
+        return settlements;
+    }
+
     // Balances > 0, optionally excluding a user
     public List<BalanceViewDTO> getAvailableCredits(Long currentUserId, Long excludedUserId) {
         if (currentUserId == null) {
@@ -366,7 +509,7 @@ public class TransactionService {
         return calculateAllBalancesView(currentUserId).stream()
                 .filter(dto -> dto.user() != null && dto.user().id() != null)
                 .filter(dto -> excludedUserId == null || !excludedUserId.equals(dto.user().id()))
-                .filter(dto -> dto.balance() > 0).toList();
+                .filter(dto -> dto.balanceCents() > 0).toList();
     }
 
     @Transactional
@@ -437,6 +580,83 @@ public class TransactionService {
                 "Settlement via Credit Transfer (used credit)");
     }
 
+    // Split weights per debtor - equal shares if no percentages are given
+    private long[] resolveSplitWeights(List<Long> debtorIds, List<Double> percentages) {
+        if (percentages == null || percentages.isEmpty()) {
+            long[] weights = new long[debtorIds.size()];
+            Arrays.fill(weights, 1L);
+            return weights;
+        }
+        // Validate percentages sum to 100
+        double sum = percentages.stream().mapToDouble(Double::doubleValue).sum();
+        if (Math.abs(sum - 100.0) > 0.01) {
+            throw new IllegalArgumentException("Percentages must sum to 100");
+        }
+        if (percentages.size() != debtorIds.size()) {
+            throw new IllegalArgumentException("Number of percentages must match number of debtors");
+        }
+        return MoneyUtils.toPercentageWeights(percentages);
+    }
+
+    // Debtors are loaded in one query and the splits inserted in one batch
+    private void addSplits(Transaction transaction, WG wg, List<Long> debtorIds, long[] weights) {
+        transactionSplitRepository.saveAll(buildSplits(transaction, resolveDebtors(wg, debtorIds), weights));
+    }
+
+    // Amounts and percentages are allocated so they sum exactly to the total
+    // and to 100%
+    private List<TransactionSplit> buildSplits(Transaction transaction, List<User> debtors, long[] weights) {
+        long[] amounts = MoneyUtils.allocate(transaction.getTotalAmountCents(), weights);
+        long[] basisPoints = MoneyUtils.allocate(MoneyUtils.FULL_PERCENTAGE_BP, weights);
+
+        List<TransactionSplit> splits = new ArrayList<>(debtors.size());
+        for (int i = 0; i < debtors.size(); i++) {
+            TransactionSplit split = new TransactionSplit(transaction, debtors.get(i), (int) basisPoints[i],
+                    amounts[i]);
+            transaction.addSplit(split);
+            splits.add(split);
+        }
+        return splits;
+    }
+
+    // Debtors in the order of debtorIds, loaded with one query
+    private List<User> resolveDebtors(WG wg, List<Long> debtorIds) {
+        Map<Long, User> debtorsById = new HashMap<>();
+        for (User debtor : userRepository.findAllById(debtorIds)) {
+            debtorsById.put(debtor.getId(), debtor);
+        }
+
+        List<User> debtors = new ArrayList<>(debtorIds.size());
+        for (Long debtorId : debtorIds) {
+            User debtor = debtorsById.get(debtorId);
+            if (debtor == null) {
+                throw new RuntimeException("Debtor not found: " + debtorId);
+            }
+            assertSameWg(wg, debtor, "Debtor");
+            debtors.add(debtor);
+        }
+        return debtors;
+    }
+
+    // One bulk DELETE instead of a statement per split. The old split entities
+    // are detached so the persistence context holds no deleted rows.
+    private void deleteSplits(Transaction transaction) {
+        transactionSplitRepository.deleteByTransactionId(transaction.getId());
+        for (TransactionSplit split : transaction.getSplits()) {
+            entityManager.detach(split);
+        }
+        transaction.getSplits().clear();
+    }
+
+    // Case-insensitive substring pattern for LIKE ... ESCAPE '!', null if blank
+    private String toLikePattern(String search) {
+        if (search == null || search.isBlank()) {
+            return null;
+        }
+        String escaped = search.trim().toLowerCase().replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+
     private void assertSameWg(WG wg, User user, String role) {
         if (user == null || user.getWg() == null || user.getWg().getId() == null
                 || !user.getWg().getId().equals(wg.getId())) {
@@ -452,6 +672,8 @@ public class TransactionService {
         if (wg == null) {
             return;
         }
+        balanceLedgerService.deleteAllForWg(wg);
+        balanceCheckpointService.deleteAllForWg(wg);
         transactionRepository.deleteByWg(wg);
     }
 }
@@ -617,7 +617,7 @@ public class StandingOrdersDialogController extends com.group_2.ui.core.Controll
                             TextField field = splitFields.get(userId);
                             totalSplit += Double.parseDouble(field.getText().replace(",", "."));
                         }
-                        if (Math.abs(totalSplit - newAmount) > 0.01) {
+                        if (!SplitValidationHelper.isAmountSumValid(totalSplit, newAmount)) {
                             throw new IllegalArgumentException(String
                                     .format("Split amounts (€%.2f) must equal total (€%.2f)", totalSplit, newAmount));
                         }
@@ -6,6 +6,7 @@ import java.util.*;
 
 import com.group_2.dto.core.UserSummaryDTO;
 import com.group_2.model.finance.StandingOrderFrequency;
+import com.group_2.util.SplitValidationHelper;
 
 /**
  * State management for the transaction dialog.
@@ -231,7 +232,7 @@ public class TransactionDialogState {
                     }
                     totalCustom += value;
                 }
-                return Math.abs(totalCustom - totalAmount) < 0.01;
+                return SplitValidationHelper.isAmountSumValid(totalCustom, totalAmount);
 
             default:
                 return false;
@@ -294,7 +295,7 @@ public class TransactionDialogState {
                 if (hasZeroAmount) {
                     return "All participants must have an amount greater than 0. Remove participants with the X button if they shouldn't be included.";
                 }
-                if (Math.abs(totalCustom - totalAmount) >= 0.01) {
+                if (!SplitValidationHelper.isAmountSumValid(totalCustom, totalAmount)) {
                     return String.format("Custom amounts must sum to €%.2f (current: €%.2f)",
                             totalAmount, totalCustom);
                 }
@@ -1,6 +1,8 @@
 package com.group_2.ui.finance;
 
 import com.group_2.dto.core.UserSummaryDTO;
+import com.group_2.dto.finance.TransactionHistoryFilter;
+import com.group_2.dto.finance.TransactionHistoryPageDTO;
 import com.group_2.dto.finance.TransactionViewDTO;
 import com.group_2.dto.finance.TransactionSplitViewDTO;
 import com.group_2.service.finance.TransactionService;
@@ -9,6 +11,7 @@ import com.group_2.util.FormatUtils;
 import com.group_2.util.SessionManager;
 import com.group_2.util.SplitValidationHelper;
 
+import javafx.animation.PauseTransition;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
@@ -17,6 +20,7 @@ import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
+import javafx.util.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,6 +30,7 @@ import java.time.LocalDateTime;
 import java.time.Year;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -77,8 +82,19 @@ public class TransactionHistoryController extends Controller {
     private DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
     private DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
 
-    // Master list of all transactions for the current user
-    private List<TransactionViewDTO> allTransactions = new ArrayList<>();
+    @FXML
+    private Button loadMoreButton;
+
+    // Rows per page fetched from the database
+    private static final int PAGE_SIZE = 50;
+
+    // Filter of the rows currently shown and the keyset cursor of the next page
+    private TransactionHistoryFilter currentFilter = TransactionHistoryFilter.none();
+    private LocalDateTime nextTimestamp;
+    private Long nextId;
+
+    // Waits for a pause in typing before querying the database
+    private final PauseTransition searchDebounce = new PauseTransition(Duration.millis(250));
 
     // Month names for the filter dropdown
     private static final String[] MONTH_NAMES = { "All Months", "January", "February", "March", "April", "May", "June",
@@ -228,6 +244,10 @@ public class TransactionHistoryController extends Controller {
                     updateHistoryTableHeight();
                 });
 
+        // Setup search field listener, debounced so not every keystroke queries
+        searchDebounce.setOnFinished(e -> applyFilters());
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> searchDebounce.playFromStart());
+
         // Load data
         initView();
     }
@@ -252,9 +272,6 @@ public class TransactionHistoryController extends Controller {
             return;
         }
 
-        // Fetch all transactions for current user
-        allTransactions = transactionService.getTransactionsForUserView(currentUserId);
-
         // Populate filter dropdowns
         populateFilters();
 
@@ -276,18 +293,13 @@ public class TransactionHistoryController extends Controller {
         List<String> yearOptions = new ArrayList<>();
         yearOptions.add("All Years");
 
-        Set<Integer> years = new TreeSet<>();
-        for (TransactionViewDTO t : allTransactions) {
-            years.add(t.timestamp().getYear());
-        }
+        Set<Integer> years = new TreeSet<>(Comparator.reverseOrder()); // Newest first
+        years.addAll(transactionService.getTransactionHistoryYears(currentUserId));
         // Always include current year
         int currentYear = Year.now().getValue();
         years.add(currentYear);
 
-        // Add years in descending order (newest first)
-        List<Integer> sortedYears = new ArrayList<>(years);
-        sortedYears.sort((a, b) -> b - a); // Descending
-        for (Integer year : sortedYears) {
+        for (Integer year : years) {
             yearOptions.add(String.valueOf(year));
         }
 
@@ -317,72 +329,75 @@ public class TransactionHistoryController extends Controller {
         debtorFilter.setItems(FXCollections.observableArrayList(members));
         debtorFilter.setValue(members.get(0)); // "All"
         debtorFilter.setOnAction(e -> applyFilters());
-
-        // Setup search field listener (triggers on every keystroke)
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> applyFilters());
     }
 
+    // Filters run in the database, only the first page is loaded
     private void applyFilters() {
+        Long currentUserId = sessionManager.getCurrentUserId();
+        if (currentUserId == null) {
+            return;
+        }
+        searchDebounce.stop();
+
         String selectedYear = yearFilter.getValue();
         String selectedMonth = monthFilter.getValue();
         UserDisplay selectedPayer = payerFilter.getValue();
         UserDisplay selectedDebtor = debtorFilter.getValue();
 
-        List<TransactionViewDTO> filtered = allTransactions.stream().filter(t -> {
-            // Year filter (optional - "All Years" shows all)
-            if (selectedYear != null && !selectedYear.equals("All Years")) {
-                int year = Integer.parseInt(selectedYear);
-                if (t.timestamp().getYear() != year) {
-                    return false;
-                }
-            }
-
-            // Month filter (optional - "All Months" shows all)
-            if (selectedMonth != null && !selectedMonth.equals("All Months")) {
-                int monthIndex = java.util.Arrays.asList(MONTH_NAMES).indexOf(selectedMonth);
-                if (monthIndex > 0 && t.timestamp().getMonthValue() != monthIndex) {
-                    return false;
-                }
-            }
-
-            // Payer filter
-            if (selectedPayer != null && selectedPayer.getUser() != null) {
-                if (t.creditor() == null || !t.creditor().id().equals(selectedPayer.getUser().id())) {
-                    return false;
-                }
-            }
+        // Year filter (optional - "All Years" shows all)
+        Integer year = null;
+        if (selectedYear != null && !selectedYear.equals("All Years")) {
+            year = Integer.parseInt(selectedYear);
+        }
 
-            // Debtor filter
-            if (selectedDebtor != null && selectedDebtor.getUser() != null) {
-                boolean hasDebtor = t.splits().stream()
-                        .anyMatch(s -> s.debtor() != null && s.debtor().id().equals(selectedDebtor.getUser().id()));
-                if (!hasDebtor) {
-                    return false;
-                }
+        // Month filter (optional - "All Months" shows all)
+        Integer month = null;
+        if (selectedMonth != null && !selectedMonth.equals("All Months")) {
+            int monthIndex = java.util.Arrays.asList(MONTH_NAMES).indexOf(selectedMonth);
+            if (monthIndex > 0) {
+                month = monthIndex;
             }
+        }
 
-            // Description search (case-insensitive partial match)
-            String searchText = searchField.getText();
-            if (searchText != null && !searchText.trim().isEmpty()) {
-                String desc = t.description();
-                if (desc == null || !desc.toLowerCase().contains(searchText.toLowerCase().trim())) {
-                    return false;
-                }
-            }
+        Long payerId = selectedPayer != null && selectedPayer.getUser() != null ? selectedPayer.getUser().id() : null;
+        Long debtorId = selectedDebtor != null && selectedDebtor.getUser() != null ? selectedDebtor.getUser().id()
+                : null;
 
-            return true;
-        }).collect(Collectors.toList());
+        currentFilter = new TransactionHistoryFilter(year, month, payerId, debtorId, searchField.getText());
+        TransactionHistoryPageDTO page = transactionService.getTransactionHistoryPage(currentUserId, currentFilter,
+                null, null, PAGE_SIZE);
 
         // Update count text
-        transactionCountText.setText(String.valueOf(filtered.size()));
+        transactionCountText.setText(String.valueOf(page.totalCount()));
 
         // Populate table
-        historyTable.setItems(FXCollections.observableArrayList(filtered));
+        historyTable.setItems(FXCollections.observableArrayList(page.items()));
+        updatePaging(page);
 
         // Update table height
         updateHistoryTableHeight();
     }
 
+    @FXML
+    public void loadMore() {
+        Long currentUserId = sessionManager.getCurrentUserId();
+        if (currentUserId == null || nextId == null) {
+            return;
+        }
+        TransactionHistoryPageDTO page = transactionService.getTransactionHistoryPage(currentUserId, currentFilter,
+                nextTimestamp, nextId, PAGE_SIZE);
+        historyTable.getItems().addAll(page.items());
+        transactionCountText.setText(String.valueOf(page.totalCount()));
+        updatePaging(page);
+    }
+
+    private void updatePaging(TransactionHistoryPageDTO page) {
+        nextTimestamp = page.nextTimestamp();
+        nextId = page.nextId();
+        loadMoreButton.setVisible(page.hasMore());
+        loadMoreButton.setManaged(page.hasMore());
+    }
+
     @FXML
     public void clearFilters() {
         // Reset to show all transactions (All Years, All Months, All Payers, All
@@ -640,7 +655,7 @@ public class TransactionHistoryController extends Controller {
                                 totalSplitAmount += Double.parseDouble(field.getText().replace(",", "."));
                             }
                         }
-                        if (Math.abs(totalSplitAmount - newAmount) > 0.01) {
+                        if (!SplitValidationHelper.isAmountSumValid(totalSplitAmount, newAmount)) {
                             throw new IllegalArgumentException(String.format(
                                     "Split amounts (€%.2f) must equal total (€%.2f)", totalSplitAmount,
                                     newAmount));
@@ -0,0 +1,108 @@
+package com.group_2.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes iCalendar (RFC 5545) content line by line to a Writer, nothing is
+ * buffered beyond the current line. Lines end with CRLF and are folded after
+ * 75 octets of UTF-8; text values are escaped. The caller owns the Writer and
+ * must flush it.
+ */
+public final class IcsWriter {
+
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter UTC_DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneOffset.UTC);
+
+    private final Writer out;
+
+    public IcsWriter(Writer out) {
+        this.out = out;
+    }
+
+    public IcsWriter begin(String component) throws IOException {
+        return raw("BEGIN", component);
+    }
+
+    public IcsWriter end(String component) throws IOException {
+        return raw("END", component);
+    }
+
+    // TEXT value, escaped
+    public IcsWriter text(String name, String value) throws IOException {
+        return raw(name, escape(value));
+    }
+
+    // All-day DATE value, e.g. DTSTART;VALUE=DATE:20250303
+    public IcsWriter date(String name, LocalDate value) throws IOException {
+        return raw(name + ";VALUE=DATE", DATE_FORMAT.format(value));
+    }
+
+    // DATE-TIME value in UTC, e.g. DTSTAMP:20250303T120000Z
+    public IcsWriter dateTime(String name, Instant value) throws IOException {
+        return raw(name, UTC_DATE_TIME_FORMAT.format(value));
+    }
+
+    // Value written as given, for RRULE, UID and other non-TEXT values
+    public IcsWriter raw(String name, String value) throws IOException {
+        writeFolded(name + ":" + value);
+        return this;
+    }
+
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> escaped.append("\\\\");
+                case ';' -> escaped.append("\\;");
+                case ',' -> escaped.append("\\,");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> {
+                    // Dropped, CRLF in the value becomes a single \n
+                }
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    // Continuation lines start with a space, which counts towards their 75
+    // octets. Surrogate pairs are never split.
+    private void writeFolded(String line) throws IOException {
+        int octets = 0;
+        int i = 0;
+        while (i < line.length()) {
+            int codePoint = line.codePointAt(i);
+            int charCount = Character.charCount(codePoint);
+            int length = utf8Length(codePoint);
+            if (octets + length > MAX_LINE_OCTETS) {
+                out.write("\r\n ");
+                octets = 1;
+            }
+            out.write(line, i, charCount);
+            octets += length;
+            i += charCount;
+        }
+        out.write("\r\n");
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        }
+        if (codePoint < 0x800) {
+            return 2;
+        }
+        return codePoint < 0x10000 ? 3 : 4;
+    }
+}
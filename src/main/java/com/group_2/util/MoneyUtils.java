@@ -0,0 +1,101 @@
+package com.group_2.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Fixed-point money helpers: amounts are long cents, percentages are basis
+// points (1% = 100 bp, 100% = 10_000 bp). Conversions from double only happen
+// at the UI/service boundary, everything behind it is exact integer math.
+public final class MoneyUtils {
+
+    public static final int FULL_PERCENTAGE_BP = 10_000;
+
+    // Resolution of split weights derived from percentages (1e-4 percent), fine
+    // enough that amounts entered in cents survive the percentage round trip
+    private static final double PERCENTAGE_WEIGHT_SCALE = 10_000.0;
+
+    private MoneyUtils() {
+        // Utility class - prevent instantiation
+    }
+
+    public static long toCents(double amount) {
+        return Math.round(amount * 100.0);
+    }
+
+    public static double toAmount(long cents) {
+        return cents / 100.0;
+    }
+
+    public static int toBasisPoints(double percentage) {
+        return (int) Math.round(percentage * 100.0);
+    }
+
+    public static double toPercentage(int basisPoints) {
+        return basisPoints / 100.0;
+    }
+
+    // Splits total into parts proportional to weights using the largest
+    // remainder method. Parts always sum to total exactly; leftover units go to
+    // the largest fractional remainders, ties to the lower index.
+    public static long[] allocate(long total, long[] weights) {
+        int n = weights.length;
+        long[] parts = new long[n];
+        if (n == 0) {
+            return parts;
+        }
+        long weightSum = 0;
+        for (long weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights must not be negative");
+            }
+            weightSum += weight;
+        }
+        if (weightSum == 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+
+        long[] remainders = new long[n];
+        long allocated = 0;
+        for (int i = 0; i < n; i++) {
+            // total * weight can't overflow for realistic cents and basis points
+            long product = total * weights[i];
+            parts[i] = Math.floorDiv(product, weightSum);
+            remainders[i] = Math.floorMod(product, weightSum);
+            allocated += parts[i];
+        }
+
+        for (long leftover = total - allocated; leftover > 0; leftover--) {
+            int best = 0;
+            for (int i = 1; i < n; i++) {
+                if (remainders[i] > remainders[best]) {
+                    best = i;
+                }
+            }
+            parts[best]++;
+            remainders[best] = -1; // Each part receives at most one extra unit
+        }
+        return parts;
+    }
+
+    // Integer weights for allocate() from percentage values, null counts as 0
+    public static long[] toPercentageWeights(List<Double> percentages) {
+        long[] weights = new long[percentages.size()];
+        for (int i = 0; i < weights.length; i++) {
+            Double percentage = percentages.get(i);
+            weights[i] = percentage != null ? Math.round(percentage * PERCENTAGE_WEIGHT_SCALE) : 0L;
+        }
+        return weights;
+    }
+
+    // Inverse of toPercentageWeights for a single weight
+    public static double fromPercentageWeight(long weight) {
+        return weight / PERCENTAGE_WEIGHT_SCALE;
+    }
+
+    // Equal shares of total; the first (total % count) parts get one extra unit
+    public static long[] allocateEvenly(long total, int count) {
+        long[] weights = new long[count];
+        Arrays.fill(weights, 1L);
+        return allocate(total, weights);
+    }
+}
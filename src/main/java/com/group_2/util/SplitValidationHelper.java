@@ -6,6 +6,7 @@ import java.util.Collection;
 
 // Utility for split validation in transactions and standing orders
 // Percentage splits must sum to 100%, amount splits must equal total
+// Sums are compared exactly in basis points / cents (see MoneyUtils)
 public final class SplitValidationHelper {
 
     // CSS classes for validation states
@@ -37,17 +38,35 @@ public final class SplitValidationHelper {
     }
 
     public static ValidationResult validatePercentageSplit(Collection<Double> values) {
-        double total = sumValues(values);
-        double remaining = 100.0 - total;
-        ValidationStatus status = determineStatus(remaining);
+        long totalBasisPoints = 0;
+        if (values != null) {
+            for (Double value : values) {
+                if (value != null) {
+                    totalBasisPoints += MoneyUtils.toBasisPoints(value);
+                }
+            }
+        }
+        long remainingBasisPoints = MoneyUtils.FULL_PERCENTAGE_BP - totalBasisPoints;
+        double total = MoneyUtils.toPercentage((int) totalBasisPoints);
+        double remaining = MoneyUtils.toPercentage((int) remainingBasisPoints);
+        ValidationStatus status = determineStatus(remainingBasisPoints);
         String message = String.format("Total: %.1f%% of 100%%\n%.1f%% left", total, remaining);
         return new ValidationResult(total, remaining, status, message);
     }
 
     public static ValidationResult validateAmountSplit(Collection<Double> values, double totalAmount) {
-        double total = sumValues(values);
-        double remaining = totalAmount - total;
-        ValidationStatus status = determineStatus(remaining);
+        long totalCents = 0;
+        if (values != null) {
+            for (Double value : values) {
+                if (value != null) {
+                    totalCents += MoneyUtils.toCents(value);
+                }
+            }
+        }
+        long remainingCents = MoneyUtils.toCents(totalAmount) - totalCents;
+        double total = MoneyUtils.toAmount(totalCents);
+        double remaining = MoneyUtils.toAmount(remainingCents);
+        ValidationStatus status = determineStatus(remainingCents);
         String message = String.format("Total: %.2f€ of %.2f€\n%.2f€ left", total, totalAmount, remaining);
         return new ValidationResult(total, remaining, status, message);
     }
@@ -110,30 +129,22 @@ public final class SplitValidationHelper {
         return Double.parseDouble(text.replace(",", "."));
     }
 
+    // Allows up to 0.1% slack for rounded equal shares like 3 x 33.3%
     public static boolean isPercentageSumValid(double sum) {
-        return Math.abs(sum - 100.0) <= 0.1;
+        return Math.abs(MoneyUtils.toBasisPoints(sum) - MoneyUtils.FULL_PERCENTAGE_BP) <= 10;
     }
 
     public static boolean isAmountSumValid(double sum, double totalAmount) {
-        return Math.abs(sum - totalAmount) <= 0.01;
+        return MoneyUtils.toCents(sum) == MoneyUtils.toCents(totalAmount);
     }
 
     // ==================== Private Helper Methods ====================
 
-    private static double sumValues(Collection<Double> values) {
-        if (values == null) {
-            return 0.0;
-        }
-        return values.stream()
-                .filter(v -> v != null)
-                .mapToDouble(Double::doubleValue)
-                .sum();
-    }
-
-    private static ValidationStatus determineStatus(double remaining) {
-        if (Math.abs(remaining) < 0.01) {
+    // remainingUnits is in cents or basis points
+    private static ValidationStatus determineStatus(long remainingUnits) {
+        if (remainingUnits == 0) {
             return ValidationStatus.SUCCESS;
-        } else if (remaining < 0) {
+        } else if (remainingUnits < 0) {
             return ValidationStatus.ERROR;
         } else {
             return ValidationStatus.MUTED;
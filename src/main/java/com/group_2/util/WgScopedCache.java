@@ -0,0 +1,114 @@
+package com.group_2.util;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache for values that belong to one WG, used by BalanceCache and
+ * CleaningWeekCache. Holds at most maxSize entries and evicts the least
+ * recently used one; invalidate drops every entry of a WG.
+ *
+ * Reads inside a transaction bypass the cache, they may see their own
+ * uncommitted writes. A load that overlaps an invalidation of its WG is
+ * returned but not stored, so a value read before a commit never outlives it.
+ */
+public class WgScopedCache<K, V> {
+
+    public record Stats(long hits, long misses, long evictions, long invalidations, int size) {
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    private final int maxSize;
+    private final Function<K, Long> wgIdOf;
+    private final Map<K, V> entries;
+    // WGs with a load running outside the lock, see get(). An entry lives only
+    // as long as its loads, so the map never outgrows the concurrent readers.
+    private final Map<Long, RunningLoads> runningLoads = new HashMap<>();
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    private static final class RunningLoads {
+        int count;
+        // Incremented on every invalidation while count > 0
+        long generation;
+    }
+
+    public WgScopedCache(int maxSize, Function<K, Long> wgIdOf) {
+        this.maxSize = maxSize;
+        this.wgIdOf = wgIdOf;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > WgScopedCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+        Long wgId = wgIdOf.apply(key);
+        RunningLoads running;
+        long generation;
+        synchronized (this) {
+            V cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            running = runningLoads.computeIfAbsent(wgId, id -> new RunningLoads());
+            running.count++;
+            generation = running.generation;
+        }
+
+        // Loaded outside the lock, the query must not block other WGs
+        V loaded = null;
+        try {
+            loaded = loader.get();
+            return loaded;
+        } finally {
+            synchronized (this) {
+                if (loaded != null && running.generation == generation) {
+                    entries.put(key, loaded);
+                }
+                if (--running.count == 0) {
+                    runningLoads.remove(wgId);
+                }
+            }
+        }
+    }
+
+    public synchronized void invalidate(Long wgId) {
+        RunningLoads running = runningLoads.get(wgId);
+        if (running != null) {
+            running.generation++;
+        }
+        entries.keySet().removeIf(key -> wgIdOf.apply(key).equals(wgId));
+        invalidations++;
+    }
+
+    // Number of WGs with a load in progress
+    public synchronized int getRunningLoadCount() {
+        return runningLoads.size();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, invalidations, entries.size());
+    }
+}
@@ -0,0 +1,152 @@
+package com.group_2.model.cleaning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for MemberQueue.
+ * Most cases rotate first, so the head is no longer at index 0 of the ring.
+ */
+class MemberQueueTest {
+
+    @Test
+    void parsesAndFormatsStoredForm() {
+        // When
+        MemberQueue queue = MemberQueue.parse("12,7,345");
+
+        // Then
+        assertThat(queue.toArray()).containsExactly(12L, 7L, 345L);
+        assertThat(queue.format()).isEqualTo("12,7,345");
+    }
+
+    @Test
+    void parsesEmptyAndNullAsEmptyQueue() {
+        assertThat(MemberQueue.parse("").isEmpty()).isTrue();
+        assertThat(MemberQueue.parse(null).isEmpty()).isTrue();
+        assertThat(new MemberQueue().format()).isEmpty();
+    }
+
+    @Test
+    void rotatesByMovingTheHead() {
+        // Given
+        MemberQueue queue = MemberQueue.of(1, 2, 3);
+
+        // When
+        queue.rotate();
+        queue.rotate();
+
+        // Then
+        assertThat(queue.peek()).isEqualTo(3L);
+        assertThat(queue.toArray()).containsExactly(3L, 1L, 2L);
+        assertThat(queue.format()).isEqualTo("3,1,2");
+    }
+
+    @Test
+    void rotatesWithSpareCapacity() {
+        // Given - removing leaves a free slot behind the tail
+        MemberQueue queue = MemberQueue.of(1, 2, 3, 4);
+        queue.remove(4);
+
+        // When
+        queue.rotate();
+        queue.rotate();
+
+        // Then
+        assertThat(queue.toArray()).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    void addsAtTheEndAfterRotation() {
+        // Given
+        MemberQueue queue = MemberQueue.of(1, 2, 3);
+        queue.rotate();
+
+        // When - grows the full buffer
+        queue.add(4);
+        queue.add(5);
+
+        // Then
+        assertThat(queue.toArray()).containsExactly(2L, 3L, 1L, 4L, 5L);
+    }
+
+    @Test
+    void removesFirstOccurrenceAndKeepsOrder() {
+        // Given
+        MemberQueue queue = MemberQueue.of(1, 2, 3, 2);
+        queue.rotate();
+
+        // When
+        boolean removed = queue.remove(2);
+
+        // Then
+        assertThat(removed).isTrue();
+        assertThat(queue.toArray()).containsExactly(3L, 2L, 1L);
+        assertThat(queue.remove(9)).isFalse();
+    }
+
+    @Test
+    void removesAllMatchingIds() {
+        // Given
+        MemberQueue queue = MemberQueue.of(1, 2, 3, 1, 2, 3);
+        queue.rotate();
+
+        // When
+        queue.removeIf(id -> id == 1);
+
+        // Then
+        assertThat(queue.toArray()).containsExactly(2L, 3L, 2L, 3L);
+    }
+
+    @Test
+    void swapsAndFindsByQueuePosition() {
+        // Given
+        MemberQueue queue = MemberQueue.of(1, 2, 3, 1);
+        queue.rotate();
+
+        // When
+        queue.swap(0, 2);
+
+        // Then - [2,3,1,1] became [1,3,2,1]
+        assertThat(queue.toArray()).containsExactly(1L, 3L, 2L, 1L);
+        assertThat(queue.indexOf(1, 1)).isEqualTo(3);
+        assertThat(queue.get(2)).isEqualTo(2L);
+    }
+
+    @Test
+    void equalsComparesQueueOrderNotLayout() {
+        // Given
+        MemberQueue rotated = MemberQueue.of(3, 1, 2);
+        rotated.rotate();
+        rotated.rotate();
+        rotated.rotate();
+
+        // Then
+        assertThat(rotated).isEqualTo(MemberQueue.of(3, 1, 2)).hasSameHashCodeAs(MemberQueue.of(3, 1, 2));
+        assertThat(rotated).isNotEqualTo(MemberQueue.of(1, 2, 3));
+    }
+
+    @Test
+    void copyIsIndependent() {
+        // Given
+        MemberQueue queue = MemberQueue.of(1, 2, 3);
+
+        // When
+        MemberQueue copy = queue.copy();
+        queue.rotate();
+
+        // Then
+        assertThat(copy.toArray()).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void rejectsAccessOutsideTheQueue() {
+        MemberQueue queue = MemberQueue.of(1);
+
+        assertThatThrownBy(() -> queue.get(1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> new MemberQueue().peek()).isInstanceOf(NoSuchElementException.class);
+    }
+}
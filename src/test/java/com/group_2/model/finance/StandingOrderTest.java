@@ -0,0 +1,42 @@
+package com.group_2.model.finance;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the execution dates of StandingOrder.
+ * Plain JUnit tests with no Spring context.
+ */
+class StandingOrderTest {
+
+    @Test
+    void listsEveryMissedWeeklyExecution() {
+        StandingOrder order = new StandingOrder(null, null, null, 1000, "Rent", StandingOrderFrequency.BI_WEEKLY,
+                LocalDate.of(2024, 1, 1));
+
+        assertThat(order.getDueExecutions(LocalDate.of(2024, 2, 12))).containsExactly(LocalDate.of(2024, 1, 1),
+                LocalDate.of(2024, 1, 15), LocalDate.of(2024, 1, 29), LocalDate.of(2024, 2, 12));
+        assertThat(order.getNextExecution()).isEqualTo(LocalDate.of(2024, 1, 1));
+    }
+
+    @Test
+    void keepsMonthlyPreferenceAcrossShortMonths() {
+        StandingOrder order = new StandingOrder(null, null, null, 1000, "Rent", StandingOrderFrequency.MONTHLY,
+                LocalDate.of(2024, 1, 31), null, true);
+
+        assertThat(order.getDueExecutions(LocalDate.of(2024, 4, 29))).containsExactly(LocalDate.of(2024, 1, 31),
+                LocalDate.of(2024, 2, 28), LocalDate.of(2024, 3, 31));
+        assertThat(order.followingExecution(LocalDate.of(2024, 3, 31))).isEqualTo(LocalDate.of(2024, 4, 30));
+    }
+
+    @Test
+    void returnsNothingBeforeTheNextExecution() {
+        StandingOrder order = new StandingOrder(null, null, null, 1000, "Rent", StandingOrderFrequency.WEEKLY,
+                LocalDate.of(2024, 1, 8));
+
+        assertThat(order.getDueExecutions(LocalDate.of(2024, 1, 7))).isEmpty();
+    }
+}
@@ -3,16 +3,20 @@ package com.group_2.repository.finance;
 import com.group_2.model.User;
 import com.group_2.model.WG;
 import com.group_2.model.finance.Transaction;
+import com.group_2.model.finance.TransactionSplit;
 import com.group_2.repository.UserRepository;
 import com.group_2.repository.WGRepository;
+import com.group_2.testsupport.SqlStatementRecorder;
 import com.group_2.testsupport.TestDataFactory;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -31,6 +35,9 @@ class TransactionRepositoryTest {
     @Autowired
     private WGRepository wgRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private WG wg;
     private User creditor;
 
@@ -90,4 +97,49 @@ class TransactionRepositoryTest {
         assertThat(found).hasSize(1);
         assertThat(found.get(0).getDescription()).isEqualTo("By Creditor");
     }
+
+    @Test
+    void findsTransactionsOfParticipantNewestFirst() {
+        // Given
+        User debtor = userRepository.save(TestDataFactory.user("debtor@example.com", wg));
+        User other = userRepository.save(TestDataFactory.user("other@example.com", wg));
+
+        Transaction asDebtor = TestDataFactory.transaction(creditor, 50.0, "As Debtor", wg);
+        asDebtor.setTimestamp(LocalDateTime.now().minusDays(2));
+        asDebtor.addSplit(new TransactionSplit(asDebtor, debtor, 10000, 5000));
+        transactionRepository.save(asDebtor);
+
+        Transaction asCreditor = TestDataFactory.transaction(debtor, 20.0, "As Creditor", wg);
+        asCreditor.setTimestamp(LocalDateTime.now().minusDays(1));
+        asCreditor.addSplit(new TransactionSplit(asCreditor, other, 10000, 2000));
+        transactionRepository.save(asCreditor);
+
+        Transaction unrelated = TestDataFactory.transaction(creditor, 30.0, "Unrelated", wg);
+        unrelated.addSplit(new TransactionSplit(unrelated, other, 10000, 3000));
+        transactionRepository.save(unrelated);
+
+        // When
+        List<Transaction> found = transactionRepository.findVisibleToUser(wg.getId(), debtor.getId());
+
+        // Then
+        assertThat(found).extracting(Transaction::getDescription).containsExactly("As Creditor", "As Debtor");
+    }
+
+    @Test
+    void participantLookupUsesIndexes() {
+        // Given: the SQL Hibernate generates for findVisibleToUser
+        SqlStatementRecorder.start();
+        transactionRepository.findVisibleToUser(wg.getId(), creditor.getId());
+        String sql = SqlStatementRecorder.stop().stream().filter(statement -> statement.contains("exists"))
+                .findFirst().orElseThrow();
+
+        // When: bound in the order of the query, WG, then the user as creditor and as debtor
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, wg.getId(), creditor.getId(),
+                creditor.getId());
+
+        // Then
+        assertThat(plan).containsPattern("\"TRANSACTIONS\" \"\\w+\"\\s+/\\* PUBLIC\\.\\w+: WG_ID = \\?1")
+                .contains("IDX_SPLIT_DEBTOR_TRANSACTION: DEBTOR_ID = ?3")
+                .doesNotContainIgnoringCase("tableScan");
+    }
 }
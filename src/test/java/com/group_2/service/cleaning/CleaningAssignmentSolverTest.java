@@ -0,0 +1,118 @@
+package com.group_2.service.cleaning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests and a benchmark for CleaningAssignmentSolver.
+ * Plain JUnit tests with no Spring context.
+ */
+class CleaningAssignmentSolverTest {
+
+    @Test
+    void givesHeaviestRoomToLeastLoadedMember() {
+        int[] weights = { 1, 5, 2 };
+        long[] loads = { 10, 0, 4 };
+
+        int[] assignment = CleaningAssignmentSolver.assign(weights, loads, new int[] { -1, -1, -1 });
+
+        assertThat(assignment).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void matchesBruteForceOptimum() {
+        Random random = new Random(11);
+        for (int run = 0; run < 500; run++) {
+            int members = 1 + random.nextInt(6);
+            int rooms = 1 + random.nextInt(members);
+            int[] weights = random.ints(rooms, 1, 11).toArray();
+            long[] loads = random.longs(members, 0, 30).toArray();
+            int[] previous = random.ints(rooms, -1, members).toArray();
+
+            int[] assignment = CleaningAssignmentSolver.assign(weights, loads, previous);
+
+            Set<Integer> distinct = new HashSet<>();
+            Arrays.stream(assignment).forEach(distinct::add);
+            assertThat(distinct).hasSize(rooms);
+            assertThat(cost(weights, loads, assignment))
+                    .isEqualTo(bruteForceCost(weights, loads, 0, new boolean[members]));
+        }
+    }
+
+    @Test
+    void assignsMoreRoomsThanMembersInRounds() {
+        int[] weights = { 1, 1, 1, 1, 1 };
+        long[] loads = { 0, 0 };
+
+        int[] assignment = CleaningAssignmentSolver.assign(weights, loads, new int[] { -1, -1, -1, -1, -1 });
+
+        assertThat(Arrays.stream(assignment).filter(member -> member == 0).count()).isBetween(2L, 3L);
+        assertThat(loads).containsExactly(0, 0);
+    }
+
+    @Test
+    void rotatesRoomsOfEqualWeight() {
+        int[] weights = { 1, 1 };
+        long[] loads = { 0, 0 };
+        int[] previous = { -1, -1 };
+
+        int[] first = CleaningAssignmentSolver.assign(weights, loads, previous);
+        int[] second = CleaningAssignmentSolver.assign(weights, new long[] { 1, 1 }, first);
+
+        assertThat(second).containsExactly(first[1], first[0]);
+    }
+
+    // 50 rooms and 50 members over the two-year generation horizon, which is
+    // the most generateTasksForWeeks does in one call: every week is a full
+    // assignment and the loads never drift further apart than one room weight
+    @Test
+    void staysBalancedForLargeWgsOverLongHorizon() {
+        Random random = new Random(42);
+        int[] weights = random.ints(50, 1, 11).toArray();
+        long[] loads = new long[50];
+        int[] previous = new int[50];
+        Arrays.fill(previous, -1);
+
+        for (int week = 0; week < CleaningScheduleService.MAX_PREGENERATED_WEEKS; week++) {
+            int[] assignment = CleaningAssignmentSolver.assign(weights, loads, previous);
+            assertThat(assignment).hasSize(weights.length).doesNotHaveDuplicates();
+            for (int room = 0; room < weights.length; room++) {
+                loads[assignment[room]] += weights[room];
+                previous[room] = assignment[room];
+            }
+            long spread = Arrays.stream(loads).max().getAsLong() - Arrays.stream(loads).min().getAsLong();
+            assertThat(spread).isLessThanOrEqualTo(10);
+        }
+    }
+
+    private static long cost(int[] weights, long[] loads, int[] assignment) {
+        long cost = 0;
+        for (int room = 0; room < weights.length; room++) {
+            cost += (long) weights[room] * (2 * loads[assignment[room]] + weights[room]);
+        }
+        return cost;
+    }
+
+    private static long bruteForceCost(int[] weights, long[] loads, int room, boolean[] used) {
+        if (room == weights.length) {
+            return 0;
+        }
+        long best = Long.MAX_VALUE;
+        for (int member = 0; member < loads.length; member++) {
+            if (!used[member]) {
+                used[member] = true;
+                long cost = (long) weights[room] * (2 * loads[member] + weights[room])
+                        + bruteForceCost(weights, loads, room + 1, used);
+                best = Math.min(best, cost);
+                used[member] = false;
+            }
+        }
+        return best;
+    }
+}
@@ -2,12 +2,14 @@ package com.group_2.service.cleaning;
 
 import com.group_2.model.User;
 import com.group_2.model.WG;
+import com.group_2.model.cleaning.CleaningAssignmentStrategy;
 import com.group_2.model.cleaning.CleaningTask;
 import com.group_2.model.cleaning.CleaningTaskTemplate;
 import com.group_2.model.cleaning.RecurrenceInterval;
 import com.group_2.model.cleaning.Room;
 import com.group_2.repository.UserRepository;
 import com.group_2.repository.WGRepository;
+import com.group_2.repository.cleaning.CleaningTaskRepository;
 import com.group_2.repository.cleaning.RoomRepository;
 import com.group_2.testsupport.TestDataFactory;
 import jakarta.transaction.Transactional;
@@ -15,10 +17,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -31,6 +36,13 @@ class CleaningScheduleServiceTest {
     @Autowired
     private CleaningScheduleService cleaningScheduleService;
 
+    @Autowired
+    private CleaningTaskGenerationJob cleaningTaskGenerationJob;
+
+    // Adds templates without generating their tasks
+    @Autowired
+    private CleaningTemplateService templateService;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -40,10 +52,34 @@ class CleaningScheduleServiceTest {
     @Autowired
     private RoomRepository roomRepository;
 
+    @Autowired
+    private CleaningTaskRepository cleaningTaskRepository;
+
+    @Autowired
+    private ScheduleChangeProbe scheduleChangeProbe;
+
     private WG wg;
     private User user;
     private Room room;
 
+    // Records how many tasks of the WG exist when a change is announced
+    @TestConfiguration
+    static class ScheduleChangeProbe {
+        private final CleaningTaskRepository cleaningTaskRepository;
+        private final WGRepository wgRepository;
+        private final List<Integer> taskCounts = new ArrayList<>();
+
+        ScheduleChangeProbe(CleaningTaskRepository cleaningTaskRepository, WGRepository wgRepository) {
+            this.cleaningTaskRepository = cleaningTaskRepository;
+            this.wgRepository = wgRepository;
+        }
+
+        @EventListener
+        void onScheduleChanged(CleaningScheduleChangedEvent event) {
+            taskCounts.add(cleaningTaskRepository.findByWg(wgRepository.getReferenceById(event.wgId())).size());
+        }
+    }
+
     @BeforeEach
     void setUp() {
         wg = wgRepository.save(TestDataFactory.wg("Test WG"));
@@ -51,6 +87,16 @@ class CleaningScheduleServiceTest {
         wg.addMitbewohner(user);
         wgRepository.save(wg);
         room = roomRepository.save(TestDataFactory.room("Kitchen", wg));
+        scheduleChangeProbe.taskCounts.clear();
+    }
+
+    @Test
+    void announcesAssignmentAfterTheTaskIsWritten() {
+        // When
+        cleaningScheduleService.assignTask(room, user, wg);
+
+        // Then
+        assertThat(scheduleChangeProbe.taskCounts).containsExactly(1);
     }
 
     @Test
@@ -108,15 +154,147 @@ class CleaningScheduleServiceTest {
     @Test
     void generatesTasksFromTemplate() {
         // Given - need a user in WG for task assignment
-        cleaningScheduleService.addTemplate(wg, room, DayOfWeek.MONDAY, RecurrenceInterval.WEEKLY);
+        templateService.addTemplate(wg, room, DayOfWeek.MONDAY, RecurrenceInterval.WEEKLY);
         LocalDate weekStart = cleaningScheduleService.getCurrentWeekStart();
 
         // When
+        cleaningScheduleService.generateUpcomingWeeks(wg);
+
+        // Then
         List<CleaningTask> tasks = cleaningScheduleService.getTasksForWeek(wg, weekStart);
+        assertThat(tasks).singleElement().satisfies(task -> assertThat(task.getAssignee()).isEqualTo(user));
+    }
+
+    @Test
+    void addingTemplateGeneratesUpcomingWeeks() {
+        // Given
+        LocalDate weekStart = cleaningScheduleService.getCurrentWeekStart();
+
+        // When
+        cleaningScheduleService.addTemplateByRoomId(wg, room.getId(), DayOfWeek.MONDAY, RecurrenceInterval.WEEKLY);
+
+        // Then - current week plus the default eight weeks ahead
+        assertThat(cleaningTaskRepository.findByWgAndWeekStartDateBetween(wg, weekStart, weekStart.plusWeeks(9)))
+                .hasSize(9);
+    }
+
+    @Test
+    void editingTemplateMovesEveryPregeneratedWeek() {
+        // Given
+        CleaningTaskTemplate template = cleaningScheduleService.addTemplate(wg, room, DayOfWeek.MONDAY,
+                RecurrenceInterval.WEEKLY);
+        LocalDate weekStart = cleaningScheduleService.getCurrentWeekStart();
+        cleaningScheduleService.generateTasksForWeeks(wg, 12);
+
+        // When
+        cleaningScheduleService.updateTemplate(template, DayOfWeek.WEDNESDAY, RecurrenceInterval.BI_WEEKLY);
+
+        // Then - every other week is kept, on the new day
+        List<CleaningTask> tasks = cleaningTaskRepository.findByWgAndWeekStartDateBetween(wg, weekStart,
+                weekStart.plusWeeks(11));
+        assertThat(tasks).extracting(CleaningTask::getWeekStartDate).containsExactlyInAnyOrder(weekStart,
+                weekStart.plusWeeks(2), weekStart.plusWeeks(4), weekStart.plusWeeks(6), weekStart.plusWeeks(8),
+                weekStart.plusWeeks(10));
+        assertThat(tasks).allSatisfy(task -> assertThat(task.getDueDate().getDayOfWeek())
+                .isEqualTo(DayOfWeek.WEDNESDAY));
+    }
+
+    @Test
+    void readingAWeekDoesNotGenerateTasks() {
+        // Given
+        templateService.addTemplate(wg, room, DayOfWeek.MONDAY, RecurrenceInterval.WEEKLY);
+
+        // When/Then
+        assertThat(cleaningScheduleService.getTasksForWeek(wg, cleaningScheduleService.getCurrentWeekStart()))
+                .isEmpty();
+    }
+
+    @Test
+    void generationJobCoversEveryWgWithTemplate() {
+        // Given
+        templateService.addTemplate(wg, room, DayOfWeek.MONDAY, RecurrenceInterval.WEEKLY);
+        LocalDate weekStart = cleaningScheduleService.getCurrentWeekStart();
+
+        // When
+        cleaningTaskGenerationJob.generateUpcomingWeeks();
+
+        // Then - current week plus the default eight weeks ahead
+        assertThat(cleaningScheduleService.getTasksForWeek(wg, weekStart)).hasSize(1);
+        assertThat(cleaningScheduleService.getTasksForWeek(wg, weekStart.plusWeeks(8))).hasSize(1);
+        assertThat(cleaningScheduleService.getTasksForWeek(wg, weekStart.plusWeeks(9))).isEmpty();
+        assertThat(cleaningTaskGenerationJob.generateUpcomingWeeks()).isZero();
+    }
+
+    @Test
+    void generatesTasksForSeveralWeeksInQueueOrder() {
+        // Given
+        User second = userRepository.save(TestDataFactory.user("second@example.com", wg));
+        wg.addMitbewohner(second);
+        wgRepository.save(wg);
+        templateService.addTemplate(wg, room, DayOfWeek.MONDAY, RecurrenceInterval.WEEKLY);
+        LocalDate weekStart = cleaningScheduleService.getCurrentWeekStart();
 
-        // Then - task generation depends on having members and queue setup
-        // This is complex integration, just verify the method runs without error
-        assertThat(tasks).isNotNull();
+        // When
+        List<CleaningTask> tasks = cleaningScheduleService.generateTasksForWeeks(wg, 4);
+
+        // Then - members take turns week by week
+        assertThat(tasks).extracting(CleaningTask::getWeekStartDate).containsExactly(weekStart,
+                weekStart.plusWeeks(1), weekStart.plusWeeks(2), weekStart.plusWeeks(3));
+        assertThat(tasks).extracting(task -> task.getAssignee().getId()).containsExactly(user.getId(),
+                second.getId(), user.getId(), second.getId());
+        assertThat(cleaningScheduleService.getTasksForWeek(wg, weekStart.plusWeeks(2))).hasSize(1);
+    }
+
+    @Test
+    void generatesOnlyMissingWeeks() {
+        // Given
+        templateService.addTemplate(wg, room, DayOfWeek.MONDAY, RecurrenceInterval.WEEKLY);
+        cleaningScheduleService.generateFromTemplateForWeek(wg, cleaningScheduleService.getCurrentWeekStart());
+
+        // When
+        List<CleaningTask> tasks = cleaningScheduleService.generateTasksForWeeks(wg, 3);
+
+        // Then
+        assertThat(tasks).hasSize(2);
+        assertThat(cleaningScheduleService.generateTasksForWeeks(wg, 3)).isEmpty();
+    }
+
+    @Test
+    void balancedStrategyGivesHeavyRoomToLessLoadedMember() {
+        // Given - the user cleaned the heavy kitchen last week
+        User second = userRepository.save(TestDataFactory.user("second@example.com", wg));
+        wg.addMitbewohner(second);
+        wgRepository.save(wg);
+        room.setCleaningWeight(3);
+        Room hall = roomRepository.save(TestDataFactory.room("Hall", wg));
+        templateService.addTemplate(wg, room, DayOfWeek.MONDAY, RecurrenceInterval.WEEKLY);
+        templateService.addTemplate(wg, hall, DayOfWeek.MONDAY, RecurrenceInterval.WEEKLY);
+        LocalDate weekStart = cleaningScheduleService.getCurrentWeekStart();
+        cleaningTaskRepository.save(new CleaningTask(room, user, wg, weekStart.minusWeeks(1)));
+        cleaningScheduleService.setAssignmentStrategy(wg.getId(), CleaningAssignmentStrategy.BALANCED);
+
+        // When
+        List<CleaningTask> tasks = cleaningScheduleService.generateTasksForWeeks(wg, 1);
+
+        // Then
+        assertThat(tasks).hasSize(2).allSatisfy(task -> assertThat(task.getAssignee().getId())
+                .isEqualTo(task.getRoom().getId().equals(room.getId()) ? second.getId() : user.getId()));
+    }
+
+    @Test
+    void membershipResetKeepsPastWeeks() {
+        // Given
+        cleaningScheduleService.addTemplate(wg, room, DayOfWeek.MONDAY, RecurrenceInterval.WEEKLY);
+        LocalDate weekStart = cleaningScheduleService.getCurrentWeekStart();
+        cleaningTaskRepository.save(new CleaningTask(room, user, wg, weekStart.minusWeeks(1)));
+        cleaningScheduleService.generateUpcomingWeeks(wg);
+
+        // When
+        cleaningScheduleService.resetScheduleForMembershipChange(wg);
+
+        // Then
+        assertThat(cleaningTaskRepository.findByWgAndWeekStartDate(wg, weekStart.minusWeeks(1))).hasSize(1);
+        assertThat(cleaningScheduleService.getTasksForWeek(wg, weekStart)).hasSize(1);
     }
 
     @Test
@@ -0,0 +1,127 @@
+package com.group_2.service.cleaning;
+
+import com.group_2.dto.cleaning.AssigneeCleaningStatsDTO;
+import com.group_2.dto.cleaning.CleaningStatsDTO;
+import com.group_2.dto.cleaning.MonthlyCleaningStatsDTO;
+import com.group_2.dto.cleaning.RoomCleaningStatsDTO;
+import com.group_2.model.User;
+import com.group_2.model.WG;
+import com.group_2.model.cleaning.CleaningTask;
+import com.group_2.model.cleaning.Room;
+import com.group_2.repository.UserRepository;
+import com.group_2.repository.WGRepository;
+import com.group_2.repository.cleaning.CleaningTaskRepository;
+import com.group_2.repository.cleaning.RoomRepository;
+import com.group_2.testsupport.TestDataFactory;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class CleaningStatisticsServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 3, 3);
+
+    @Autowired
+    private CleaningStatisticsService cleaningStatisticsService;
+
+    @Autowired
+    private CleaningTaskRepository cleaningTaskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    private WG wg;
+    private User alice;
+    private User bob;
+    private Room bath;
+    private Room kitchen;
+
+    @BeforeEach
+    void setUp() {
+        wg = wgRepository.save(TestDataFactory.wg("Stats WG"));
+        alice = userRepository.save(TestDataFactory.user("Alice", "A", "alice@example.com", "password123", wg));
+        bob = userRepository.save(TestDataFactory.user("Bob", "B", "bob@example.com", "password123", wg));
+        bath = roomRepository.save(TestDataFactory.room("Bath", wg));
+        kitchen = roomRepository.save(TestDataFactory.room("Kitchen", wg));
+
+        // Alice: one done two days late, one done a day early
+        cleaningTaskRepository.save(task(bath, alice, MONDAY, 2, 4));
+        cleaningTaskRepository.save(task(kitchen, alice, MONDAY, 2, 1));
+        // Bob: one never done in the last week of March
+        cleaningTaskRepository.save(task(bath, bob, MONDAY.plusWeeks(4), 0, null));
+    }
+
+    private CleaningTask task(Room room, User assignee, LocalDate weekStart, int dueDay, Integer completedDay) {
+        CleaningTask task = new CleaningTask(room, assignee, wg, weekStart, weekStart.plusDays(dueDay));
+        if (completedDay != null) {
+            task.setCompleted(true);
+            task.setCompletedAt(weekStart.plusDays(completedDay).atTime(18, 0));
+        }
+        return task;
+    }
+
+    @Test
+    void aggregatesByAssignee() {
+        // When
+        List<AssigneeCleaningStatsDTO> stats = cleaningStatisticsService.getStatsByAssignee(wg.getId(), MONDAY,
+                MONDAY.plusYears(1));
+
+        // Then
+        assertThat(stats).extracting(AssigneeCleaningStatsDTO::assigneeName).containsExactly("Alice A", "Bob B");
+        assertThat(stats.get(0).stats()).isEqualTo(new CleaningStatsDTO(2, 2, 1, 0.5));
+        assertThat(stats.get(1).stats()).isEqualTo(new CleaningStatsDTO(1, 0, 1, null));
+    }
+
+    @Test
+    void aggregatesByRoomAndMonth() {
+        // When
+        List<RoomCleaningStatsDTO> byRoom = cleaningStatisticsService.getStatsByRoom(wg.getId(), MONDAY,
+                MONDAY.plusYears(1));
+        List<MonthlyCleaningStatsDTO> byMonth = cleaningStatisticsService.getStatsByMonth(wg.getId(), MONDAY,
+                MONDAY.plusYears(1));
+
+        // Then
+        assertThat(byRoom).extracting(RoomCleaningStatsDTO::roomName).containsExactly("Bath", "Kitchen");
+        assertThat(byRoom.get(0).stats()).isEqualTo(new CleaningStatsDTO(2, 1, 2, 2.0));
+        assertThat(byRoom.get(1).stats().averageCompletionDelayDays()).isEqualTo(-1.0);
+        assertThat(byMonth).singleElement().satisfies(month -> {
+            assertThat(month.month()).isEqualTo(YearMonth.of(2025, 3));
+            assertThat(month.stats().assignedTasks()).isEqualTo(3);
+        });
+    }
+
+    @Test
+    void countsOnlyWeeksInRange() {
+        // When
+        List<AssigneeCleaningStatsDTO> stats = cleaningStatisticsService.getStatsByAssignee(wg.getId(),
+                MONDAY.plusWeeks(1), MONDAY.plusWeeks(4));
+
+        // Then
+        assertThat(stats).singleElement().satisfies(s -> assertThat(s.assigneeId()).isEqualTo(bob.getId()));
+    }
+
+    @Test
+    void rejectsReversedRange() {
+        assertThatThrownBy(() -> cleaningStatisticsService.getStatsByRoom(wg.getId(), MONDAY, MONDAY.minusDays(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
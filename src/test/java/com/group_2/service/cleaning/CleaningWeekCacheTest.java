@@ -0,0 +1,108 @@
+package com.group_2.service.cleaning;
+
+import com.group_2.dto.cleaning.CleaningTaskDTO;
+import com.group_2.dto.cleaning.WeekStatsDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CleaningWeekCache.
+ * Plain JUnit tests with no Spring context, so no transaction is active.
+ */
+class CleaningWeekCacheTest {
+
+    private static final LocalDate WEEK = LocalDate.of(2025, 3, 3);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Supplier<List<CleaningTaskDTO>> loader = () -> {
+        loads.incrementAndGet();
+        return List.of(task(1L, 10L, true), task(2L, 10L, false), task(3L, 20L, false));
+    };
+
+    private static CleaningTaskDTO task(Long id, Long assigneeId, boolean completed) {
+        return new CleaningTaskDTO(id, 1L, "Kitchen", assigneeId, "User", WEEK, WEEK, completed, false);
+    }
+
+    @Test
+    void servesTasksAndStatsFromOneLoad() {
+        CleaningWeekCache cache = new CleaningWeekCache(10);
+
+        CleaningWeekCache.WeekSnapshot first = cache.get(1L, WEEK, loader);
+        CleaningWeekCache.WeekSnapshot second = cache.get(1L, WEEK, loader);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(first.tasks()).hasSize(3);
+        assertThat(first.statsFor(10L)).isEqualTo(new WeekStatsDTO(3, 1, 2));
+        assertThat(first.statsFor(30L)).isEqualTo(new WeekStatsDTO(3, 1, 0));
+        assertThat(cache.getStats().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidatesAllWeeksOfTheChangedWgOnly() {
+        CleaningWeekCache cache = new CleaningWeekCache(10);
+        cache.get(1L, WEEK, loader);
+        cache.get(1L, WEEK.plusWeeks(1), loader);
+        cache.get(2L, WEEK, loader);
+
+        cache.onScheduleChanged(new CleaningScheduleChangedEvent(1L));
+        CleaningWeekCache.WeekSnapshot reloaded = cache.get(1L, WEEK, loader);
+        cache.get(1L, WEEK.plusWeeks(1), loader);
+        cache.get(2L, WEEK, loader);
+
+        assertThat(loads).hasValue(5);
+        assertThat(reloaded.tasks()).hasSize(3);
+        assertThat(cache.getStats().invalidations()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWeek() {
+        CleaningWeekCache cache = new CleaningWeekCache(2);
+        cache.get(1L, WEEK, loader);
+        cache.get(1L, WEEK.plusWeeks(1), loader);
+        cache.get(1L, WEEK, loader);
+
+        cache.get(1L, WEEK.plusWeeks(2), loader);
+        cache.get(1L, WEEK, loader);
+        cache.get(1L, WEEK.plusWeeks(1), loader);
+
+        assertThat(loads).hasValue(4);
+        assertThat(cache.getStats().evictions()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotStoreLoadThatOverlapsInvalidation() {
+        CleaningWeekCache cache = new CleaningWeekCache(10);
+
+        cache.get(1L, WEEK, () -> {
+            cache.invalidate(1L); // Commit of a writer while the week is read
+            return loader.get();
+        });
+        cache.get(1L, WEEK, loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void keepsNoStateForWgsWithoutRunningLoad() {
+        CleaningWeekCache cache = new CleaningWeekCache(2);
+
+        for (long wgId = 1; wgId <= 1000; wgId++) {
+            cache.get(wgId, WEEK, () -> {
+                assertThat(cache.getRunningLoadCount()).isEqualTo(1);
+                return loader.get();
+            });
+            cache.invalidate(wgId);
+        }
+
+        assertThat(cache.getRunningLoadCount()).isZero();
+        assertThat(cache.getStats().size()).isZero();
+    }
+}
@@ -0,0 +1,172 @@
+package com.group_2.service.cleaning;
+
+import com.group_2.model.User;
+import com.group_2.model.WG;
+import com.group_2.model.cleaning.CleaningTask;
+import com.group_2.model.cleaning.RecurrenceInterval;
+import com.group_2.model.cleaning.Room;
+import com.group_2.repository.UserRepository;
+import com.group_2.repository.WGRepository;
+import com.group_2.repository.cleaning.CleaningTaskRepository;
+import com.group_2.repository.cleaning.RoomRepository;
+import com.group_2.service.core.WGService;
+import com.group_2.testsupport.TestDataFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrency tests for the queue rotation of the task generation. Not
+ * transactional: every generation commits in its own transaction, the data is
+ * removed afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class QueueManagementServiceTest {
+
+    private static final int THREADS = 8;
+    private static final int GENERATIONS_PER_THREAD = 6;
+    private static final int WEEKS = 12;
+
+    @Autowired
+    private CleaningScheduleService cleaningScheduleService;
+
+    @Autowired
+    private CleaningTemplateService templateService;
+
+    @Autowired
+    private WGService wgService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private CleaningTaskRepository cleaningTaskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Long wgId;
+    private List<Long> memberIds;
+    private List<Long> roomIds;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            WG wg = wgRepository.save(TestDataFactory.wg("Stress WG"));
+            memberIds = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                User member = userRepository.save(TestDataFactory.user("stress" + i + "@example.com", wg));
+                wg.addMitbewohner(member);
+                memberIds.add(member.getId());
+            }
+            wgRepository.save(wg);
+            roomIds = new ArrayList<>();
+            for (String name : List.of("Kitchen", "Bathroom")) {
+                Room room = roomRepository.save(TestDataFactory.room(name, wg));
+                templateService.addTemplate(wg, room, DayOfWeek.MONDAY, RecurrenceInterval.WEEKLY);
+                roomIds.add(room.getId());
+            }
+            wgId = wg.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transaction.executeWithoutResult(status -> wgService.deleteWG(wgId));
+        userRepository.deleteAllById(memberIds);
+    }
+
+    @Test
+    void generatesConcurrentlyWithoutLostOrDoubleRotations() throws Exception {
+        // Given
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService workers = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int thread = 0; thread < THREADS; thread++) {
+            int offset = thread;
+            futures.add(workers.submit(() -> {
+                start.await();
+                for (int i = 0; i < GENERATIONS_PER_THREAD; i++) {
+                    cleaningScheduleService.generateTasksForWeeks(wgId, (offset + i) % WEEKS + 1);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        cleaningScheduleService.generateTasksForWeeks(wgId, WEEKS);
+
+        // Then
+        List<CleaningTask> tasks = findTasks();
+        assertThat(tasks).hasSize(WEEKS * roomIds.size());
+        for (Long roomId : roomIds) {
+            List<CleaningTask> roomTasks = tasks.stream().filter(task -> task.getRoom().getId().equals(roomId))
+                    .sorted(Comparator.comparing(CleaningTask::getWeekStartDate)).toList();
+            assertThat(roomTasks).extracting(CleaningTask::getWeekStartDate).doesNotHaveDuplicates();
+            List<Long> assigneeIds = roomTasks.stream().map(task -> task.getAssignee().getId()).toList();
+            assertThat(assigneeIds.subList(0, memberIds.size())).containsExactlyInAnyOrderElementsOf(memberIds);
+            for (int week = memberIds.size(); week < WEEKS; week++) {
+                assertThat(assigneeIds.get(week)).isEqualTo(assigneeIds.get(week - memberIds.size()));
+            }
+        }
+    }
+
+    @Test
+    void rollsBackWithSurroundingTransaction() {
+        // When
+        Long rolledBack = transaction.execute(status -> {
+            List<CleaningTask> generated = cleaningScheduleService.generateTasksForWeeks(wgId, 1);
+            status.setRollbackOnly();
+            return firstAssigneeId(generated);
+        });
+
+        // Then
+        Long afterRollback = firstAssigneeId(cleaningScheduleService.generateTasksForWeeks(wgId, 1));
+        assertThat(afterRollback).isEqualTo(rolledBack);
+        assertThat(findTasks()).hasSize(roomIds.size());
+    }
+
+    private Long firstAssigneeId(List<CleaningTask> tasks) {
+        return tasks.stream().filter(task -> task.getRoom().getId().equals(roomIds.get(0)))
+                .map(task -> task.getAssignee().getId()).findFirst().orElseThrow();
+    }
+
+    private List<CleaningTask> findTasks() {
+        return transaction
+                .execute(status -> cleaningTaskRepository.findByWg(wgRepository.findById(wgId).orElseThrow()));
+    }
+}
@@ -0,0 +1,102 @@
+package com.group_2.service.cleaning;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for RoomQueueLocks.
+ * Plain JUnit tests with no Spring context; transactions are simulated by
+ * initialising and completing the transaction synchronization by hand.
+ */
+class RoomQueueLocksTest {
+
+    private final RoomQueueLocks locks = new RoomQueueLocks(64, 50);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            complete();
+        }
+    }
+
+    private static void complete() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    // Tries the lock in a simulated transaction on another thread
+    private boolean lockableFromOtherThread(Long wgId, Long roomId) {
+        return CompletableFuture.supplyAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                locks.lockUntilCompletion(wgId, roomId);
+                return true;
+            } catch (CannotAcquireLockException e) {
+                return false;
+            } finally {
+                complete();
+            }
+        }).join();
+    }
+
+    @Test
+    void holdsLockUntilTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+        locks.lockUntilCompletion(1L, 10L);
+
+        assertThat(lockableFromOtherThread(1L, 10L)).isFalse();
+
+        complete();
+        assertThat(lockableFromOtherThread(1L, 10L)).isTrue();
+    }
+
+    @Test
+    void isReentrantWithinTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        locks.lockUntilCompletion(1L, 10L);
+        locks.lockAllUntilCompletion(1L, List.of(10L, 11L));
+
+        complete();
+        assertThat(lockableFromOtherThread(1L, 10L)).isTrue();
+        assertThat(lockableFromOtherThread(1L, 11L)).isTrue();
+    }
+
+    @Test
+    void doesNotBlockRoomOnOtherStripe() {
+        Long otherRoomId = 11L;
+        while (locks.stripeIndex(1L, otherRoomId) == locks.stripeIndex(1L, 10L)) {
+            otherRoomId++;
+        }
+        TransactionSynchronizationManager.initSynchronization();
+        locks.lockUntilCompletion(1L, 10L);
+
+        assertThat(lockableFromOtherThread(1L, otherRoomId)).isTrue();
+    }
+
+    @Test
+    void spreadsRoomsOfOneWgOverStripes() {
+        Set<Integer> stripes = new HashSet<>();
+        for (long roomId = 1; roomId <= 64; roomId++) {
+            stripes.add(locks.stripeIndex(7L, roomId));
+        }
+
+        assertThat(stripes).hasSizeGreaterThan(32);
+    }
+
+    @Test
+    void rejectsLockOutsideTransaction() {
+        assertThatThrownBy(() -> locks.lockUntilCompletion(1L, 10L)).isInstanceOf(IllegalStateException.class);
+    }
+}
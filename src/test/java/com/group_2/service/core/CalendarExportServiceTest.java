@@ -0,0 +1,175 @@
+package com.group_2.service.core;
+
+import com.group_2.model.User;
+import com.group_2.model.WG;
+import com.group_2.model.cleaning.CleaningTaskTemplate;
+import com.group_2.model.cleaning.RecurrenceInterval;
+import com.group_2.model.cleaning.Room;
+import com.group_2.model.finance.StandingOrder;
+import com.group_2.model.finance.StandingOrderExecution;
+import com.group_2.model.finance.StandingOrderFrequency;
+import com.group_2.repository.UserRepository;
+import com.group_2.repository.WGRepository;
+import com.group_2.repository.cleaning.RoomRepository;
+import com.group_2.repository.finance.StandingOrderExecutionRepository;
+import com.group_2.repository.finance.StandingOrderRepository;
+import com.group_2.service.cleaning.CleaningScheduleService;
+import com.group_2.service.cleaning.CleaningTemplateService;
+import com.group_2.testsupport.TestDataFactory;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class CalendarExportServiceTest {
+
+    @Autowired
+    private CalendarExportService calendarExportService;
+
+    @Autowired
+    private CleaningScheduleService cleaningScheduleService;
+
+    @Autowired
+    private CleaningTemplateService templateService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private StandingOrderRepository standingOrderRepository;
+
+    @Autowired
+    private StandingOrderExecutionRepository executionRepository;
+
+    private WG wg;
+    private User alice;
+    private User bob;
+    private StandingOrder rent;
+    private CleaningTaskTemplate kitchenTemplate;
+
+    @BeforeEach
+    void setUp() {
+        wg = wgRepository.save(TestDataFactory.wg("Test WG"));
+        alice = userRepository.save(TestDataFactory.user("Alice", "A", "alice@example.com", "password123", wg));
+        bob = userRepository.save(TestDataFactory.user("Bob", "B", "bob@example.com", "password123", wg));
+        wg.addMitbewohner(alice);
+        wg.addMitbewohner(bob);
+        wgRepository.save(wg);
+        Room kitchen = roomRepository.save(TestDataFactory.room("Kitchen", wg));
+        kitchenTemplate = templateService.addTemplate(wg, kitchen, DayOfWeek.MONDAY, RecurrenceInterval.WEEKLY);
+        cleaningScheduleService.generateTasksForWeeks(wg, 2);
+
+        rent = new StandingOrder(alice, alice, wg, 60000, "Rent", StandingOrderFrequency.MONTHLY,
+                LocalDate.now().plusMonths(1).withDayOfMonth(1), 1, false);
+        rent.setDebtors(List.of(bob.getId()), new long[] { 10_000 });
+        standingOrderRepository.save(rent);
+        executionRepository.save(new StandingOrderExecution(rent.getId(), wg.getId(),
+                LocalDate.now().withDayOfMonth(1), LocalDateTime.now()));
+    }
+
+    // SEQUENCE of the event with the given UID
+    private static int sequenceOf(String ics, String uid) {
+        String event = ics.substring(ics.indexOf("UID:" + uid));
+        event = event.substring(0, event.indexOf("END:VEVENT"));
+        String line = event.lines().filter(l -> l.startsWith("SEQUENCE:")).findFirst().orElseThrow();
+        return Integer.parseInt(line.substring("SEQUENCE:".length()));
+    }
+
+    private String exportWg() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        calendarExportService.exportWg(wg.getId(), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void exportsTasksTemplatesAndStandingOrdersOfWg() throws IOException {
+        // When
+        String ics = exportWg();
+
+        // Then
+        assertThat(ics).startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n").endsWith("END:VCALENDAR\r\n");
+        assertThat(ics.split("BEGIN:VEVENT", -1)).hasSize(6);
+        assertThat(ics).contains("SUMMARY:Cleaning: Kitchen (Alice A)\r\n", "SUMMARY:Cleaning: Kitchen (Bob B)\r\n");
+        assertThat(ics).contains("DTSTART;VALUE=DATE:"
+                + cleaningScheduleService.getCurrentWeekStart().plusWeeks(2).toString().replace("-", "")
+                + "\r\nTRANSP:TRANSPARENT\r\nSEQUENCE:0\r\nRRULE:FREQ=WEEKLY\r\n");
+        assertThat(ics).contains("UID:standing-order-" + rent.getId() + "@", "RRULE:FREQ=MONTHLY;BYMONTHDAY=1\r\n");
+        assertThat(ics).contains("UID:standing-order-" + rent.getId() + "-"
+                + LocalDate.now().withDayOfMonth(1).toString().replace("-", "") + "@");
+    }
+
+    @Test
+    void keepsUidsStableBetweenExports() throws IOException {
+        // When
+        List<String> first = exportWg().lines().filter(line -> line.startsWith("UID:")).toList();
+        List<String> second = exportWg().lines().filter(line -> line.startsWith("UID:")).toList();
+
+        // Then
+        assertThat(first).hasSize(5).doesNotHaveDuplicates().isEqualTo(second);
+    }
+
+    @Test
+    void raisesSequenceOfChangedSeries() throws IOException {
+        // Given
+        String before = exportWg();
+
+        // When
+        rent.setDescription("Rent and heating");
+        standingOrderRepository.saveAndFlush(rent);
+        templateService.updateTemplate(kitchenTemplate, DayOfWeek.TUESDAY, RecurrenceInterval.WEEKLY);
+        wgRepository.flush();
+        String after = exportWg();
+
+        // Then
+        String orderUid = "standing-order-" + rent.getId() + "@";
+        String templateUid = "cleaning-template-" + kitchenTemplate.getId() + "@";
+        assertThat(sequenceOf(after, orderUid)).isEqualTo(sequenceOf(before, orderUid) + 1);
+        assertThat(sequenceOf(after, templateUid)).isEqualTo(sequenceOf(before, templateUid) + 1);
+    }
+
+    @Test
+    void exportsOnlyTheUsersTasksAndOrders() throws IOException {
+        // Given
+        User carol = userRepository.save(TestDataFactory.user("carol@example.com", wg));
+        ByteArrayOutputStream bobOut = new ByteArrayOutputStream();
+        ByteArrayOutputStream carolOut = new ByteArrayOutputStream();
+
+        // When
+        calendarExportService.exportUser(bob.getId(), bobOut);
+        calendarExportService.exportUser(carol.getId(), carolOut);
+
+        // Then
+        String bobIcs = bobOut.toString(StandardCharsets.UTF_8);
+        assertThat(bobIcs.split("BEGIN:VEVENT", -1)).hasSize(4);
+        assertThat(bobIcs).contains("SUMMARY:Cleaning: Kitchen\r\n").doesNotContain("cleaning-template");
+        assertThat(carolOut.toString(StandardCharsets.UTF_8)).doesNotContain("BEGIN:VEVENT");
+    }
+
+    @Test
+    void rejectsUnknownWg() {
+        assertThatThrownBy(() -> calendarExportService.exportWg(-1L, new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.group_2.service.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not @Transactional: H2 commits DDL implicitly, so the test cleans up itself
+@SpringBootTest
+@ActiveProfiles("test")
+class SequenceAlignmentServiceTest {
+
+    @Autowired
+    private SequenceAlignmentService sequenceAlignmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE legacy_ids (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE SEQUENCE legacy_id_seq START WITH 1 INCREMENT BY 50");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS legacy_ids");
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS legacy_id_seq");
+    }
+
+    @Test
+    void movesSequencePastExistingIds() {
+        // Given - ids handed out by an IDENTITY column
+        jdbcTemplate.update("INSERT INTO legacy_ids (id) VALUES (7), (120)");
+
+        // When
+        sequenceAlignmentService.alignWithExistingIds("legacy_ids", "legacy_id_seq", 50);
+
+        // Then - the first pooled block starts after the highest id
+        assertThat(nextValue()).isEqualTo(170L);
+    }
+
+    @Test
+    void leavesSequenceAheadOfIdsUnchanged() {
+        // Given
+        jdbcTemplate.execute("ALTER SEQUENCE legacy_id_seq RESTART WITH 500");
+        jdbcTemplate.update("INSERT INTO legacy_ids (id) VALUES (120)");
+
+        // When
+        sequenceAlignmentService.alignWithExistingIds("legacy_ids", "legacy_id_seq", 50);
+
+        // Then
+        assertThat(nextValue()).isEqualTo(500L);
+    }
+
+    private Long nextValue() {
+        return jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'LEGACY_ID_SEQ'",
+                Long.class);
+    }
+}
@@ -0,0 +1,114 @@
+package com.group_2.service.finance;
+
+import com.group_2.dto.finance.PairwiseBalanceDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for BalanceCache.
+ * Plain JUnit tests with no Spring context, so no transaction is active.
+ */
+class BalanceCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Function<Long, List<PairwiseBalanceDTO>> loader = wgId -> {
+        loads.incrementAndGet();
+        return List.of(new PairwiseBalanceDTO(1L, 2L, 500L), new PairwiseBalanceDTO(2L, 1L, 200L),
+                new PairwiseBalanceDTO(1L, 3L, 100L));
+    };
+
+    @Test
+    void servesRepeatedReadsFromOneLoad() {
+        BalanceCache cache = new BalanceCache(10);
+
+        BalanceCache.WgBalances first = cache.get(1L, loader);
+        BalanceCache.WgBalances second = cache.get(1L, loader);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(first.balancesOf(1L)).containsEntry(2L, 300L).containsEntry(3L, 100L);
+        assertThat(first.balancesOf(3L)).containsEntry(1L, -100L);
+        assertThat(first.netBalances()).containsEntry(1L, 400L).containsEntry(2L, -300L).containsEntry(3L, -100L);
+        assertThat(cache.getStats().hits()).isEqualTo(1);
+        assertThat(cache.getStats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidatesOnlyTheChangedWg() {
+        BalanceCache cache = new BalanceCache(10);
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+
+        cache.onBalancesChanged(new BalancesChangedEvent(1L));
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+
+        assertThat(loads).hasValue(3);
+        assertThat(cache.getStats().invalidations()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWg() {
+        BalanceCache cache = new BalanceCache(2);
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+        cache.get(1L, loader);
+
+        cache.get(3L, loader);
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+
+        assertThat(loads).hasValue(4);
+        assertThat(cache.getStats().evictions()).isEqualTo(2);
+        assertThat(cache.getStats().size()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotStoreLoadThatOverlapsInvalidation() {
+        BalanceCache cache = new BalanceCache(10);
+
+        cache.get(1L, wgId -> {
+            cache.invalidate(1L); // Commit of a writer while the ledger is read
+            return loader.apply(wgId);
+        });
+        cache.get(1L, loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void keepsNoStateForWgsWithoutRunningLoad() {
+        BalanceCache cache = new BalanceCache(2);
+
+        for (long wgId = 1; wgId <= 1000; wgId++) {
+            long id = wgId;
+            cache.get(id, loaded -> {
+                assertThat(cache.getRunningLoadCount()).isEqualTo(1);
+                return loader.apply(loaded);
+            });
+            cache.invalidate(id);
+        }
+
+        assertThat(cache.getRunningLoadCount()).isZero();
+        assertThat(cache.getStats().size()).isZero();
+    }
+
+    @Test
+    void forgetsLoadThatFailed() {
+        BalanceCache cache = new BalanceCache(10);
+
+        assertThatThrownBy(() -> cache.get(1L, wgId -> {
+            throw new IllegalStateException("Ledger unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.getRunningLoadCount()).isZero();
+        assertThat(cache.get(1L, loader).netBalances()).containsEntry(1L, 400L);
+    }
+}
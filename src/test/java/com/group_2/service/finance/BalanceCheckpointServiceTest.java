@@ -0,0 +1,147 @@
+package com.group_2.service.finance;
+
+import com.group_2.dto.finance.PairwiseBalanceDTO;
+import com.group_2.model.User;
+import com.group_2.model.WG;
+import com.group_2.model.finance.BalanceCheckpoint;
+import com.group_2.model.finance.BalanceLedgerEntry;
+import com.group_2.model.finance.Transaction;
+import com.group_2.repository.UserRepository;
+import com.group_2.repository.WGRepository;
+import com.group_2.repository.finance.BalanceCheckpointRepository;
+import com.group_2.repository.finance.BalanceLedgerRepository;
+import com.group_2.repository.finance.TransactionRepository;
+import com.group_2.testsupport.TestDataFactory;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BalanceCheckpointServiceTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    private BalanceCheckpointService balanceCheckpointService;
+
+    @Autowired
+    private BalanceLedgerService balanceLedgerService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private BalanceCheckpointRepository balanceCheckpointRepository;
+
+    @Autowired
+    private BalanceLedgerRepository balanceLedgerRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    private WG wg;
+    private User creditor;
+    private User debtor;
+
+    @BeforeEach
+    void setUp() {
+        wg = wgRepository.save(TestDataFactory.wg("Checkpoint WG"));
+        creditor = userRepository.save(TestDataFactory.user("checkpoint-creditor@example.com", wg));
+        debtor = userRepository.save(TestDataFactory.user("checkpoint-debtor@example.com", wg));
+    }
+
+    @Test
+    void combinesCheckpointWithLaterTransactions() {
+        // Given
+        createAt(LocalDateTime.of(2023, 6, 1, 12, 0), 40.0);
+        createAt(LocalDateTime.of(2024, 2, 1, 12, 0), 10.0);
+
+        // When
+        balanceCheckpointService.createCheckpoint(wg.getId(), CUTOFF);
+
+        // Then
+        assertThat(balanceCheckpointRepository.findPairs(wg.getId(), CUTOFF))
+                .containsExactly(new PairwiseBalanceDTO(creditor.getId(), debtor.getId(), 4000L));
+        assertThat(balanceCheckpointService.getPairBalancesAsOf(wg.getId(), null))
+                .containsExactly(new PairwiseBalanceDTO(creditor.getId(), debtor.getId(), 5000L));
+        assertThat(transactionService.getBalanceMatrix(wg.getId(), CUTOFF).balanceCents()[0][1]).isEqualTo(4000);
+        assertThat(balanceLedgerService.verifyLedger(wg.getId())).isEmpty();
+    }
+
+    @Test
+    void rebuildsCheckpointWhenOlderTransactionIsEdited() {
+        // Given
+        Transaction old = createAt(LocalDateTime.of(2023, 6, 1, 12, 0), 40.0);
+        balanceCheckpointService.createCheckpoint(wg.getId(), CUTOFF);
+
+        // When
+        transactionService.updateTransaction(old.getId(), creditor.getId(), creditor.getId(),
+                List.of(debtor.getId()), null, 25.0, "Edited");
+
+        // Then
+        assertThat(balanceCheckpointRepository.findPairs(wg.getId(), CUTOFF))
+                .containsExactly(new PairwiseBalanceDTO(creditor.getId(), debtor.getId(), 2500L));
+    }
+
+    @Test
+    void keepsCheckpointWhenNewerTransactionIsDeleted() {
+        // Given
+        createAt(LocalDateTime.of(2023, 6, 1, 12, 0), 40.0);
+        Transaction recent = createAt(LocalDateTime.of(2024, 2, 1, 12, 0), 10.0);
+        balanceCheckpointService.createCheckpoint(wg.getId(), CUTOFF);
+
+        // When
+        transactionService.deleteTransaction(recent.getId(), creditor.getId());
+
+        // Then
+        assertThat(balanceCheckpointRepository.findPairs(wg.getId(), CUTOFF))
+                .containsExactly(new PairwiseBalanceDTO(creditor.getId(), debtor.getId(), 4000L));
+        assertThat(balanceCheckpointService.getPairBalancesAsOf(wg.getId(), null))
+                .containsExactly(new PairwiseBalanceDTO(creditor.getId(), debtor.getId(), 4000L));
+    }
+
+    @Test
+    void verifiesAndRebuildsLedgerFromHistoryNotCheckpoint() {
+        // Given - checkpoint and ledger corrupted to the same wrong amount
+        createAt(LocalDateTime.of(2023, 6, 1, 12, 0), 40.0);
+        balanceCheckpointRepository.deleteByWgId(wg.getId());
+        balanceCheckpointRepository.save(new BalanceCheckpoint(wg.getId(), CUTOFF, creditor.getId(), debtor.getId(),
+                9999));
+        BalanceLedgerEntry entry = balanceLedgerRepository.findByWgId(wg.getId()).get(0);
+        entry.setAmountCents(9999);
+        balanceLedgerRepository.save(entry);
+
+        // When
+        List<BalanceLedgerService.Discrepancy> discrepancies = balanceLedgerService.verifyLedger(wg.getId());
+        balanceLedgerService.rebuildLedger(wg.getId());
+
+        // Then
+        assertThat(discrepancies).containsExactly(
+                new BalanceLedgerService.Discrepancy(creditor.getId(), debtor.getId(), 9999, 4000));
+        assertThat(balanceLedgerRepository.findPairsByWgId(wg.getId()))
+                .containsExactly(new PairwiseBalanceDTO(creditor.getId(), debtor.getId(), 4000L));
+    }
+
+    private Transaction createAt(LocalDateTime timestamp, double amount) {
+        Transaction transaction = transactionService.createTransaction(creditor.getId(), creditor.getId(),
+                List.of(debtor.getId()), null, amount, "Expense");
+        transaction.setTimestamp(timestamp);
+        return transactionRepository.saveAndFlush(transaction);
+    }
+}
@@ -0,0 +1,101 @@
+package com.group_2.service.finance;
+
+import com.group_2.model.User;
+import com.group_2.model.WG;
+import com.group_2.repository.UserRepository;
+import com.group_2.repository.WGRepository;
+import com.group_2.testsupport.TestDataFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not @Transactional: the threads write in their own transactions, which
+// only see committed data, so the test cleans up itself
+@SpringBootTest
+@ActiveProfiles("test")
+class BalanceLedgerServiceTest {
+
+    private static final int THREADS = 8;
+    private static final int WRITES_PER_THREAD = 10;
+
+    @Autowired
+    private BalanceLedgerService balanceLedgerService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private StandingOrderService standingOrderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    private WG wg;
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        wg = wgRepository.save(TestDataFactory.wg("Ledger WG"));
+        alice = userRepository.save(TestDataFactory.user("ledger-alice@example.com", wg));
+        bob = userRepository.save(TestDataFactory.user("ledger-bob@example.com", wg));
+    }
+
+    @AfterEach
+    void tearDown() {
+        standingOrderService.deleteAllForWg(wg);
+        userRepository.deleteAll(List.of(alice, bob));
+        wgRepository.delete(wg);
+    }
+
+    @Test
+    void concurrentWritesToTheSamePairAreAllBooked() throws Exception {
+        // Given - no ledger rows yet, so the first writers also race to create them
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When - half the threads book expenses paid by Alice, half paid by Bob
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                User payer = t % 2 == 0 ? alice : bob;
+                User debtor = t % 2 == 0 ? bob : alice;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < WRITES_PER_THREAD; i++) {
+                        transactionService.createTransactionCents(payer.getId(), payer.getId(),
+                                List.of(debtor.getId()), null, 100, "Snack");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then - no write failed or got lost, and both directions cancel out
+        assertThat(balanceLedgerService.verifyLedger(wg.getId())).isEmpty();
+        assertThat(balanceLedgerService.getBalancesCents(wg.getId(), alice.getId()))
+                .containsEntry(bob.getId(), 0L);
+        assertThat(transactionService.getTransactionsByWG(wg.getId())).hasSize(THREADS * WRITES_PER_THREAD);
+    }
+}
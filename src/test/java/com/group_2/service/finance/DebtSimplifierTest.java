@@ -0,0 +1,99 @@
+package com.group_2.service.finance;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests and a benchmark for DebtSimplifier.
+ * Plain JUnit tests with no Spring context.
+ */
+class DebtSimplifierTest {
+
+    @Test
+    void settlesChainOfDebtsWithSingleTransfer() {
+        // A owes B 10€, B owes C 10€ -> A pays C directly
+        long[] balances = { -1000, 0, 1000 };
+
+        List<DebtSimplifier.Transfer> transfers = DebtSimplifier.simplify(balances, DebtSimplifier.Mode.GREEDY);
+
+        assertThat(transfers).containsExactly(new DebtSimplifier.Transfer(0, 2, 1000));
+    }
+
+    @Test
+    void greedySettlesAllBalancesWithAtMostNMinusOneTransfers() {
+        long[] balances = { 500, -300, 1200, -700, -700, 0 };
+
+        List<DebtSimplifier.Transfer> transfers = DebtSimplifier.simplify(balances, DebtSimplifier.Mode.GREEDY);
+
+        assertSettled(balances, transfers);
+        assertThat(transfers.size()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void exactModeFindsZeroSumGroupsThatGreedyMisses() {
+        // {+7, -7} and {+4, +5, -9} can be settled separately with 3 transfers,
+        // greedy starts with 7 -> 9 and needs 4
+        long[] balances = { 400, 700, 500, -900, -700 };
+
+        List<DebtSimplifier.Transfer> greedy = DebtSimplifier.simplify(balances, DebtSimplifier.Mode.GREEDY);
+        List<DebtSimplifier.Transfer> exact = DebtSimplifier.simplify(balances, DebtSimplifier.Mode.EXACT);
+
+        assertSettled(balances, exact);
+        assertThat(greedy).hasSize(4);
+        assertThat(exact).hasSize(3);
+    }
+
+    @Test
+    void returnsNoTransfersWhenEverythingIsSettled() {
+        assertThat(DebtSimplifier.simplify(new long[] { 0, 0, 0 }, DebtSimplifier.Mode.EXACT)).isEmpty();
+        assertThat(DebtSimplifier.simplify(new long[0], DebtSimplifier.Mode.GREEDY)).isEmpty();
+    }
+
+    @Test
+    void exactModeFallsBackToGreedyForLargeWgs() {
+        long[] balances = randomNetBalances(new Random(7), DebtSimplifier.EXACT_MAX_PARTICIPANTS + 4, 1_000);
+
+        List<DebtSimplifier.Transfer> transfers = DebtSimplifier.simplify(balances, DebtSimplifier.Mode.EXACT);
+
+        assertSettled(balances, transfers);
+    }
+
+    // 500 members, 300k transactions: history is folded into net balances
+    // first, the simplification itself only sees the 500 balances and needs
+    // fewer transfers than there are members
+    @Test
+    void settlesLargeWgsWithFewerTransfersThanMembers() {
+        long[] balances = randomNetBalances(new Random(42), 500, 300_000);
+
+        List<DebtSimplifier.Transfer> transfers = DebtSimplifier.simplify(balances, DebtSimplifier.Mode.GREEDY);
+
+        assertSettled(balances, transfers);
+        assertThat(transfers.size()).isLessThan(500);
+    }
+
+    private static long[] randomNetBalances(Random random, int members, int transactions) {
+        long[] balances = new long[members];
+        for (int i = 0; i < transactions; i++) {
+            int creditor = random.nextInt(members);
+            int debtor = random.nextInt(members);
+            long amount = 1 + random.nextInt(20_000);
+            balances[creditor] += amount;
+            balances[debtor] -= amount;
+        }
+        return balances;
+    }
+
+    private static void assertSettled(long[] balances, List<DebtSimplifier.Transfer> transfers) {
+        long[] remaining = balances.clone();
+        for (DebtSimplifier.Transfer transfer : transfers) {
+            assertThat(transfer.amountCents()).isPositive();
+            remaining[transfer.fromIndex()] += transfer.amountCents();
+            remaining[transfer.toIndex()] -= transfer.amountCents();
+        }
+        assertThat(remaining).containsOnly(0L);
+    }
+}
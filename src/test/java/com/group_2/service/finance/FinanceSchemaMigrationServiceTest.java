@@ -0,0 +1,144 @@
+package com.group_2.service.finance;
+
+import com.group_2.model.User;
+import com.group_2.model.WG;
+import com.group_2.model.finance.StandingOrder;
+import com.group_2.model.finance.StandingOrderFrequency;
+import com.group_2.repository.UserRepository;
+import com.group_2.repository.WGRepository;
+import com.group_2.repository.finance.StandingOrderRepository;
+import com.group_2.testsupport.TestDataFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not @Transactional: H2 commits DDL implicitly, so the test cleans up itself
+@SpringBootTest
+@ActiveProfiles("test")
+class FinanceSchemaMigrationServiceTest {
+
+    @Autowired
+    private FinanceSchemaMigrationService migrationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StandingOrderService standingOrderService;
+
+    @Autowired
+    private StandingOrderRepository standingOrderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    private WG wg;
+    private List<User> users = List.of();
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM balance_ledger WHERE wg_id = -1");
+        jdbcTemplate.execute("ALTER TABLE balance_ledger DROP COLUMN IF EXISTS amount");
+        jdbcTemplate.execute("ALTER TABLE standing_orders DROP COLUMN IF EXISTS debtor_data");
+        if (wg != null) {
+            standingOrderService.deleteAllForWg(wg);
+            userRepository.deleteAll(users);
+            wgRepository.delete(wg);
+        }
+    }
+
+    @Test
+    void migratesLegacyDoubleColumnToCents() {
+        // Given - a database file from before the cents columns existed
+        jdbcTemplate.execute("ALTER TABLE balance_ledger ADD COLUMN amount DOUBLE");
+        jdbcTemplate.update("INSERT INTO balance_ledger (wg_id, creditor_id, debtor_id, amount, version) "
+                + "VALUES (-1, -1, -2, 12.34, 0)");
+
+        // When
+        migrationService.migrateLegacyMoneyColumns();
+
+        // Then
+        Long cents = jdbcTemplate.queryForObject("SELECT amount_cents FROM balance_ledger WHERE wg_id = -1",
+                Long.class);
+        Integer legacyColumns = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'BALANCE_LEDGER' "
+                        + "AND COLUMN_NAME = 'AMOUNT'",
+                Integer.class);
+        assertThat(cents).isEqualTo(1234L);
+        assertThat(legacyColumns).isZero();
+    }
+
+    @Test
+    void movesStandingOrderDebtorJsonToChildRows() {
+        // Given - an order saved before the debtors had their own table
+        wg = wgRepository.save(TestDataFactory.wg("Migration WG"));
+        User alice = userRepository.save(TestDataFactory.user("migration-alice@example.com", wg));
+        User bob = userRepository.save(TestDataFactory.user("migration-bob@example.com", wg));
+        users = List.of(alice, bob);
+        StandingOrder order = standingOrderRepository.save(new StandingOrder(alice, alice, wg, 1000, "Rent",
+                StandingOrderFrequency.MONTHLY, LocalDate.of(2030, 1, 1)));
+        jdbcTemplate.execute("ALTER TABLE standing_orders ADD COLUMN debtor_data VARCHAR(2000)");
+        jdbcTemplate.update("UPDATE standing_orders SET debtor_data = ? WHERE id = ?",
+                "[{\"userId\": " + bob.getId() + ", \"percentage\": 66.6667}, {\"userId\": " + alice.getId()
+                        + ", \"percentage\": 33.3333}]",
+                order.getId());
+
+        // When
+        migrationService.migrateStandingOrderDebtorData();
+
+        // Then
+        List<Map<String, Object>> debtors = jdbcTemplate.queryForList(
+                "SELECT debtor_id, percentage_weight FROM standing_order_debtors WHERE standing_order_id = ? "
+                        + "ORDER BY position",
+                order.getId());
+        assertThat(debtors).extracting(row -> ((Number) row.get("debtor_id")).longValue())
+                .containsExactly(bob.getId(), alice.getId());
+        assertThat(debtors).extracting(row -> ((Number) row.get("percentage_weight")).longValue())
+                .containsExactly(666667L, 333333L);
+        assertThat(standingOrderService.getStandingOrderByIdDTO(order.getId()).debtors())
+                .extracting(debtor -> debtor.amountCents()).containsExactly(667L, 333L);
+    }
+
+    @Test
+    void keepsLegacyDebtorColumnWhenAnOrderFailsToMigrate() {
+        // Given - one readable and one corrupt legacy order
+        wg = wgRepository.save(TestDataFactory.wg("Migration WG"));
+        User alice = userRepository.save(TestDataFactory.user("migration-alice@example.com", wg));
+        users = List.of(alice);
+        StandingOrder good = standingOrderRepository.save(new StandingOrder(alice, alice, wg, 1000, "Rent",
+                StandingOrderFrequency.MONTHLY, LocalDate.of(2030, 1, 1)));
+        StandingOrder corrupt = standingOrderRepository.save(new StandingOrder(alice, alice, wg, 500, "Internet",
+                StandingOrderFrequency.MONTHLY, LocalDate.of(2030, 1, 1)));
+        jdbcTemplate.execute("ALTER TABLE standing_orders ADD COLUMN debtor_data VARCHAR(2000)");
+        jdbcTemplate.update("UPDATE standing_orders SET debtor_data = ? WHERE id = ?",
+                "[{\"userId\": " + alice.getId() + ", \"percentage\": 100.0}]", good.getId());
+        jdbcTemplate.update("UPDATE standing_orders SET debtor_data = ? WHERE id = ?", "[{\"userId\": ",
+                corrupt.getId());
+
+        // When
+        migrationService.migrateStandingOrderDebtorData();
+
+        // Then
+        Integer legacyColumns = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'STANDING_ORDERS' "
+                        + "AND COLUMN_NAME = 'DEBTOR_DATA'",
+                Integer.class);
+        String corruptData = jdbcTemplate.queryForObject("SELECT debtor_data FROM standing_orders WHERE id = ?",
+                String.class, corrupt.getId());
+        assertThat(legacyColumns).isEqualTo(1);
+        assertThat(corruptData).isEqualTo("[{\"userId\": ");
+        assertThat(standingOrderService.getStandingOrderByIdDTO(good.getId()).debtors()).hasSize(1);
+    }
+}
@@ -0,0 +1,285 @@
+package com.group_2.service.finance;
+
+import com.group_2.dto.finance.DueStandingOrderDTO;
+import com.group_2.dto.finance.StandingOrderRunReportDTO;
+import com.group_2.model.User;
+import com.group_2.model.WG;
+import com.group_2.model.finance.StandingOrder;
+import com.group_2.model.finance.StandingOrderExecution;
+import com.group_2.model.finance.StandingOrderFrequency;
+import com.group_2.model.finance.Transaction;
+import com.group_2.repository.UserRepository;
+import com.group_2.repository.WGRepository;
+import com.group_2.repository.finance.StandingOrderExecutionRepository;
+import com.group_2.repository.finance.StandingOrderRepository;
+import com.group_2.testsupport.TestDataFactory;
+import com.group_2.util.MoneyUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not @Transactional: the workers run in their own transactions, which only
+// see committed data, so the test cleans up itself
+@SpringBootTest
+@ActiveProfiles("test")
+class StandingOrderProcessorTest {
+
+    // Far in the past, so no other due order in the test database interferes
+    private static final LocalDate DUE_DATE = LocalDate.of(2001, 1, 1);
+
+    @Autowired
+    private StandingOrderProcessor standingOrderProcessor;
+
+    @Autowired
+    private StandingOrderService standingOrderService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private StandingOrderRepository standingOrderRepository;
+
+    @Autowired
+    private StandingOrderExecutionRepository standingOrderExecutionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    private WG wg;
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        wg = wgRepository.save(TestDataFactory.wg("Processor WG"));
+        alice = userRepository.save(TestDataFactory.user("processor-alice@example.com", wg));
+        bob = userRepository.save(TestDataFactory.user("processor-bob@example.com", wg));
+    }
+
+    @AfterEach
+    void tearDown() {
+        standingOrderService.deleteAllForWg(wg);
+        userRepository.deleteAll(List.of(alice, bob));
+        wgRepository.delete(wg);
+    }
+
+    @Test
+    void executesDueOrdersAndReportsFailuresSeparately() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            saveOrder(bob.getId());
+        }
+        StandingOrder broken = saveOrder(-1L);
+
+        // When
+        StandingOrderRunReportDTO report = standingOrderProcessor.processDueStandingOrders(DUE_DATE.plusDays(1));
+
+        // Then
+        assertThat(report.executed()).isEqualTo(5);
+        assertThat(report.failed()).isEqualTo(1);
+        assertThat(report.failedOrderIds()).containsExactly(broken.getId());
+        assertThat(transactionService.getTransactionsByWG(wg.getId())).hasSize(5);
+        assertThat(standingOrderRepository.findById(broken.getId()).orElseThrow().getNextExecution())
+                .isEqualTo(DUE_DATE);
+    }
+
+    @Test
+    void advancesExecutedOrdersSoTheNextRunSkipsThem() {
+        // Given
+        StandingOrder order = saveOrder(bob.getId());
+        standingOrderProcessor.processDueStandingOrders(DUE_DATE.plusDays(1));
+
+        // When
+        StandingOrderRunReportDTO secondRun = standingOrderProcessor.processDueStandingOrders(DUE_DATE.plusDays(1));
+
+        // Then
+        assertThat(secondRun.total()).isZero();
+        assertThat(standingOrderRepository.findById(order.getId()).orElseThrow().getNextExecution())
+                .isEqualTo(DUE_DATE.plusWeeks(1));
+        assertThat(transactionService.getTransactionsByWG(wg.getId())).hasSize(1);
+    }
+
+    @Test
+    void catchesUpAllMissedOccurrencesInOneRun() {
+        // Given - due three weeks ago, then the app was not running
+        StandingOrder order = saveOrder(bob.getId());
+
+        // When
+        StandingOrderRunReportDTO report = standingOrderProcessor.processDueStandingOrders(DUE_DATE.plusWeeks(3));
+
+        // Then
+        assertThat(report.executed()).isEqualTo(1);
+        assertThat(transactionService.getTransactionsByWG(wg.getId())).extracting(Transaction::getTimestamp)
+                .contains(DUE_DATE.atTime(LocalTime.NOON), DUE_DATE.plusWeeks(2).atTime(LocalTime.NOON))
+                .hasSize(4);
+        assertThat(standingOrderRepository.findById(order.getId()).orElseThrow().getNextExecution())
+                .isEqualTo(DUE_DATE.plusWeeks(4));
+        assertThat(transactionService.calculateBalanceWithUser(alice.getId(), bob.getId())).isEqualTo(40.0);
+    }
+
+    @Test
+    void logsEachExecutionWithItsTransaction() {
+        // Given
+        StandingOrder order = saveOrder(bob.getId());
+
+        // When
+        standingOrderProcessor.processDueStandingOrders(DUE_DATE.plusDays(1));
+
+        // Then
+        Transaction booked = transactionService.getTransactionsByWG(wg.getId()).get(0);
+        assertThat(standingOrderService.getExecutionHistory(order.getId())).singleElement().satisfies(execution -> {
+            assertThat(execution.dueDate()).isEqualTo(DUE_DATE);
+            assertThat(execution.transactionId()).isEqualTo(booked.getId());
+        });
+    }
+
+    @Test
+    void doesNotBookAnOccurrenceThatIsAlreadyLogged() {
+        // Given - booked by another instance that shares the database
+        StandingOrder order = saveOrder(bob.getId());
+        standingOrderExecutionRepository
+                .save(new StandingOrderExecution(order.getId(), wg.getId(), DUE_DATE, DUE_DATE.atTime(LocalTime.NOON)));
+
+        // When
+        StandingOrderRunReportDTO report = standingOrderProcessor.processDueStandingOrders(DUE_DATE.plusDays(1));
+
+        // Then
+        assertThat(report.executed()).isZero();
+        assertThat(report.skipped()).isEqualTo(1);
+        assertThat(transactionService.getTransactionsByWG(wg.getId())).isEmpty();
+        assertThat(standingOrderRepository.findById(order.getId()).orElseThrow().getNextExecution())
+                .isEqualTo(DUE_DATE.plusWeeks(1));
+    }
+
+    @Test
+    void reportsEveryOrderOfAnInterruptedRun() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            saveOrder(bob.getId());
+        }
+        List<DueStandingOrderDTO> dueOrders = standingOrderRepository.findDueOrders(DUE_DATE.plusDays(1));
+
+        // When - the scheduler is shut down while the run waits for its chunks
+        StandingOrderRunReportDTO report;
+        Thread.currentThread().interrupt();
+        try {
+            report = standingOrderProcessor.processDueStandingOrders(DUE_DATE.plusDays(1));
+        } finally {
+            Thread.interrupted();
+        }
+
+        // Then - orders the cancelled chunk never reached count as failed
+        assertThat(report.total()).isEqualTo(dueOrders.size());
+        assertThat(report.failedOrderIds()).hasSize(report.failed());
+    }
+
+    @Test
+    void executesOrderDueAtCreationAfterItIsCommitted() {
+        // When
+        StandingOrder order = createOrderDueToday(bob.getId());
+
+        // Then
+        assertThat(transactionService.getTransactionsByWG(wg.getId())).hasSize(1);
+        assertThat(standingOrderRepository.findById(order.getId()).orElseThrow().getNextExecution())
+                .isEqualTo(LocalDate.now().plusWeeks(1));
+    }
+
+    @Test
+    void keepsCreatedOrderWhenItsImmediateExecutionFails() {
+        // When - the debtor does not exist, so booking the first occurrence fails
+        StandingOrder order = createOrderDueToday(-1L);
+
+        // Then - the order is committed and still due for the next run
+        assertThat(standingOrderRepository.findById(order.getId()).orElseThrow().getNextExecution())
+                .isEqualTo(LocalDate.now());
+        assertThat(transactionService.getTransactionsByWG(wg.getId())).isEmpty();
+    }
+
+    @Test
+    void booksAnOccurrenceOnceWhenTwoRunsRaceForIt() throws Exception {
+        // Given - the first run has booked the occurrence but not committed yet
+        StandingOrder order = saveOrder(bob.getId());
+        List<DueStandingOrderDTO> dueOrders = List.of(new DueStandingOrderDTO(order.getId(), wg.getId()));
+        CountDownLatch booked = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        TransactionTemplate firstRun = new TransactionTemplate(transactionManager);
+        ExecutorService runner = Executors.newSingleThreadExecutor();
+        Future<Boolean> first = runner.submit(() -> firstRun.execute(status -> {
+            boolean executed = standingOrderService.executeIfDue(order.getId(), DUE_DATE.plusDays(1));
+            booked.countDown();
+            awaitQuietly(commit);
+            return executed;
+        }));
+        assertThat(booked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // When - a second run claims the same due date, then the first commits
+        Future<StandingOrderRunReportDTO> second = Executors.newSingleThreadExecutor()
+                .submit(() -> standingOrderProcessor.processOrders(dueOrders, DUE_DATE.plusDays(1)));
+        Thread.sleep(200);
+        commit.countDown();
+        runner.shutdown();
+
+        // Then
+        assertThat(first.get(10, TimeUnit.SECONDS)).isTrue();
+        StandingOrderRunReportDTO report = second.get(10, TimeUnit.SECONDS);
+        assertThat(report.skipped()).isEqualTo(1);
+        assertThat(report.failed()).isZero();
+        assertThat(transactionService.getTransactionsByWG(wg.getId())).hasSize(1);
+        assertThat(standingOrderService.getExecutionHistory(order.getId())).hasSize(1);
+    }
+
+    @Test
+    void skipsOrdersThatAreNoLongerDue() {
+        // Given
+        StandingOrder order = saveOrder(bob.getId());
+
+        // When
+        boolean executed = standingOrderService.executeIfDue(order.getId(), DUE_DATE.minusDays(1));
+
+        // Then
+        assertThat(executed).isFalse();
+        assertThat(transactionService.getTransactionsByWG(wg.getId())).isEmpty();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private StandingOrder createOrderDueToday(Long debtorId) {
+        return standingOrderService.createStandingOrder(alice, alice, wg, 10.0, "Rent",
+                StandingOrderFrequency.WEEKLY, LocalDate.now(), List.of(debtorId), null, null, null);
+    }
+
+    private StandingOrder saveOrder(Long debtorId) {
+        StandingOrder order = new StandingOrder(alice, alice, wg, 1000, "Rent", StandingOrderFrequency.WEEKLY,
+                DUE_DATE);
+        order.setDebtors(List.of(debtorId), MoneyUtils.toPercentageWeights(List.of(100.0)));
+        return standingOrderRepository.save(order);
+    }
+}
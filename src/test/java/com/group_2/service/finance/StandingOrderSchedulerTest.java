@@ -0,0 +1,135 @@
+package com.group_2.service.finance;
+
+import com.group_2.model.User;
+import com.group_2.model.WG;
+import com.group_2.model.finance.StandingOrder;
+import com.group_2.model.finance.StandingOrderFrequency;
+import com.group_2.repository.UserRepository;
+import com.group_2.repository.WGRepository;
+import com.group_2.repository.finance.StandingOrderRepository;
+import com.group_2.testsupport.TestDataFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not @Transactional: the schedule is updated after commit and the scheduler
+// thread executes orders in its own transactions. The enabled scheduler needs
+// its own context; it gets its own database, so its create-drop schema does not
+// reset the one the cached test context is still using.
+@SpringBootTest(properties = { "finance.standing-orders.scheduler.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:scheduler_${random.uuid};DB_CLOSE_DELAY=-1" })
+@ActiveProfiles("test")
+class StandingOrderSchedulerTest {
+
+    @Autowired
+    private StandingOrderScheduler standingOrderScheduler;
+
+    @Autowired
+    private StandingOrderService standingOrderService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private StandingOrderRepository standingOrderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    private WG wg;
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        wg = wgRepository.save(TestDataFactory.wg("Scheduler WG"));
+        alice = userRepository.save(TestDataFactory.user("scheduler-alice@example.com", wg));
+        bob = userRepository.save(TestDataFactory.user("scheduler-bob@example.com", wg));
+    }
+
+    @AfterEach
+    void tearDown() {
+        standingOrderService.deleteAllForWg(wg);
+        userRepository.deleteAll(List.of(alice, bob));
+        wgRepository.delete(wg);
+    }
+
+    @Test
+    void tracksCreatedAndDeactivatedOrders() {
+        // Given
+        LocalDate start = LocalDate.now().plusDays(3);
+        StandingOrder order = createWeeklyOrder(start);
+
+        assertThat(standingOrderScheduler.getScheduledTime(order.getId())).isEqualTo(start.atTime(LocalTime.NOON));
+
+        // When
+        standingOrderService.deactivateStandingOrder(order.getId());
+
+        // Then
+        assertThat(standingOrderScheduler.getScheduledTime(order.getId())).isNull();
+    }
+
+    @Test
+    void firesOverdueOrderAndSchedulesItsNextExecution() throws InterruptedException {
+        // Given - missed yesterday, e.g. while the machine was suspended
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        StandingOrder order = createWeeklyOrder(LocalDate.now().plusDays(3));
+        order.setNextExecution(yesterday);
+        standingOrderRepository.save(order);
+
+        // When
+        standingOrderScheduler.schedule(order.getId(), wg.getId(), yesterday);
+        LocalDateTime next = awaitRescheduled(order.getId(), yesterday.atTime(LocalTime.NOON));
+
+        // Then
+        assertThat(next).isEqualTo(yesterday.plusWeeks(1).atTime(LocalTime.NOON));
+        assertThat(transactionService.getTransactionsByWG(wg.getId())).hasSize(1);
+        assertThat(standingOrderRepository.findById(order.getId()).orElseThrow().getNextExecution())
+                .isEqualTo(yesterday.plusWeeks(1));
+    }
+
+    @Test
+    void keepsSkippedOrderOnTheSchedule() throws InterruptedException {
+        // Given - an outdated entry fires the order before it is due
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate start = LocalDate.now().plusDays(3);
+        StandingOrder order = createWeeklyOrder(start);
+
+        // When
+        standingOrderScheduler.schedule(order.getId(), wg.getId(), yesterday);
+        LocalDateTime next = awaitRescheduled(order.getId(), yesterday.atTime(LocalTime.NOON));
+
+        // Then - the run skips it and the schedule falls back to the stored date
+        assertThat(next).isEqualTo(start.atTime(LocalTime.NOON));
+        assertThat(transactionService.getTransactionsByWG(wg.getId())).isEmpty();
+    }
+
+    private StandingOrder createWeeklyOrder(LocalDate start) {
+        return standingOrderService.createStandingOrder(alice, alice, wg, 10.0, "Rent", StandingOrderFrequency.WEEKLY,
+                start, List.of(bob.getId()), null, null, null);
+    }
+
+    // The scheduler thread takes the order off the schedule and the change
+    // event of the execution puts it back with its next date
+    private LocalDateTime awaitRescheduled(Long orderId, LocalDateTime previous) throws InterruptedException {
+        LocalDateTime scheduled = standingOrderScheduler.getScheduledTime(orderId);
+        for (int i = 0; i < 100 && (scheduled == null || scheduled.equals(previous)); i++) {
+            Thread.sleep(50);
+            scheduled = standingOrderScheduler.getScheduledTime(orderId);
+        }
+        return scheduled;
+    }
+}
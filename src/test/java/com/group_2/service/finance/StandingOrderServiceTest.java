@@ -0,0 +1,77 @@
+package com.group_2.service.finance;
+
+import com.group_2.dto.finance.BalanceForecastDTO;
+import com.group_2.model.User;
+import com.group_2.model.WG;
+import com.group_2.model.finance.StandingOrderFrequency;
+import com.group_2.repository.UserRepository;
+import com.group_2.repository.WGRepository;
+import com.group_2.testsupport.TestDataFactory;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class StandingOrderServiceTest {
+
+    @Autowired
+    private StandingOrderService standingOrderService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    private WG wg;
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        wg = wgRepository.save(TestDataFactory.wg("Forecast WG"));
+        alice = userRepository.save(TestDataFactory.user("forecast-alice@example.com", wg));
+        bob = userRepository.save(TestDataFactory.user("forecast-bob@example.com", wg));
+    }
+
+    @Test
+    void forecastAddsStandingOrdersToCurrentBalances() {
+        // Given - bob owes 10 today and half of a 30 rent on every first of the month
+        transactionService.createTransaction(alice.getId(), alice.getId(), List.of(bob.getId()), null, 10.0,
+                "Groceries");
+        standingOrderService.createStandingOrder(alice, alice, wg, 30.0, "Rent", StandingOrderFrequency.MONTHLY,
+                LocalDate.now(), List.of(alice.getId(), bob.getId()), null, 1, false);
+
+        // When
+        BalanceForecastDTO forecast = standingOrderService.forecastBalances(wg.getId(), 3);
+
+        // Then - the first rent is due on the first of next month
+        YearMonth thisMonth = YearMonth.now();
+        assertThat(forecast.months()).containsExactly(thisMonth, thisMonth.plusMonths(1), thisMonth.plusMonths(2));
+        assertThat(forecast.currentBalanceCents()[forecast.indexOf(bob.getId())]).isEqualTo(-1000);
+        assertThat(forecast.getBalanceCents(bob.getId(), thisMonth)).isEqualTo(-1000);
+        assertThat(forecast.getBalanceCents(bob.getId(), thisMonth.plusMonths(1))).isEqualTo(-2500);
+        assertThat(forecast.getBalanceCents(alice.getId(), thisMonth.plusMonths(2))).isEqualTo(4000);
+    }
+
+    @Test
+    void rejectsForecastBeyondTheLimit() {
+        assertThatThrownBy(() -> standingOrderService.forecastBalances(wg.getId(),
+                StandingOrderService.MAX_FORECAST_MONTHS + 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
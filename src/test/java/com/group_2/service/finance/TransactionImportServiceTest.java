@@ -0,0 +1,140 @@
+package com.group_2.service.finance;
+
+import com.group_2.dto.finance.TransactionImportResultDTO;
+import com.group_2.model.User;
+import com.group_2.model.WG;
+import com.group_2.model.finance.Transaction;
+import com.group_2.repository.UserRepository;
+import com.group_2.repository.WGRepository;
+import com.group_2.repository.finance.TransactionRepository;
+import com.group_2.testsupport.TestDataFactory;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TransactionImportServiceTest {
+
+    @Autowired
+    private TransactionImportService transactionImportService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private BalanceLedgerService balanceLedgerService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WGRepository wgRepository;
+
+    private WG wg;
+    private User creditor;
+    private User debtor;
+
+    @BeforeEach
+    void setUp() {
+        wg = wgRepository.save(TestDataFactory.wg("Test WG"));
+        creditor = userRepository.save(TestDataFactory.user("creditor@example.com", wg));
+        debtor = userRepository.save(TestDataFactory.user("debtor@example.com", wg));
+    }
+
+    @Test
+    void importsCsvAndUpdatesBalances() throws Exception {
+        // Given
+        String csv = """
+                date;description;amount;payer;debtors;percentages
+                2024-01-05;Groceries;12,50;creditor@example.com;debtor@example.com;
+                05.02.2024;"Rent; February";100;creditor@example.com;creditor@example.com|debtor@example.com;40|60
+                """;
+
+        // When
+        TransactionImportResultDTO result = transactionImportService.importTransactions(creditor.getId(),
+                new StringReader(csv), TransactionImportService.Format.CSV, 1);
+
+        // Then
+        assertThat(result.importedCount()).isEqualTo(2);
+        assertThat(result.hasErrors()).isFalse();
+        List<Transaction> imported = transactionRepository.findByWg(wg);
+        assertThat(imported).extracting(Transaction::getDescription)
+                .containsExactlyInAnyOrder("Groceries", "Rent; February");
+        assertThat(imported).filteredOn(t -> t.getDescription().equals("Rent; February")).singleElement()
+                .satisfies(t -> assertThat(t.getTimestamp()).isEqualTo(LocalDateTime.of(2024, 2, 5, 0, 0)));
+        assertThat(transactionService.calculateBalanceWithUser(creditor.getId(), debtor.getId())).isEqualTo(72.5);
+        assertThat(balanceLedgerService.verifyLedger(wg.getId())).isEmpty();
+    }
+
+    @Test
+    void importsJsonLinesWithAmountSplits() throws Exception {
+        // Given
+        String json = """
+                {"date": "2024-04-01", "description": "Internet", "amount": 30.0, "payer": "debtor@example.com", "debtors": ["creditor@example.com", "debtor@example.com"], "amounts": [10.0, 20.0]}
+                {"date": "2024-04-02T18:30:00", "description": "Pizza", "amount": 9.99, "payer": "debtor@example.com", "debtors": ["creditor@example.com"]}
+                """;
+
+        // When
+        TransactionImportResultDTO result = transactionImportService.importTransactions(creditor.getId(),
+                new StringReader(json), TransactionImportService.Format.JSON);
+
+        // Then
+        assertThat(result.importedCount()).isEqualTo(2);
+        assertThat(result.errorCount()).isZero();
+        assertThat(transactionService.calculateBalanceWithUser(creditor.getId(), debtor.getId())).isEqualTo(-19.99);
+    }
+
+    @Test
+    void reportsInvalidRowsAndImportsTheRest() throws Exception {
+        // Given
+        String csv = """
+                date,description,amount,payer,debtors
+                2024-01-05,Groceries,12.50,creditor@example.com,debtor@example.com
+                2024-02-31,Bad date,10,creditor@example.com,debtor@example.com
+                2024-01-06,Unknown debtor,10,creditor@example.com,nobody@example.com
+                2024-01-07,Negative,-5,creditor@example.com,debtor@example.com
+                """;
+
+        // When
+        TransactionImportResultDTO result = transactionImportService.importTransactions(creditor.getId(),
+                new StringReader(csv), TransactionImportService.Format.CSV);
+
+        // Then
+        assertThat(result.importedCount()).isEqualTo(1);
+        assertThat(result.errorCount()).isEqualTo(3);
+        assertThat(result.rowErrors()).extracting(TransactionImportResultDTO.RowError::lineNumber)
+                .containsExactly(3L, 4L, 5L);
+        assertThat(transactionRepository.findByWg(wg)).hasSize(1);
+    }
+
+    @Test
+    void rejectsPercentagesThatDoNotSumToHundred() throws Exception {
+        // Given
+        String json = """
+                [{"date": "2024-04-01", "description": "Cleaning", "amount": 10, "payer": "creditor@example.com", "debtors": ["creditor@example.com", "debtor@example.com"], "percentages": [50, 40]}]
+                """;
+
+        // When
+        TransactionImportResultDTO result = transactionImportService.importTransactions(creditor.getId(),
+                new StringReader(json), TransactionImportService.Format.JSON);
+
+        // Then
+        assertThat(result.importedCount()).isZero();
+        assertThat(result.rowErrors()).singleElement()
+                .satisfies(error -> assertThat(error.message()).contains("100"));
+    }
+}
@@ -1,10 +1,19 @@
 package com.group_2.service.finance;
 
+import com.group_2.dto.finance.BalanceMatrixDTO;
+import com.group_2.dto.finance.SettlementTransferDTO;
+import com.group_2.dto.finance.TransactionHistoryFilter;
+import com.group_2.dto.finance.TransactionHistoryPageDTO;
+import com.group_2.dto.finance.TransactionViewDTO;
 import com.group_2.model.User;
 import com.group_2.model.WG;
+import com.group_2.model.finance.BalanceLedgerEntry;
 import com.group_2.model.finance.Transaction;
+import com.group_2.model.finance.TransactionSplit;
 import com.group_2.repository.UserRepository;
 import com.group_2.repository.WGRepository;
+import com.group_2.repository.finance.BalanceLedgerRepository;
+import com.group_2.repository.finance.TransactionSplitRepository;
 import com.group_2.testsupport.TestDataFactory;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +22,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -34,6 +46,15 @@ class TransactionServiceTest {
     @Autowired
     private WGRepository wgRepository;
 
+    @Autowired
+    private BalanceLedgerService balanceLedgerService;
+
+    @Autowired
+    private BalanceLedgerRepository balanceLedgerRepository;
+
+    @Autowired
+    private TransactionSplitRepository transactionSplitRepository;
+
     private WG wg;
     private User creditor;
     private User debtor;
@@ -161,4 +182,246 @@ class TransactionServiceTest {
         assertThatThrownBy(() -> transactionService.deleteTransaction(transaction.getId(), debtor.getId()))
                 .isInstanceOf(RuntimeException.class);
     }
+
+    @Test
+    void updateTransactionMovesLedgerBalance() {
+        // Given
+        User debtor2 = userRepository.save(TestDataFactory.user("debtor2@example.com", wg));
+        Transaction transaction = transactionService.createTransaction(
+                creditor.getId(), creditor.getId(), List.of(debtor.getId()),
+                List.of(100.0), 100.0, "Groceries");
+
+        // When - the expense is moved to another debtor
+        transactionService.updateTransaction(transaction.getId(), creditor.getId(), creditor.getId(),
+                List.of(debtor2.getId()), List.of(100.0), 80.0, "Groceries");
+
+        // Then
+        assertThat(transactionService.calculateBalanceWithUser(creditor.getId(), debtor.getId())).isEqualTo(0.0);
+        assertThat(transactionService.calculateBalanceWithUser(creditor.getId(), debtor2.getId())).isEqualTo(80.0);
+        assertThat(transactionService.calculateBalanceWithUser(debtor2.getId(), creditor.getId())).isEqualTo(-80.0);
+    }
+
+    @Test
+    void updateTransactionReplacesSplits() {
+        // Given
+        User debtor2 = userRepository.save(TestDataFactory.user("debtor2@example.com", wg));
+        Transaction transaction = transactionService.createTransaction(
+                creditor.getId(), creditor.getId(), List.of(debtor.getId(), debtor2.getId()),
+                null, 30.0, "Groceries");
+
+        // When
+        transactionService.updateTransaction(transaction.getId(), creditor.getId(), creditor.getId(),
+                List.of(debtor2.getId()), null, 45.0, "Groceries");
+
+        // Then - the old splits are gone from the database, not only from the entity
+        List<TransactionSplit> splits = transactionSplitRepository.findByTransaction(transaction);
+        assertThat(splits).hasSize(1);
+        assertThat(splits.get(0).getDebtor().getId()).isEqualTo(debtor2.getId());
+        assertThat(splits.get(0).getAmountCents()).isEqualTo(4500);
+    }
+
+    @Test
+    void createTransactionFailsForUnknownDebtor() {
+        assertThatThrownBy(() -> transactionService.createTransaction(creditor.getId(), creditor.getId(),
+                List.of(debtor.getId(), -1L), null, 20.0, "Groceries"))
+                .hasMessageContaining("Debtor not found");
+    }
+
+    @Test
+    void deleteTransactionReversesLedgerBalance() {
+        // Given
+        Transaction transaction = transactionService.createTransaction(
+                creditor.getId(), creditor.getId(), List.of(debtor.getId()),
+                List.of(100.0), 100.0, "Groceries");
+
+        // When
+        transactionService.deleteTransaction(transaction.getId(), creditor.getId());
+
+        // Then
+        assertThat(transactionService.calculateBalanceWithUser(creditor.getId(), debtor.getId())).isEqualTo(0.0);
+        assertThat(balanceLedgerService.verifyLedger(wg.getId())).isEmpty();
+    }
+
+    @Test
+    void settleBalanceOffsetsLedger() {
+        // Given
+        transactionService.createTransaction(
+                creditor.getId(), creditor.getId(), List.of(debtor.getId()),
+                List.of(100.0), 60.0, "Groceries");
+
+        // When - debtor pays back the full amount
+        transactionService.settleBalance(debtor.getId(), creditor.getId(), 60.0, true, "Cash");
+
+        // Then
+        assertThat(transactionService.calculateBalanceWithUser(creditor.getId(), debtor.getId())).isEqualTo(0.0);
+        assertThat(transactionService.getTotalBalance(debtor.getId())).isEqualTo(0.0);
+    }
+
+    @Test
+    void rebuildLedgerRepairsDrift() {
+        // Given - a ledger row that no longer matches the history
+        transactionService.createTransaction(
+                creditor.getId(), creditor.getId(), List.of(debtor.getId()),
+                List.of(100.0), 100.0, "Groceries");
+        BalanceLedgerEntry entry = balanceLedgerRepository
+                .findByWgIdAndCreditorIdAndDebtorId(wg.getId(), creditor.getId(), debtor.getId()).orElseThrow();
+        entry.setAmountCents(4200);
+        balanceLedgerRepository.save(entry);
+        assertThat(balanceLedgerService.verifyLedger(wg.getId())).hasSize(1);
+
+        // When
+        balanceLedgerService.rebuildLedger(wg.getId());
+
+        // Then
+        assertThat(balanceLedgerService.verifyLedger(wg.getId())).isEmpty();
+        assertThat(transactionService.calculateBalanceWithUser(creditor.getId(), debtor.getId())).isEqualTo(100.0);
+    }
+
+    @Test
+    void buildsBalanceMatrixFromAggregate() {
+        // Given - creditor paid 90 for all three, debtor paid 30 for debtor2
+        User debtor2 = userRepository.save(TestDataFactory.user("debtor2@example.com", wg));
+        transactionService.createTransaction(
+                creditor.getId(), creditor.getId(), List.of(creditor.getId(), debtor.getId(), debtor2.getId()),
+                null, 90.0, "Dinner");
+        transactionService.createTransaction(
+                debtor.getId(), debtor.getId(), List.of(debtor2.getId()),
+                null, 30.0, "Snacks");
+
+        // When
+        BalanceMatrixDTO matrix = transactionService.getBalanceMatrix(wg.getId());
+
+        // Then
+        assertThat(matrix.members()).hasSize(3);
+        assertThat(matrix.getBalanceCents(creditor.getId(), debtor.getId())).isEqualTo(3000);
+        assertThat(matrix.getBalanceCents(debtor.getId(), creditor.getId())).isEqualTo(-3000);
+        assertThat(matrix.getBalanceCents(debtor.getId(), debtor2.getId())).isEqualTo(3000);
+        assertThat(matrix.getTotalBalanceCents(debtor2.getId())).isEqualTo(-6000);
+        assertThat(matrix.getBalanceCents(creditor.getId(), debtor2.getId()) / 100.0)
+                .isEqualTo(transactionService.calculateBalanceWithUser(creditor.getId(), debtor2.getId()));
+    }
+
+    @Test
+    void equalSplitSumsExactlyToTotal() {
+        // Given
+        User debtor2 = userRepository.save(TestDataFactory.user("debtor2@example.com", wg));
+
+        // When - 100.00 cannot be split into three equal cent amounts
+        Transaction transaction = transactionService.createTransaction(
+                creditor.getId(), creditor.getId(), List.of(creditor.getId(), debtor.getId(), debtor2.getId()),
+                null, 100.0, "Dinner");
+
+        // Then
+        assertThat(transaction.getTotalAmountCents()).isEqualTo(10000);
+        assertThat(transaction.getSplits()).extracting(TransactionSplit::getAmountCents)
+                .containsExactly(3334L, 3333L, 3333L);
+        assertThat(transaction.getSplits().stream().mapToLong(TransactionSplit::getAmountCents).sum())
+                .isEqualTo(transaction.getTotalAmountCents());
+        assertThat(transaction.getSplits().stream().mapToInt(TransactionSplit::getPercentageBasisPoints).sum())
+                .isEqualTo(10000);
+        assertThat(transactionService.getTotalBalanceCents(creditor.getId())).isEqualTo(6666);
+    }
+
+    @Test
+    void simplifiesChainedDebtsIntoSingleSettlement() {
+        // Given - debtor owes creditor 20€, creditor owes debtor2 20€
+        User debtor2 = userRepository.save(TestDataFactory.user("debtor2@example.com", wg));
+        transactionService.createTransaction(creditor.getId(), creditor.getId(), List.of(debtor.getId()),
+                null, 20.0, "Groceries");
+        transactionService.createTransaction(debtor2.getId(), debtor2.getId(), List.of(creditor.getId()),
+                null, 20.0, "Cleaning supplies");
+
+        // When
+        List<SettlementTransferDTO> settlements = transactionService.getSimplifiedSettlements(wg.getId());
+
+        // Then
+        assertThat(settlements).hasSize(1);
+        assertThat(settlements.get(0).from().id()).isEqualTo(debtor.getId());
+        assertThat(settlements.get(0).to().id()).isEqualTo(debtor2.getId());
+        assertThat(settlements.get(0).amountCents()).isEqualTo(2000);
+    }
+
+    @Test
+    void keepsDeletedUsersInSettlements() {
+        // Given - debtor owes creditor 30€, a deleted user owes creditor 10€
+        transactionService.createTransaction(creditor.getId(), creditor.getId(), List.of(debtor.getId()),
+                null, 30.0, "Groceries");
+        Long deletedUserId = debtor.getId() + 1000;
+        balanceLedgerRepository.save(new BalanceLedgerEntry(wg.getId(), creditor.getId(), deletedUserId, 1000));
+
+        // When
+        List<SettlementTransferDTO> settlements = transactionService.getSimplifiedSettlements(wg.getId());
+
+        // Then
+        assertThat(settlements).extracting(SettlementTransferDTO::amountCents).containsExactlyInAnyOrder(3000L,
+                1000L);
+        assertThat(settlements).allSatisfy(settlement -> assertThat(settlement.to().id()).isEqualTo(creditor.getId()));
+        assertThat(settlements).filteredOn(settlement -> settlement.from().id().equals(deletedUserId))
+                .singleElement()
+                .satisfies(settlement -> assertThat(settlement.from().name()).isEqualTo("Unknown User"));
+    }
+
+    @Test
+    void pagesThroughHistoryWithKeysetCursor() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            transactionService.createTransaction(creditor.getId(), creditor.getId(), List.of(debtor.getId()),
+                    null, 10.0 + i, "Expense " + i);
+        }
+
+        // When
+        List<Long> seen = new ArrayList<>();
+        TransactionHistoryPageDTO page = transactionService.getTransactionHistoryPage(debtor.getId(),
+                TransactionHistoryFilter.none(), null, null, 2);
+        int pages = 1;
+        page.items().forEach(item -> seen.add(item.id()));
+        while (page.hasMore()) {
+            page = transactionService.getTransactionHistoryPage(debtor.getId(), TransactionHistoryFilter.none(),
+                    page.nextTimestamp(), page.nextId(), 2);
+            page.items().forEach(item -> seen.add(item.id()));
+            pages++;
+        }
+
+        // Then
+        assertThat(pages).isEqualTo(3);
+        assertThat(page.totalCount()).isEqualTo(5);
+        assertThat(seen).hasSize(5).doesNotHaveDuplicates();
+        assertThat(seen).isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @Test
+    void filtersHistoryInDatabase() {
+        // Given
+        User debtor2 = userRepository.save(TestDataFactory.user("debtor2@example.com", wg));
+        Transaction old = transactionService.createTransaction(creditor.getId(), creditor.getId(),
+                List.of(debtor.getId()), null, 10.0, "Rent 100%_share");
+        // Six months away from now, so the month filter alone also excludes the rest
+        LocalDateTime oldTimestamp = LocalDateTime.now().minusYears(3).plusMonths(6);
+        old.setTimestamp(oldTimestamp);
+        transactionService.createTransaction(creditor.getId(), creditor.getId(), List.of(debtor2.getId()),
+                null, 20.0, "Groceries");
+        transactionService.createTransaction(debtor.getId(), debtor.getId(), List.of(creditor.getId()),
+                null, 30.0, "Internet");
+
+        // When / Then
+        assertThat(historyDescriptions(new TransactionHistoryFilter(oldTimestamp.getYear(),
+                oldTimestamp.getMonthValue(), null, null, null)))
+                .containsExactly("Rent 100%_share");
+        assertThat(historyDescriptions(new TransactionHistoryFilter(null, oldTimestamp.getMonthValue(),
+                null, null, null)))
+                .contains("Rent 100%_share").doesNotContain("Groceries", "Internet");
+        assertThat(historyDescriptions(new TransactionHistoryFilter(null, null, debtor.getId(), null, null)))
+                .containsExactly("Internet");
+        assertThat(historyDescriptions(new TransactionHistoryFilter(null, null, null, debtor2.getId(), null)))
+                .containsExactly("Groceries");
+        assertThat(historyDescriptions(new TransactionHistoryFilter(null, null, null, null, "%_SHARE")))
+                .containsExactly("Rent 100%_share");
+        assertThat(transactionService.getTransactionHistoryYears(creditor.getId()))
+                .contains(oldTimestamp.getYear()).isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    private List<String> historyDescriptions(TransactionHistoryFilter filter) {
+        return transactionService.getTransactionHistoryPage(creditor.getId(), filter, null, null, 50).items()
+                .stream().map(TransactionViewDTO::description).toList();
+    }
 }
@@ -7,6 +7,7 @@ import com.group_2.model.cleaning.Room;
 import com.group_2.model.finance.Transaction;
 import com.group_2.model.shopping.ShoppingList;
 import com.group_2.model.shopping.ShoppingListItem;
+import com.group_2.util.MoneyUtils;
 
 import java.time.LocalDate;
 
@@ -74,7 +75,7 @@ public final class TestDataFactory {
      * Create a Transaction with given parameters.
      */
     public static Transaction transaction(User creditor, Double amount, String description, WG wg) {
-        return new Transaction(creditor, creditor, amount, description, wg);
+        return new Transaction(creditor, creditor, MoneyUtils.toCents(amount), description, wg);
     }
 
     /**
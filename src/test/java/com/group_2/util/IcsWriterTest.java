@@ -0,0 +1,52 @@
+package com.group_2.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for IcsWriter.
+ * Plain JUnit tests with no Spring context.
+ */
+class IcsWriterTest {
+
+    @Test
+    void writesPropertiesWithCrlf() throws IOException {
+        StringWriter out = new StringWriter();
+
+        new IcsWriter(out).begin("VEVENT")
+                .date("DTSTART", LocalDate.of(2025, 3, 3))
+                .dateTime("DTSTAMP", Instant.parse("2025-03-01T08:30:00Z"))
+                .end("VEVENT");
+
+        assertThat(out.toString()).isEqualTo("BEGIN:VEVENT\r\nDTSTART;VALUE=DATE:20250303\r\n"
+                + "DTSTAMP:20250301T083000Z\r\nEND:VEVENT\r\n");
+    }
+
+    @Test
+    void escapesText() {
+        assertThat(IcsWriter.escape("Bath, upstairs; see\\notes\r\nline")).isEqualTo(
+                "Bath\\, upstairs\\; see\\\\notes\\nline");
+        assertThat(IcsWriter.escape(null)).isEmpty();
+    }
+
+    @Test
+    void foldsLongLinesAfter75Octets() throws IOException {
+        StringWriter out = new StringWriter();
+
+        new IcsWriter(out).text("SUMMARY", "Küche ".repeat(30));
+
+        String[] lines = out.toString().split("\r\n");
+        assertThat(lines).hasSizeGreaterThan(2);
+        for (String line : lines) {
+            assertThat(line.getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(75);
+        }
+        assertThat(out.toString().replace("\r\n ", "")).isEqualTo("SUMMARY:" + "Küche ".repeat(30) + "\r\n");
+    }
+}
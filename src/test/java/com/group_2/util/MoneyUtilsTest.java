@@ -0,0 +1,57 @@
+package com.group_2.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for MoneyUtils.
+ * Plain JUnit tests with no Spring context.
+ */
+class MoneyUtilsTest {
+
+    @Test
+    void convertsBetweenAmountsAndCents() {
+        assertThat(MoneyUtils.toCents(12.34)).isEqualTo(1234);
+        assertThat(MoneyUtils.toCents(0.1 + 0.2)).isEqualTo(30);
+        assertThat(MoneyUtils.toAmount(1234)).isEqualTo(12.34);
+        assertThat(MoneyUtils.toBasisPoints(33.33)).isEqualTo(3333);
+        assertThat(MoneyUtils.toPercentage(5000)).isEqualTo(50.0);
+    }
+
+    @Test
+    void allocatesEvenlyWithRemainderToFirstParts() {
+        long[] parts = MoneyUtils.allocateEvenly(10000, 3);
+
+        assertThat(parts).containsExactly(3334, 3333, 3333);
+        assertThat(Arrays.stream(parts).sum()).isEqualTo(10000);
+    }
+
+    @Test
+    void allocatesProportionallyAndSumsExactly() {
+        long[] weights = MoneyUtils.toPercentageWeights(List.of(33.3, 33.3, 33.4));
+        long[] parts = MoneyUtils.allocate(1001, weights);
+
+        assertThat(Arrays.stream(parts).sum()).isEqualTo(1001);
+        assertThat(parts).containsExactly(333, 333, 335);
+    }
+
+    @Test
+    void keepsCustomAmountsThroughPercentageRoundTrip() {
+        // 11.11 / 33.33 -> 33.333...% each, as sent by the transaction dialog
+        double share = 11.11 / 33.33 * 100.0;
+        long[] parts = MoneyUtils.allocate(3333, MoneyUtils.toPercentageWeights(List.of(share, share, share)));
+
+        assertThat(parts).containsExactly(1111, 1111, 1111);
+    }
+
+    @Test
+    void rejectsAllZeroWeights() {
+        assertThatThrownBy(() -> MoneyUtils.allocate(100, new long[] { 0, 0 }))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}